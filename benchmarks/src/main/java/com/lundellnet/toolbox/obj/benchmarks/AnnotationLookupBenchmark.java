@@ -0,0 +1,103 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lundellnet.toolbox.api.data_access.annotations.MatrixComponent;
+import com.lundellnet.toolbox.api.data_access.annotations.PointLocation;
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.elements.ComponentElement;
+import com.lundellnet.toolbox.obj.elements.LocatableElement;
+import com.lundellnet.toolbox.obj.elements.configs.ElementConf;
+
+/**
+ * Compares the element defaults against a direct {@link Field#getAnnotation(Class)} per call. The
+ * {@code metadata*} element reads metadata held by its {@link ElementConf}; the {@code registry*}
+ * element has a plain configuration and looks its metadata up by field. The fixture field carries
+ * no toolbox annotations, so every path resolves to {@code null} and only lookup cost is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AnnotationLookupBenchmark {
+	public static class Record {
+		private String quantity;
+	}
+
+	interface Element
+			extends LocatableElement<Object, Object, DataAccessConf<Object, Object>>, ComponentElement<Object, Object, DataAccessConf<Object, Object>>
+	{}
+
+	private Field field;
+	private Element element;
+	private Element registryElement;
+
+	@Setup
+	public void setup() throws NoSuchFieldException {
+		field = Record.class.getDeclaredField("quantity");
+
+		DataPoint<Object, Object> point = Benchmarks.dataPoint(field, null, null);
+		ElementConf<Object, Object> conf = ElementConf.of(point);
+		DataAccessConf<Object, Object> plain = () -> point;
+
+		element = () -> conf;
+		registryElement = () -> plain;
+	}
+
+	@Benchmark
+	public PointLocation reflectiveLocation() {
+		return field.getAnnotation(PointLocation.class);
+	}
+
+	@Benchmark
+	public PointLocation metadataLocation() {
+		return element.getMetadata().location();
+	}
+
+	@Benchmark
+	public PointLocation registryLocation() {
+		return registryElement.getMetadata().location();
+	}
+
+	@Benchmark
+	public MatrixComponent reflectiveComponent() {
+		return field.getAnnotation(MatrixComponent.class);
+	}
+
+	@Benchmark
+	public MatrixComponent metadataComponent() {
+		return element.getComponent();
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.compilation.DataPointBuilder;
+
+final class Benchmarks {
+	private Benchmarks() {}
+
+	@SuppressWarnings("unchecked")
+	static <I, O> DataPointBuilder<I, O> reflective() {
+		return (parentClass, parentSupplier, elementField) -> {
+			elementField.setAccessible(true);
+
+			return dataPoint(elementField,
+					(i) -> {
+						try {
+							elementField.set(parentSupplier.get(), i);
+						} catch (IllegalAccessException ex) {
+							throw new IllegalStateException(ex);
+						}
+					},
+					() -> {
+						try {
+							return (O) elementField.get(parentSupplier.get());
+						} catch (IllegalAccessException ex) {
+							throw new IllegalStateException(ex);
+						}
+					});
+		};
+	}
+
+	static <I, O> DataPoint<I, O> dataPoint(Field field, Consumer<I> setter, Supplier<O> getter) {
+		return new DataPoint<I, O>() {
+			@Override
+			public Field field() {
+				return field;
+			}
+
+			@Override
+			public Consumer<I> setter() {
+				return setter;
+			}
+
+			@Override
+			public Supplier<O> getter() {
+				return getter;
+			}
+		};
+	}
+}
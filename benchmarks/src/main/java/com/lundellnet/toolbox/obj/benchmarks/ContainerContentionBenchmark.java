@@ -0,0 +1,96 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.data_containers.compilation.MapCollectionBuilder;
+
+/**
+ * Run through {@link #main(String[])} to sweep 1 to 64 threads; any further arguments are passed
+ * on to JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerContentionBenchmark {
+	private static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+
+	@Param({ "concurrent", "synchronized" })
+	public String container;
+
+	@Param({ "1024" })
+	public int keys;
+
+	private CollectionContainer<Long, KeyedElement> elements;
+
+	@Setup
+	public void setup() {
+		if ("synchronized".equals(container)) {
+			elements = new SynchronizedMapContainer<>(KeyedElement::key, KeyedElement::merge);
+		} else {
+			elements = MapCollectionBuilder.<Long, KeyedElement>concurrent().build(KeyedElement::key, KeyedElement::merge);
+		}
+
+		for (long k = 0; k < keys; k++) {
+			elements.includeElement(new KeyedElement(k));
+		}
+	}
+
+	@Benchmark
+	public void include() {
+		elements.includeElement(new KeyedElement(ThreadLocalRandom.current().nextInt(keys)));
+	}
+
+	@Benchmark
+	public KeyedElement retreive() {
+		return elements.retreiveElement((long) ThreadLocalRandom.current().nextInt(keys));
+	}
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+
+		for (int t : THREADS) {
+			new Runner(new OptionsBuilder()
+					.parent(cmd)
+					.include(ContainerContentionBenchmark.class.getSimpleName())
+					.threads(t)
+					.build()).run();
+		}
+	}
+}
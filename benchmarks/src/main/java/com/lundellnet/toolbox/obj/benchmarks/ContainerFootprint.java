@@ -0,0 +1,68 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.data_containers.LongKeyContainer;
+import com.lundellnet.toolbox.obj.data_containers.StringKeyContainer;
+
+/**
+ * Prints the retained size of each keyed container for a range of element counts, excluding the
+ * elements themselves (and, for string keys, the key strings) so only index overhead is compared.
+ */
+public final class ContainerFootprint {
+	private ContainerFootprint() {}
+
+	public static void main(String[] args) {
+		for (int n : new int[] { 1 << 10, 1 << 16, 1 << 20 }) {
+			KeyedElement[] elements = new KeyedElement[n];
+			String[] names = new String[n];
+
+			for (int k = 0; k < n; k++) {
+				elements[k] = new KeyedElement(k);
+				names[k] = String.valueOf(k);
+			}
+
+			CollectionContainer<Long, KeyedElement> hashByLong = new HashMapContainer<>(KeyedElement::key, KeyedElement::merge);
+			LongKeyContainer<KeyedElement> openByLong = new LongKeyContainer<>(KeyedElement::key, KeyedElement::merge);
+			CollectionContainer<String, KeyedElement> hashByString = new HashMapContainer<>((e) -> names[(int) e.key()], KeyedElement::merge);
+			StringKeyContainer<KeyedElement> openByString = new StringKeyContainer<>((e) -> names[(int) e.key()], KeyedElement::merge);
+
+			for (KeyedElement e : elements) {
+				hashByLong.includeElement(e);
+				openByLong.includeElement(e);
+				hashByString.includeElement(e);
+				openByString.includeElement(e);
+			}
+
+			long shared = GraphLayout.parseInstance((Object[]) elements).totalSize();
+			long sharedNames = GraphLayout.parseInstance((Object[]) names).totalSize();
+
+			report(n, "hash-map/long", GraphLayout.parseInstance(hashByLong, elements).totalSize() - shared);
+			report(n, "open-addressing/long", GraphLayout.parseInstance(openByLong, elements).totalSize() - shared);
+			report(n, "hash-map/string", GraphLayout.parseInstance(hashByString, elements, names).totalSize() - shared - sharedNames);
+			report(n, "open-addressing/string", GraphLayout.parseInstance(openByString, elements, names).totalSize() - shared - sharedNames);
+		}
+	}
+
+	private static void report(int n, String container, long bytes) {
+		System.out.printf("%-24s %9d elements %12d bytes %8.1f bytes/element%n", container, n, bytes, (double) bytes / n);
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.LongDataPoint;
+import com.lundellnet.toolbox.obj.data_access.compilation.DataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.compilation.LongDataPointBuilder;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DataPointAccessBenchmark {
+	public static class Record {
+		private String name;
+		private long count;
+	}
+
+	private Record record;
+	private String value;
+
+	private DataPoint<String, String> reflective;
+	private DataPoint<String, String> handles;
+	private DataPoint<Long, Long> reflectiveCount;
+	private LongDataPoint count;
+	private long next;
+
+	@Setup
+	public void setup() throws NoSuchFieldException {
+		Field nameField = Record.class.getDeclaredField("name");
+		Field countField = Record.class.getDeclaredField("count");
+
+		record = new Record();
+		value = "value";
+		reflective = Benchmarks.<String, String>reflective().build(Record.class, () -> record, nameField);
+		handles = DataPointBuilder.<String, String>handleBacked().build(Record.class, () -> record, nameField);
+		reflectiveCount = Benchmarks.<Long, Long>reflective().build(Record.class, () -> record, countField);
+		count = LongDataPointBuilder.handleBacked().build(Record.class, () -> record, countField);
+	}
+
+	@Benchmark
+	public void reflectiveSet() {
+		reflective.setter().accept(value);
+	}
+
+	@Benchmark
+	public String reflectiveGet() {
+		return reflective.getter().get();
+	}
+
+	@Benchmark
+	public void handleSet() {
+		handles.setter().accept(value);
+	}
+
+	@Benchmark
+	public String handleGet() {
+		return handles.getter().get();
+	}
+
+	@Benchmark
+	public void reflectiveLongSet() {
+		reflectiveCount.setter().accept(next++);
+	}
+
+	@Benchmark
+	public long reflectiveLongGet() {
+		return reflectiveCount.getter().get();
+	}
+
+	@Benchmark
+	public void boxedLongSet() {
+		count.setter().accept(next++);
+	}
+
+	@Benchmark
+	public long boxedLongGet() {
+		return count.getter().get();
+	}
+
+	@Benchmark
+	public void primitiveLongSet() {
+		count.longSetter().accept(next++);
+	}
+
+	@Benchmark
+	public long primitiveLongGet() {
+		return count.longGetter().getAsLong();
+	}
+
+	@Benchmark
+	public void directSet() {
+		record.name = value;
+	}
+
+	@Benchmark
+	public String directGet() {
+		return record.name;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.data_containers.compilation.EnumCollectionBuilder;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EnumLookupBenchmark {
+	private CollectionContainer<Token, TokenElement> ordinal;
+	private CollectionContainer<Token, TokenElement> enumMap;
+	private CollectionContainer<Token, TokenElement> hashMap;
+
+	private Token[] probes;
+	private int next;
+
+	@Setup
+	public void setup() {
+		ordinal = EnumCollectionBuilder.<Token, TokenElement>ordinalIndexed().build(Token.class);
+		enumMap = new EnumMapContainer<>(Token.class, (l, r) -> l);
+		hashMap = new HashMapContainer<>(TokenElement::getEnumConstant, (l, r) -> l);
+
+		for (Token t : Token.values()) {
+			TokenElement e = new TokenElement(t);
+
+			ordinal.includeElement(e);
+			enumMap.includeElement(e);
+			hashMap.includeElement(e);
+		}
+
+		SplittableRandom random = new SplittableRandom(42);
+		Token[] tokens = Token.values();
+
+		probes = new Token[4096];
+
+		for (int i = 0; i < probes.length; i++) {
+			probes[i] = tokens[random.nextInt(tokens.length)];
+		}
+	}
+
+	@Benchmark
+	public TokenElement ordinalIndexed() {
+		return ordinal.retreiveElement(probes[next++ & 4095]);
+	}
+
+	@Benchmark
+	public TokenElement enumMap() {
+		return enumMap.retreiveElement(probes[next++ & 4095]);
+	}
+
+	@Benchmark
+	public TokenElement hashMap() {
+		return hashMap.retreiveElement(probes[next++ & 4095]);
+	}
+}
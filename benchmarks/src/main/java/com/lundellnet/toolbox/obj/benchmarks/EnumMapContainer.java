@@ -0,0 +1,53 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.elements.EnumElement;
+
+final class EnumMapContainer <D extends Enum<D>, E extends EnumElement<?, ?, ?, D>>
+		implements CollectionContainer<D, E>
+{
+	private final Map<D, E> elements;
+	private final BiFunction<E, E, E> merge;
+
+	EnumMapContainer(Class<D> enumClass, BiFunction<E, E, E> merge) {
+		this.elements = new EnumMap<>(enumClass);
+		this.merge = merge;
+	}
+
+	@Override
+	public void includeElement(E e) {
+		elements.merge(e.getEnumConstant(), e, merge);
+	}
+
+	@Override
+	public E retreiveElement(D ident) {
+		return elements.get(ident);
+	}
+
+	@Override
+	public Stream<E> getStream() {
+		return elements.values().stream();
+	}
+}
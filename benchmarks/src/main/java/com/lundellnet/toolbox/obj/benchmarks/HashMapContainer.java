@@ -0,0 +1,55 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+
+final class HashMapContainer <D, E extends ConfigurableDataAccess<?>>
+		implements CollectionContainer<D, E>
+{
+	private final Map<D, E> elements = new HashMap<>();
+	private final Function<E, D> identity;
+	private final BiFunction<E, E, E> merge;
+
+	HashMapContainer(Function<E, D> identity, BiFunction<E, E, E> merge) {
+		this.identity = identity;
+		this.merge = merge;
+	}
+
+	@Override
+	public void includeElement(E e) {
+		elements.merge(identity.apply(e), e, merge);
+	}
+
+	@Override
+	public E retreiveElement(D ident) {
+		return elements.get(ident);
+	}
+
+	@Override
+	public Stream<E> getStream() {
+		return elements.values().stream();
+	}
+}
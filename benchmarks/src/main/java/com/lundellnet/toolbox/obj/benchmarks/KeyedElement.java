@@ -0,0 +1,60 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+
+public class KeyedElement
+		implements ConfigurableDataAccess<DataAccessConf<?, ?>>
+{
+	private final long key;
+	private long merged;
+	private long total;
+
+	public KeyedElement(long key) {
+		this.key = key;
+	}
+
+	public long key() {
+		return key;
+	}
+
+	public long merged() {
+		return merged;
+	}
+
+	public long total() {
+		return total;
+	}
+
+	public void add(long value) {
+		total += value;
+	}
+
+	public KeyedElement merge(KeyedElement other) {
+		merged += other.merged + 1;
+		total += other.total;
+		return this;
+	}
+
+	@Override
+	public DataAccessConf<?, ?> conf() {
+		return null;
+	}
+}
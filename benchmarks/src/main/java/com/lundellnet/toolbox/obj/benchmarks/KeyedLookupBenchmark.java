@@ -0,0 +1,105 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.data_containers.LongKeyContainer;
+import com.lundellnet.toolbox.obj.data_containers.StringKeyContainer;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class KeyedLookupBenchmark {
+	@Param({ "1024", "1048576" })
+	public int keys;
+
+	private CollectionContainer<Long, KeyedElement> hashByLong;
+	private LongKeyContainer<KeyedElement> openByLong;
+	private CollectionContainer<String, KeyedElement> hashByString;
+	private StringKeyContainer<KeyedElement> openByString;
+
+	private long[] longProbes;
+	private String[] stringProbes;
+	private int next;
+
+	@Setup
+	public void setup() {
+		hashByLong = new HashMapContainer<>(KeyedElement::key, KeyedElement::merge);
+		openByLong = new LongKeyContainer<>(KeyedElement::key, KeyedElement::merge, keys);
+		hashByString = new HashMapContainer<>(KeyedLookupBenchmark::name, KeyedElement::merge);
+		openByString = new StringKeyContainer<>(KeyedLookupBenchmark::name, KeyedElement::merge, keys);
+
+		for (long k = 0; k < keys; k++) {
+			KeyedElement e = new KeyedElement(k * 31);
+
+			hashByLong.includeElement(e);
+			openByLong.includeElement(e);
+			hashByString.includeElement(e);
+			openByString.includeElement(e);
+		}
+
+		longProbes = new long[4096];
+		stringProbes = new String[longProbes.length];
+
+		for (int i = 0; i < longProbes.length; i++) {
+			longProbes[i] = ((i * 7919L) % keys) * 31;
+			stringProbes[i] = String.valueOf(longProbes[i]);
+		}
+	}
+
+	@Benchmark
+	public KeyedElement hashMapLong() {
+		return hashByLong.retreiveElement(longProbes[next++ & 4095]);
+	}
+
+	@Benchmark
+	public KeyedElement openAddressingLong() {
+		return openByLong.retreiveElement(longProbes[next++ & 4095]);
+	}
+
+	@Benchmark
+	public KeyedElement hashMapString() {
+		return hashByString.retreiveElement(stringProbes[next++ & 4095]);
+	}
+
+	@Benchmark
+	public KeyedElement openAddressingString() {
+		return openByString.retreiveElement(stringProbes[next++ & 4095]);
+	}
+
+	static String name(KeyedElement e) {
+		return String.valueOf(e.key());
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.data_containers.LongKeyContainer;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParserAcceptBenchmark {
+	private static final int BATCH = 4096;
+
+	@Param({ "hash-map", "open-addressing" })
+	public String container;
+
+	@Param({ "64", "65536" })
+	public int keys;
+
+	private TickParser parser;
+	private Tick[] ticks;
+	private List<Tick> batch;
+
+	@Setup
+	public void setup() {
+		CollectionContainer<Long, KeyedElement> elements = "hash-map".equals(container)
+				? new HashMapContainer<>(KeyedElement::key, KeyedElement::merge)
+				: new LongKeyContainer<>(KeyedElement::key, KeyedElement::merge);
+
+		parser = new TickParser(elements);
+		ticks = Tick.feed(BATCH, keys);
+		batch = Arrays.asList(ticks);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void accept() {
+		for (Tick t : ticks) {
+			parser.accept(t);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void acceptBatch() {
+		parser.acceptBatch(batch);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void acceptBatchByKey() {
+		parser.acceptBatch(batch, Tick::key);
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lundellnet.toolbox.obj.collectors.ParsingCollector;
+import com.lundellnet.toolbox.obj.data_containers.LongKeyContainer;
+import com.lundellnet.toolbox.obj.parsers.compilation.ParserProvider;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParsingCollectorBenchmark {
+	@Param({ "1048576" })
+	public int records;
+
+	@Param({ "1024" })
+	public int keys;
+
+	private Tick[] ticks;
+	private ParsingCollector<Tick, TickParser, TickCollection, Long> collector;
+
+	@Setup
+	public void setup() {
+		ParserProvider<Tick, TickParser, TickCollection, KeyedElement, Long> provider =
+				() -> new TickParser(new LongKeyContainer<>(KeyedElement::key, KeyedElement::merge));
+
+		ticks = Tick.feed(records, keys);
+		collector = provider.asCollector();
+	}
+
+	@Benchmark
+	public Long sequential() {
+		return Arrays.stream(ticks).collect(collector);
+	}
+
+	@Benchmark
+	public Long parallel() {
+		return Arrays.stream(ticks).parallel().collect(collector);
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lundellnet.toolbox.obj.data_containers.LongKeyContainer;
+import com.lundellnet.toolbox.obj.parsers.PipelinedParser;
+
+/**
+ * Caller-thread {@code Parser.accept} against a {@link PipelinedParser} as the accepter gets more
+ * expensive. The pipelined figure includes draining every record of the invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PipelinedParserBenchmark {
+	private static final int BATCH = 4096;
+
+	@Param({ "0", "256" })
+	public long acceptTokens;
+
+	@Param({ "1", "4" })
+	public int acceptWorkers;
+
+	private TickParser sequential;
+	private PipelinedParser<Tick, TickCollection, KeyedElement, Long> pipelined;
+	private Tick[] ticks;
+
+	@Setup
+	public void setup() {
+		sequential = new TickParser(new LongKeyContainer<>(KeyedElement::key, KeyedElement::merge), acceptTokens);
+		pipelined = new TickParser(new LongKeyContainer<>(KeyedElement::key, KeyedElement::merge), acceptTokens)
+				.pipelined(acceptWorkers, 1024);
+		ticks = Tick.feed(BATCH, 65536);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pipelined.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void sequential() {
+		for (Tick t : ticks) {
+			sequential.accept(t);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void pipelined() {
+		for (Tick t : ticks) {
+			pipelined.accept(t);
+		}
+
+		pipelined.drain();
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.SplittableRandom;
+
+public final class Tick {
+	private final long key;
+	private final long value;
+
+	public Tick(long key, long value) {
+		this.key = key;
+		this.value = value;
+	}
+
+	public long key() {
+		return key;
+	}
+
+	public long value() {
+		return value;
+	}
+
+	static Tick[] feed(int size, int keys) {
+		SplittableRandom random = new SplittableRandom(42);
+		Tick[] ticks = new Tick[size];
+
+		for (int i = 0; i < size; i++) {
+			ticks[i] = new Tick(random.nextInt(keys), random.nextInt(1000));
+		}
+
+		return ticks;
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.collections.configs.DataCollectionConf;
+import com.lundellnet.toolbox.obj.collections.configurables.DataCollection;
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.elements.compilation.ElementBuilder;
+
+final class TickCollection
+		implements DataCollection<TickCollection.Conf, Long, KeyedElement>
+{
+	static final class Conf
+			implements DataCollectionConf<Long, KeyedElement, ElementBuilder<?, ?>>
+	{
+		private final CollectionContainer<Long, KeyedElement> container;
+
+		Conf(CollectionContainer<Long, KeyedElement> container) {
+			this.container = container;
+		}
+
+		@Override
+		public ElementBuilder<?, ?> elementBuilder() {
+			return null;
+		}
+
+		@Override
+		public CollectionContainer<Long, KeyedElement> collectionStream() {
+			return container;
+		}
+
+		@Override
+		public Class<Long> resultClass() {
+			return Long.class;
+		}
+
+		@Override
+		public Supplier<Long> resultSupplier() {
+			return () -> 0L;
+		}
+	}
+
+	private final Conf conf;
+
+	TickCollection(CollectionContainer<Long, KeyedElement> container) {
+		this.conf = new Conf(container);
+	}
+
+	@Override
+	public Conf conf() {
+		return conf;
+	}
+
+	KeyedElement retreive(long key) {
+		return conf.collectionStream().retreiveElement(key);
+	}
+}
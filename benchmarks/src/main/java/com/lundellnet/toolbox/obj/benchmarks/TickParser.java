@@ -0,0 +1,115 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.parsers.Parser;
+
+/**
+ * Minimal parser summing tick values per key, standing in for a compiled parser.
+ */
+final class TickParser
+		implements Parser<Tick, TickCollection, KeyedElement, Long>
+{
+	private final TickCollection collection;
+
+	private final BiFunction<TickCollection, Tick, KeyedElement> elementInit = (c, t) -> {
+		KeyedElement e = new KeyedElement(t.key());
+
+		c.includeElement(e);
+		return e;
+	};
+	private final BiFunction<TickCollection, Tick, KeyedElement> identifier = (c, t) -> c.retreive(t.key());
+	private final BiConsumer<KeyedElement, Tick> accepter;
+	private final BinaryOperator<KeyedElement> checker = KeyedElement::merge;
+	private final Function<TickCollection, Long> finisher = (c) -> c.elements().mapToLong(KeyedElement::total).sum();
+
+	TickParser(CollectionContainer<Long, KeyedElement> container) {
+		this(container, 0);
+	}
+
+	/**
+	 * Parser whose accepter burns {@code acceptTokens} of {@link Blackhole#consumeCPU(long)} per
+	 * record, standing in for an expensive conversion.
+	 */
+	TickParser(CollectionContainer<Long, KeyedElement> container, long acceptTokens) {
+		this.collection = new TickCollection(container);
+		this.accepter = (acceptTokens > 0)
+				? (e, t) -> {
+					Blackhole.consumeCPU(acceptTokens);
+					e.add(t.value());
+				}
+				: (e, t) -> e.add(t.value());
+	}
+
+	@Override
+	public BiFunction<TickCollection, Tick, KeyedElement> elementInit() {
+		return elementInit;
+	}
+
+	@Override
+	public BiFunction<TickCollection, Tick, KeyedElement> identifier() {
+		return identifier;
+	}
+
+	@Override
+	public BiConsumer<KeyedElement, Tick> accepter() {
+		return accepter;
+	}
+
+	@Override
+	public BinaryOperator<KeyedElement> checker() {
+		return checker;
+	}
+
+	@Override
+	public Function<TickCollection, Long> finisher() {
+		return finisher;
+	}
+
+	@Override
+	public TickCollection collection() {
+		return collection;
+	}
+
+	@Override
+	public void accept(Tick t) {
+		KeyedElement e = identifier.apply(collection, t);
+
+		accepter.accept((e != null) ? e : elementInit.apply(collection, t), t);
+	}
+
+	@Override
+	public TickCollection combine(Tick t1, Tick t2) {
+		accept(t1);
+		accept(t2);
+		return collection;
+	}
+
+	@Override
+	public Long transform() {
+		return finisher.apply(collection);
+	}
+}
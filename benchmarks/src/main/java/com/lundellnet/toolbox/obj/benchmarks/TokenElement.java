@@ -0,0 +1,59 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.benchmarks;
+
+import java.lang.reflect.Field;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.elements.EnumElement;
+import com.lundellnet.toolbox.obj.elements.configs.EnumElementConf;
+
+final class TokenElement
+		implements EnumElement<Object, Object, EnumElementConf<Object, Object, Token>, Token>
+{
+	private final EnumElementConf<Object, Object, Token> conf;
+
+	TokenElement(Token token) {
+		this.conf = new EnumElementConf<Object, Object, Token>() {
+			@Override
+			public DataPoint<Object, Object> dataPoint() {
+				return null;
+			}
+
+			@Override
+			public Class<Token> enumClass() {
+				return Token.class;
+			}
+
+			@Override
+			public Field enumConstField() {
+				return null;
+			}
+
+			@Override
+			public Token getEnumConstant() {
+				return token;
+			}
+		};
+	}
+
+	@Override
+	public EnumElementConf<Object, Object, Token> conf() {
+		return conf;
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a {@code <Model>_Bindings} class next to every model class carrying toolbox point or
+ * matrix annotations. The generated data points and elements read and write the model's fields
+ * directly instead of through reflection; fields the generated code cannot reach (private, static
+ * or final) are reported and left to the runtime handle-backed path.
+ */
+public class BindingProcessor
+		extends AbstractProcessor
+{
+	static final String ANNOTATIONS = "com.lundellnet.toolbox.api.data_access.annotations.";
+
+	static final String POINT_LOCATION = ANNOTATIONS + "PointLocation";
+	static final String POINT_MAPPING = ANNOTATIONS + "PointMapping";
+	static final String POINT_MAPPINGS = ANNOTATIONS + "PointMappings";
+	static final String MATRIX_SOURCE = ANNOTATIONS + "MatrixSource";
+	static final String MATRIX_COMPONENT = ANNOTATIONS + "MatrixComponent";
+	static final String MATRIX_COMPONENT_ADAPTER = ANNOTATIONS + "MatrixComponentAdapter";
+	static final String MATRIX_COMPONENT_FIELD = ANNOTATIONS + "MatrixComponentField";
+	static final String MATRIX_COMPONENT_POINT = ANNOTATIONS + "MatrixComponentPoint";
+
+	static final Set<String> SUPPORTED = new HashSet<>(Arrays.asList(
+			POINT_LOCATION, POINT_MAPPING, POINT_MAPPINGS, MATRIX_SOURCE,
+			MATRIX_COMPONENT, MATRIX_COMPONENT_ADAPTER, MATRIX_COMPONENT_FIELD, MATRIX_COMPONENT_POINT));
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return SUPPORTED;
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+		Map<TypeElement, List<VariableElement>> models = new LinkedHashMap<>();
+
+		for (TypeElement annotation : annotations) {
+			for (Element e : round.getElementsAnnotatedWith(annotation)) {
+				if (e.getKind() == ElementKind.FIELD) {
+					List<VariableElement> fields = models.computeIfAbsent((TypeElement) e.getEnclosingElement(), (t) -> new ArrayList<>());
+
+					if (!fields.contains(e)) {
+						fields.add((VariableElement) e);
+					}
+				}
+			}
+		}
+
+		for (Map.Entry<TypeElement, List<VariableElement>> model : models.entrySet()) {
+			if (accessible(model.getKey())) {
+				generate(model.getKey(), model.getValue());
+			}
+		}
+
+		return false;
+	}
+
+	private boolean accessible(TypeElement model) {
+		for (Element e = model; e instanceof TypeElement; e = e.getEnclosingElement()) {
+			TypeElement type = (TypeElement) e;
+
+			if (type.getModifiers().contains(Modifier.PRIVATE) || !type.getTypeParameters().isEmpty()
+					|| type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS)
+			{
+				processingEnv.getMessager().printMessage(Kind.WARNING,
+						"No bindings generated: " + model.getQualifiedName() + " is private, generic or local.", model);
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private void generate(TypeElement model, List<VariableElement> annotated) {
+		List<BoundField> fields = new ArrayList<>();
+		Set<String> names = new HashSet<>();
+
+		List<? extends Element> declared = model.getEnclosedElements();
+
+		annotated.sort(Comparator.comparingInt(declared::indexOf));
+
+		for (VariableElement f : annotated) {
+			Set<Modifier> modifiers = f.getModifiers();
+
+			if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+				processingEnv.getMessager().printMessage(Kind.WARNING,
+						"No direct binding generated for private, static or final field " + f.getSimpleName() + ".", f);
+			} else {
+				fields.add(new BoundField(processingEnv, f, names));
+			}
+		}
+
+		BindingWriter writer = new BindingWriter(processingEnv, model, fields);
+
+		try {
+			JavaFileObject source = processingEnv.getFiler().createSourceFile(writer.qualifiedName(), model);
+
+			try (Writer out = source.openWriter()) {
+				out.write(writer.write());
+			}
+		} catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write " + writer.qualifiedName() + ": " + ex, model);
+		}
+	}
+}
@@ -0,0 +1,501 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.processor;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.SimpleAnnotationValueVisitor8;
+import javax.lang.model.util.Types;
+
+/**
+ * Renders the source of one {@code <Model>_Bindings} class. For every bound field it emits a
+ * {@code <field>Point} factory returning a data point that reads and writes the field directly,
+ * and a {@code <Field>Element} class implementing the data access and annotated element
+ * interfaces that match the field's type and annotations. The field's element annotations are
+ * emitted as constants, one {@link com.lundellnet.toolbox.obj.elements.ResolvedAnnotation}
+ * subclass per annotation type, and the element's metadata getters return them, so elements never
+ * reflect over the model.
+ */
+final class BindingWriter {
+	private static final String OBJ = "com.lundellnet.toolbox.obj.";
+
+	private static final Map<String, String> CONSTANTS = new HashMap<>();
+
+	static {
+		CONSTANTS.put(BindingProcessor.POINT_LOCATION, "LOCATION");
+		CONSTANTS.put(BindingProcessor.POINT_MAPPING, "MAPPING");
+		CONSTANTS.put(BindingProcessor.POINT_MAPPINGS, "MAPPINGS");
+		CONSTANTS.put(BindingProcessor.MATRIX_SOURCE, "MATRIX");
+		CONSTANTS.put(BindingProcessor.MATRIX_COMPONENT, "COMPONENT");
+		CONSTANTS.put(BindingProcessor.MATRIX_COMPONENT_ADAPTER, "COMPONENT_ADAPTER");
+		CONSTANTS.put(BindingProcessor.MATRIX_COMPONENT_FIELD, "COMPONENT_FIELD");
+		CONSTANTS.put(BindingProcessor.MATRIX_COMPONENT_POINT, "COMPONENT_POINT");
+	}
+
+	private final Elements elements;
+	private final Types types;
+	private final String packageName;
+	private final String simpleName;
+	private final String model;
+	private final List<BoundField> fields;
+	private final StringBuilder out = new StringBuilder(4096);
+	private final Map<String, TypeElement> annotationTypes = new LinkedHashMap<>();
+	private final Map<String, String> annotationValues = new HashMap<>();
+	private final Set<String> valueNames = new HashSet<>();
+	private final ValueRenderer renderer = new ValueRenderer();
+
+	BindingWriter(ProcessingEnvironment env, TypeElement model, List<BoundField> fields) {
+		PackageElement pkg = env.getElementUtils().getPackageOf(model);
+
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+		StringBuilder name = new StringBuilder("_Bindings");
+
+		for (Element e = model; e instanceof TypeElement; e = e.getEnclosingElement()) {
+			name.insert(0, e.getSimpleName()).insert(0, '_');
+		}
+
+		this.packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+		this.simpleName = name.substring(1);
+		this.model = model.getQualifiedName().toString();
+		this.fields = fields;
+	}
+
+	String qualifiedName() {
+		return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+	}
+
+	String write() {
+		if (!packageName.isEmpty()) {
+			line(0, "package " + packageName + ";");
+			line(0, "");
+		}
+
+		line(0, "import java.lang.reflect.Field;");
+		line(0, "import java.util.ArrayList;");
+		line(0, "import java.util.List;");
+		line(0, "import java.util.function.*;");
+		line(0, "");
+		line(0, "import " + OBJ + "data_access.*;");
+		line(0, "import " + OBJ + "data_access.compilation.DataPointBuilder;");
+		line(0, "import " + OBJ + "data_access.configs.*;");
+		line(0, "import " + OBJ + "data_access.configurables.*;");
+		line(0, "import " + OBJ + "elements.*;");
+		line(0, "import " + OBJ + "elements.compilation.ElementBuilder;");
+		line(0, "");
+		line(0, "/**");
+		line(0, " * Direct-access bindings for {@link " + model + "}, generated by");
+		line(0, " * {@code " + BindingProcessor.class.getName() + "}. Do not edit.");
+		line(0, " */");
+		line(0, "@SuppressWarnings({ \"unchecked\", \"rawtypes\" })");
+		line(0, "public final class " + simpleName + " {");
+		writeFields();
+
+		for (BoundField f : fields) {
+			writePoint(f);
+			writeElement(f);
+		}
+
+		writeElements();
+		writeElementBuilder();
+		writeDataPointBuilder();
+
+		for (Map.Entry<String, TypeElement> a : annotationTypes.entrySet()) {
+			writeAnnotationValue(a.getValue(), annotationValues.get(a.getKey()));
+		}
+
+		line(1, "private " + simpleName + "() {");
+		line(1, "}");
+		line(0, "}");
+
+		return out.toString();
+	}
+
+	private void writeFields() {
+		line(1, "/**");
+		line(1, " * Reflected fields, resolved on first use only by {@code DataPoint.field()}; the generated");
+		line(1, " * elements and their metadata never touch them.");
+		line(1, " */");
+		line(1, "private static final class Fields {");
+
+		for (BoundField f : fields) {
+			line(2, "static final Field " + constant(f) + " = field(\"" + f.name + "\");");
+		}
+
+		line(0, "");
+		line(2, "private static Field field(String name) {");
+		line(3, "try {");
+		line(4, "return " + model + ".class.getDeclaredField(name);");
+		line(3, "} catch (NoSuchFieldException e) {");
+		line(4, "throw new IllegalStateException(\"Bindings out of date for " + model + "\", e);");
+		line(3, "}");
+		line(2, "}");
+		line(1, "}");
+		line(0, "");
+	}
+
+	private void writePoint(BoundField f) {
+		String spec = f.specialization();
+		String parent = "Supplier<? extends " + model + "> parent";
+
+		if (spec != null) {
+			String primitive = f.type.substring(0, 1).toUpperCase() + f.type.substring(1);
+			String consumer = primitive + "Consumer";
+			String supplier = primitive + "Supplier";
+
+			line(1, "public static " + spec + "DataPoint " + f.name + "Point(" + parent + ") {");
+			line(2, "return new " + spec + "DataPoint() {");
+			line(3, "private final " + consumer + " setter = (v) -> parent.get()." + f.name + " = v;");
+			line(3, "private final " + supplier + " getter = () -> parent.get()." + f.name + ";");
+			line(0, "");
+			line(3, "@Override public Field field() { return Fields." + constant(f) + "; }");
+			line(3, "@Override public " + consumer + " " + f.type + "Setter() { return setter; }");
+			line(3, "@Override public " + supplier + " " + f.type + "Getter() { return getter; }");
+		} else {
+			String t = f.boxedType;
+
+			line(1, "public static DataPoint<" + t + ", " + t + "> " + f.name + "Point(" + parent + ") {");
+			line(2, "return new DataPoint<" + t + ", " + t + ">() {");
+			line(3, "private final Consumer<" + t + "> setter = (v) -> parent.get()." + f.name + " = v;");
+			line(3, "private final Supplier<" + t + "> getter = () -> parent.get()." + f.name + ";");
+			line(0, "");
+			line(3, "@Override public Field field() { return Fields." + constant(f) + "; }");
+			line(3, "@Override public Consumer<" + t + "> setter() { return setter; }");
+			line(3, "@Override public Supplier<" + t + "> getter() { return getter; }");
+		}
+
+		line(2, "};");
+		line(1, "}");
+		line(0, "");
+	}
+
+	private void writeElement(BoundField f) {
+		String spec = f.specialization();
+		String t = f.boxedType;
+		String conf = spec != null ? spec + "DataAccessConf" : "DataAccessConf<" + t + ", " + t + ">";
+		String access = spec != null ? spec + "DataAccess<" + conf + ">" : "StandardDataAccess<" + t + ", " + conf + ">";
+		String args = "<" + t + ", " + t + ", " + conf + ">";
+		StringBuilder types = new StringBuilder(access).append(", AnnotatedElement").append(args);
+
+		if (f.located) {
+			types.append(", LocatableElement").append(args);
+		}
+		if (f.mapped) {
+			types.append(", MappedElement").append(args);
+		}
+		if (f.multiMapped) {
+			types.append(", MultiMappedElement").append(args);
+		}
+		if (f.matrixSource) {
+			types.append(", MatrixSourceElement").append(args);
+		}
+		if (f.component) {
+			types.append(", ComponentElement").append(args);
+		}
+
+		line(1, "public static final class " + f.className + "Element");
+		line(3, "implements " + types);
+		line(1, "{");
+
+		StringBuilder metadata = new StringBuilder("ElementMetadata.resolved(\"").append(f.name).append('"');
+
+		for (AnnotationMirror m : f.annotations) {
+			String type = m.getAnnotationType().toString();
+			String constant = CONSTANTS.get(type);
+
+			line(2, "private static final " + type + " " + constant + " = " + annotation(m) + ";");
+			metadata.append(", ").append(constant);
+		}
+
+		line(2, "public static final ElementMetadata METADATA = " + metadata + ");");
+		line(0, "");
+		line(2, "private final " + conf + " conf;");
+		line(0, "");
+		line(2, "public " + f.className + "Element(Supplier<? extends " + model + "> parent) {");
+		line(3, (spec != null ? spec + "DataPoint" : "DataPoint<" + t + ", " + t + ">") + " point = " + f.name + "Point(parent);");
+		line(0, "");
+		line(3, "this.conf = () -> point;");
+		line(2, "}");
+		line(0, "");
+		line(2, "@Override");
+		line(2, "public " + conf + " conf() {");
+		line(3, "return conf;");
+		line(2, "}");
+		writeGetter("ElementMetadata", "getMetadata", "METADATA");
+
+		if (f.located) {
+			writeGetter(BindingProcessor.POINT_LOCATION, "getLocation", "LOCATION");
+		}
+		if (f.mapped) {
+			writeGetter(BindingProcessor.POINT_MAPPING, "getMapping", "MAPPING");
+		}
+		if (f.multiMapped) {
+			writeGetter(BindingProcessor.POINT_MAPPING + "[]", "getMapping", "METADATA.mappings()");
+		}
+		if (f.matrixSource) {
+			writeGetter(BindingProcessor.MATRIX_SOURCE, "getMatrix", "MATRIX");
+		}
+		if (f.component) {
+			writeGetter(BindingProcessor.MATRIX_COMPONENT, "getComponent", constantOrNull(f, BindingProcessor.MATRIX_COMPONENT));
+			writeGetter(BindingProcessor.MATRIX_COMPONENT_ADAPTER, "getComponentAdapter", constantOrNull(f, BindingProcessor.MATRIX_COMPONENT_ADAPTER));
+			writeGetter(BindingProcessor.MATRIX_COMPONENT_FIELD, "getComponentField", constantOrNull(f, BindingProcessor.MATRIX_COMPONENT_FIELD));
+			writeGetter(BindingProcessor.MATRIX_COMPONENT_POINT, "getComponentPoint", constantOrNull(f, BindingProcessor.MATRIX_COMPONENT_POINT));
+		}
+
+		line(1, "}");
+		line(0, "");
+	}
+
+	private void writeGetter(String type, String name, String value) {
+		line(0, "");
+		line(2, "@Override");
+		line(2, "public " + type + " " + name + "() {");
+		line(3, "return " + value + ";");
+		line(2, "}");
+	}
+
+	private static String constantOrNull(BoundField f, String annotation) {
+		for (AnnotationMirror m : f.annotations) {
+			if (m.getAnnotationType().toString().equals(annotation)) {
+				return CONSTANTS.get(annotation);
+			}
+		}
+
+		return "null";
+	}
+
+	private void writeElementBuilder() {
+		line(1, "/**");
+		line(1, " * Returns a builder producing the generated element for every configuration whose data point");
+		line(1, " * is bound to one of this model's bound fields, reading and writing it through {@code parent},");
+		line(1, " * and delegating every other configuration to {@code fallback}.");
+		line(1, " */");
+		line(1, "public static <C extends DataAccessConf<?, ?>> ElementBuilder<C, ConfigurableDataAccess<?>> elementBuilder(");
+		line(3, "Supplier<? extends " + model + "> parent, ElementBuilder<C, ? extends ConfigurableDataAccess<?>> fallback)");
+		line(1, "{");
+		line(2, "return (elementConf) -> {");
+		line(3, "Field field = elementConf.dataPoint().field();");
+		line(0, "");
+		line(3, "if (field.getDeclaringClass() == " + model + ".class) {");
+		line(4, "switch (field.getName()) {");
+
+		for (BoundField f : fields) {
+			line(5, "case \"" + f.name + "\":");
+			line(6, "return new " + f.className + "Element(parent);");
+		}
+
+		line(5, "default:");
+		line(6, "break;");
+		line(4, "}");
+		line(3, "}");
+		line(0, "");
+		line(3, "return fallback.build(elementConf);");
+		line(2, "};");
+		line(1, "}");
+		line(0, "");
+	}
+
+	private void writeAnnotationValue(TypeElement type, String name) {
+		List<ExecutableElement> members = ElementFilter.methodsIn(type.getEnclosedElements());
+		StringJoiner params = new StringJoiner(", ");
+		StringJoiner names = new StringJoiner(", ", "new String[] { ", " }");
+		StringJoiner values = new StringJoiner(", ", "new Object[] { ", " }");
+
+		for (ExecutableElement m : members) {
+			params.add(m.getReturnType() + " " + m.getSimpleName());
+			names.add("\"" + m.getSimpleName() + "\"");
+			values.add(m.getSimpleName());
+		}
+
+		line(1, "private static final class " + name);
+		line(3, "extends ResolvedAnnotation");
+		line(3, "implements " + type.getQualifiedName());
+		line(1, "{");
+
+		for (ExecutableElement m : members) {
+			line(2, "private final " + m.getReturnType() + " " + m.getSimpleName() + ";");
+		}
+
+		line(0, "");
+		line(2, name + "(" + params + ") {");
+		line(3, "super(" + type.getQualifiedName() + ".class, " + names + ", " + values + ");");
+
+		for (ExecutableElement m : members) {
+			line(3, "this." + m.getSimpleName() + " = " + m.getSimpleName() + ";");
+		}
+
+		line(2, "}");
+
+		for (ExecutableElement m : members) {
+			boolean array = m.getReturnType().getKind() == TypeKind.ARRAY;
+
+			writeGetter(m.getReturnType().toString(), m.getSimpleName().toString(), m.getSimpleName() + (array ? ".clone()" : ""));
+		}
+
+		line(1, "}");
+		line(0, "");
+	}
+
+	private String annotation(AnnotationMirror m) {
+		TypeElement type = (TypeElement) m.getAnnotationType().asElement();
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = elements.getElementValuesWithDefaults(m);
+		StringJoiner args = new StringJoiner(", ", "new " + annotationValue(type) + "(", ")");
+
+		for (ExecutableElement member : ElementFilter.methodsIn(type.getEnclosedElements())) {
+			args.add(values.get(member).accept(renderer, member.getReturnType()));
+		}
+
+		return args.toString();
+	}
+
+	private String annotationValue(TypeElement type) {
+		String qualified = type.getQualifiedName().toString();
+		String name = annotationValues.get(qualified);
+
+		if (name == null) {
+			String base = type.getSimpleName() + "Value";
+
+			name = base;
+
+			for (int i = 2; !valueNames.add(name); i++) {
+				name = base + i;
+			}
+
+			annotationTypes.put(qualified, type);
+			annotationValues.put(qualified, name);
+		}
+
+		return name;
+	}
+
+	/**
+	 * Renders an annotation member value as a Java expression of the member's type.
+	 */
+	private final class ValueRenderer
+			extends SimpleAnnotationValueVisitor8<String, TypeMirror>
+	{
+		@Override
+		protected String defaultAction(Object value, TypeMirror type) {
+			return elements.getConstantExpression(value);
+		}
+
+		@Override
+		public String visitType(TypeMirror value, TypeMirror type) {
+			return types.erasure(value) + ".class";
+		}
+
+		@Override
+		public String visitEnumConstant(VariableElement value, TypeMirror type) {
+			return ((TypeElement) value.getEnclosingElement()).getQualifiedName() + "." + value.getSimpleName();
+		}
+
+		@Override
+		public String visitAnnotation(AnnotationMirror value, TypeMirror type) {
+			return annotation(value);
+		}
+
+		@Override
+		public String visitArray(List<? extends AnnotationValue> values, TypeMirror type) {
+			TypeMirror component = ((ArrayType) type).getComponentType();
+			StringJoiner items = new StringJoiner(", ", "new " + types.erasure(component) + "[] { ", " }");
+
+			for (AnnotationValue v : values) {
+				items.add(v.accept(this, component));
+			}
+
+			return items.toString();
+		}
+	}
+
+	private void writeElements() {
+		line(1, "public static List<ConfigurableDataAccess<?>> elements(Supplier<? extends " + model + "> parent) {");
+		line(2, "List<ConfigurableDataAccess<?>> elements = new ArrayList<>(" + fields.size() + ");");
+		line(0, "");
+
+		for (BoundField f : fields) {
+			line(2, "elements.add(new " + f.className + "Element(parent));");
+		}
+
+		line(0, "");
+		line(2, "return elements;");
+		line(1, "}");
+		line(0, "");
+	}
+
+	private void writeDataPointBuilder() {
+		line(1, "/**");
+		line(1, " * Returns a builder producing the generated data points for this model's bound fields and");
+		line(1, " * delegating every other field to {@link DataPointBuilder#handleBacked()}.");
+		line(1, " */");
+		line(1, "@SuppressWarnings(\"unchecked\")");
+		line(1, "public static <I, O> DataPointBuilder<I, O> dataPointBuilder() {");
+		line(2, "DataPointBuilder<I, O> fallback = DataPointBuilder.handleBacked();");
+		line(0, "");
+		line(2, "return (parentClass, parentSupplier, elementField) -> {");
+		line(3, "if (elementField.getDeclaringClass() == " + model + ".class) {");
+		line(4, "Supplier<? extends " + model + "> parent = (Supplier<? extends " + model + ">) parentSupplier;");
+		line(0, "");
+		line(4, "switch (elementField.getName()) {");
+
+		for (BoundField f : fields) {
+			line(5, "case \"" + f.name + "\":");
+			line(6, "return (DataPoint<I, O>) (DataPoint<?, ?>) " + f.name + "Point(parent);");
+		}
+
+		line(5, "default:");
+		line(6, "break;");
+		line(4, "}");
+		line(3, "}");
+		line(0, "");
+		line(3, "return fallback.build(parentClass, parentSupplier, elementField);");
+		line(2, "};");
+		line(1, "}");
+		line(0, "");
+	}
+
+	private static String constant(BoundField f) {
+		return f.className.toUpperCase();
+	}
+
+	private void line(int indent, String s) {
+		for (int i = 0; i < indent; i++) {
+			out.append('\t');
+		}
+
+		out.append(s).append('\n');
+	}
+}
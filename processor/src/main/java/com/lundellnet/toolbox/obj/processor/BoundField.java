@@ -0,0 +1,110 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+final class BoundField {
+	final String name;
+	final String className;
+	final TypeKind kind;
+	final String type;
+	final String boxedType;
+
+	final boolean located;
+	final boolean mapped;
+	final boolean multiMapped;
+	final boolean matrixSource;
+	final boolean component;
+
+	final List<AnnotationMirror> annotations = new ArrayList<>();
+
+	BoundField(ProcessingEnvironment env, VariableElement field, Set<String> classNames) {
+		TypeMirror erased = env.getTypeUtils().erasure(field.asType());
+
+		this.name = field.getSimpleName().toString();
+		this.className = uniqueClassName(name, classNames);
+		this.kind = erased.getKind();
+
+		if (kind.isPrimitive()) {
+			TypeElement boxed = env.getTypeUtils().boxedClass(env.getTypeUtils().getPrimitiveType(kind));
+
+			this.type = erased.toString();
+			this.boxedType = boxed.getQualifiedName().toString();
+		} else {
+			this.type = field.asType().toString();
+			this.boxedType = type;
+		}
+
+		for (AnnotationMirror m : field.getAnnotationMirrors()) {
+			if (BindingProcessor.SUPPORTED.contains(m.getAnnotationType().toString())) {
+				annotations.add(m);
+			}
+		}
+
+		this.located = annotated(field, BindingProcessor.POINT_LOCATION);
+		this.multiMapped = annotated(field, BindingProcessor.POINT_MAPPINGS);
+		this.mapped = !multiMapped && annotated(field, BindingProcessor.POINT_MAPPING);
+		this.matrixSource = annotated(field, BindingProcessor.MATRIX_SOURCE);
+		this.component = annotated(field, BindingProcessor.MATRIX_COMPONENT) || annotated(field, BindingProcessor.MATRIX_COMPONENT_ADAPTER)
+				|| annotated(field, BindingProcessor.MATRIX_COMPONENT_FIELD) || annotated(field, BindingProcessor.MATRIX_COMPONENT_POINT);
+	}
+
+	String specialization() {
+		switch (kind) {
+			case INT:
+				return "Int";
+			case LONG:
+				return "Long";
+			case DOUBLE:
+				return "Double";
+			default:
+				return null;
+		}
+	}
+
+	private static boolean annotated(VariableElement field, String annotation) {
+		for (AnnotationMirror m : field.getAnnotationMirrors()) {
+			if (m.getAnnotationType().toString().equals(annotation)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static String uniqueClassName(String name, Set<String> taken) {
+		String base = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+		String candidate = base;
+
+		for (int i = 2; !taken.add(candidate.toUpperCase()); i++) {
+			candidate = base + i;
+		}
+
+		return candidate;
+	}
+}
@@ -0,0 +1,264 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.IntDataPoint;
+import com.lundellnet.toolbox.obj.data_access.compilation.DataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+import com.lundellnet.toolbox.obj.elements.AnnotatedElement;
+import com.lundellnet.toolbox.obj.elements.ElementMetadata;
+import com.lundellnet.toolbox.obj.elements.LocatableElement;
+import com.lundellnet.toolbox.obj.elements.MappedElement;
+import com.lundellnet.toolbox.obj.elements.MultiMappedElement;
+import com.lundellnet.toolbox.obj.elements.compilation.ElementBuilder;
+
+/**
+ * Runs the processor over a small model, compiles the generated bindings together with it and
+ * checks them against what reflection reports for the same fields. Annotation arguments are
+ * derived from the annotation types on the class path, so the model compiles against whichever
+ * toolbox-api version the build resolves.
+ */
+public class BindingProcessorTest
+	extends TestCase
+{
+	private Path dir;
+	private ClassLoader loader;
+	private String source;
+
+	private Class<?> model;
+	private Class<?> bindings;
+
+	@Override
+	protected void setUp() throws Exception {
+		dir = Files.createTempDirectory("bindings");
+
+		String location = usage(BindingProcessor.POINT_LOCATION);
+		String mapping = usage(BindingProcessor.POINT_MAPPING);
+
+		Path file = write("models/Quote.java",
+				"package models;\n"
+				+ "\n"
+				+ "public class Quote {\n"
+				+ "\t" + location + " public int size;\n"
+				+ "\t" + mapping + " public String symbol;\n"
+				+ "\t@" + BindingProcessor.POINT_MAPPINGS + "({ " + mapping + ", " + mapping + " }) public String venue;\n"
+				+ "\tpublic int unbound;\n"
+				+ "}\n");
+
+		compile(file);
+
+		loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, getClass().getClassLoader());
+		model = loader.loadClass("models.Quote");
+		bindings = loader.loadClass("models.Quote_Bindings");
+		source = new String(Files.readAllBytes(dir.resolve("models/Quote_Bindings.java")), StandardCharsets.UTF_8);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		try (java.util.stream.Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Collections.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	public void testGeneratedSourceDoesNotReflectForMetadata() {
+		assertFalse(source.contains("getAnnotation"));
+		assertFalse(source.contains("ElementMetadata.of("));
+		assertTrue(source.contains("ElementMetadata.resolved(\"size\""));
+	}
+
+	public void testLocationMatchesReflection() throws Exception {
+		LocatableElement<?, ?, ?> element = (LocatableElement<?, ?, ?>) element("SizeElement");
+		Annotation reflected = annotation("size", BindingProcessor.POINT_LOCATION);
+
+		assertEquals(reflected, element.getLocation());
+		assertEquals(element.getLocation(), reflected);
+		assertEquals(reflected.hashCode(), element.getLocation().hashCode());
+		assertSame(element.getLocation(), element.getMetadata().location());
+		assertEquals("size", element.getMetadata().fieldName());
+	}
+
+	public void testMappingsMatchReflection() throws Exception {
+		MappedElement<?, ?, ?> mapped = (MappedElement<?, ?, ?>) element("SymbolElement");
+		MultiMappedElement<?, ?, ?> multiMapped = (MultiMappedElement<?, ?, ?>) element("VenueElement");
+
+		assertEquals(annotation("symbol", BindingProcessor.POINT_MAPPING), mapped.getMapping());
+
+		Annotation container = annotation("venue", BindingProcessor.POINT_MAPPINGS);
+		Object[] reflected = (Object[]) container.annotationType().getMethod("value").invoke(container);
+
+		assertTrue(Arrays.equals(reflected, multiMapped.getMapping()));
+		assertNull(multiMapped.getMetadata().location());
+	}
+
+	public void testMetadataIsIndependentOfReflectiveRegistry() throws Exception {
+		AnnotatedElement<?, ?, ?> element = (AnnotatedElement<?, ?, ?>) element("SizeElement");
+
+		assertNotSame(ElementMetadata.of(model.getField("size")), element.getMetadata());
+		assertSame(element.getMetadata(), ((AnnotatedElement<?, ?, ?>) element("SizeElement")).getMetadata());
+	}
+
+	public void testPointWritesFieldDirectly() throws Exception {
+		Object quote = model.newInstance();
+		Supplier<Object> parent = () -> quote;
+		IntDataPoint point = (IntDataPoint) bindings.getMethod("sizePoint", Supplier.class).invoke(null, parent);
+
+		point.intSetter().accept(7);
+
+		assertEquals(7, model.getField("size").getInt(quote));
+		assertEquals(7, point.intGetter().getAsInt());
+		assertEquals(model.getField("size"), point.field());
+	}
+
+	@SuppressWarnings("unchecked")
+	public void testElementBuilderReplacesBoundFieldsOnly() throws Exception {
+		Object quote = model.newInstance();
+		Supplier<Object> parent = () -> quote;
+		ConfigurableDataAccess<?> fallbackElement = () -> null;
+		ElementBuilder<DataAccessConf<?, ?>, ConfigurableDataAccess<?>> fallback = (c) -> fallbackElement;
+		ElementBuilder<DataAccessConf<?, ?>, ConfigurableDataAccess<?>> builder = (ElementBuilder<DataAccessConf<?, ?>, ConfigurableDataAccess<?>>)
+				bindings.getMethod("elementBuilder", Supplier.class, ElementBuilder.class).invoke(null, parent, fallback);
+
+		ConfigurableDataAccess<?> bound = builder.build(conf(parent, "size"));
+
+		assertEquals("models.Quote_Bindings$SizeElement", bound.getClass().getName());
+		assertSame(fallbackElement, builder.build(conf(parent, "unbound")));
+	}
+
+	private DataAccessConf<?, ?> conf(Supplier<Object> parent, String field) throws Exception {
+		DataPoint<Object, Object> point = DataPointBuilder.handleBacked().build(model, parent, model.getField(field));
+
+		return () -> point;
+	}
+
+	private Object element(String name) throws Exception {
+		Object quote = model.newInstance();
+		Supplier<Object> parent = () -> quote;
+
+		return loader.loadClass("models.Quote_Bindings$" + name).getConstructor(Supplier.class).newInstance(parent);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Annotation annotation(String field, String type) throws Exception {
+		return model.getField(field).getAnnotation((Class<? extends Annotation>) loader.loadClass(type));
+	}
+
+	private Path write(String name, String content) throws IOException {
+		Path file = dir.resolve(name);
+
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+		return file;
+	}
+
+	private void compile(Path file) throws IOException {
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+		try (StandardJavaFileManager files = javac.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+			List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"),
+					"-processor", BindingProcessor.class.getName(), "-d", dir.toString(), "-s", dir.toString());
+			boolean ok = javac.getTask(null, files, diagnostics, options, null, files.getJavaFileObjects(file.toFile())).call();
+
+			for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+				if (d.getKind() == Diagnostic.Kind.ERROR) {
+					fail(d.toString());
+				}
+			}
+
+			assertTrue(ok);
+		}
+	}
+
+	/**
+	 * Renders a usage of the annotation supplying every member without a default.
+	 */
+	private static String usage(String annotation) throws ClassNotFoundException {
+		StringJoiner args = new StringJoiner(", ", "@" + annotation + "(", ")");
+
+		for (Method m : Class.forName(annotation).getDeclaredMethods()) {
+			if (m.getDefaultValue() == null) {
+				args.add(m.getName() + " = " + literal(m.getReturnType(), m.getGenericReturnType()));
+			}
+		}
+
+		return args.toString();
+	}
+
+	private static String literal(Class<?> type, Type generic) throws ClassNotFoundException {
+		if (type.isArray()) {
+			return "{}";
+		}
+		if (type == String.class) {
+			return "\"s\"";
+		}
+		if (type == boolean.class) {
+			return "true";
+		}
+		if (type == char.class) {
+			return "'c'";
+		}
+		if (type.isPrimitive()) {
+			return "(" + type.getName() + ") 3";
+		}
+		if (type.isEnum()) {
+			return type.getCanonicalName() + "." + ((Enum<?>) type.getEnumConstants()[0]).name();
+		}
+		if (type.isAnnotation()) {
+			return usage(type.getName());
+		}
+
+		Type bound = (generic instanceof ParameterizedType) ? ((ParameterizedType) generic).getActualTypeArguments()[0] : Object.class;
+
+		if (bound instanceof WildcardType) {
+			bound = ((WildcardType) bound).getUpperBounds()[0];
+		}
+
+		return ((bound instanceof Class) ? ((Class<?>) bound).getCanonicalName() : "Object") + ".class";
+	}
+}
@@ -17,6 +17,7 @@
  */
 package com.lundellnet.toolbox.obj.collections;
 
+import java.util.function.BinaryOperator;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -25,11 +26,55 @@ import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAcce
 public interface DataElementCollection <R, E extends ConfigurableDataAccess<?>> {
 	void includeElement(E e);
 	
+	/**
+	 * Includes an element, merging it with {@code merge} into the element of the same identity.
+	 * Collections backed by a container hand the merge to it, see
+	 * {@link com.lundellnet.toolbox.obj.data_containers.CollectionContainer#includeElement(ConfigurableDataAccess, BinaryOperator)}.
+	 */
+	default void includeElement(E e, BinaryOperator<E> merge) {
+		includeElement(e);
+	}
+	
 	Stream<E> elements();
 	
+	/**
+	 * Streams the elements sequentially or in parallel. Parallel streams of built-in containers
+	 * report {@code SIZED}, {@code SUBSIZED} and {@code NONNULL} and split evenly, so passes over
+	 * large collections scale with the available cores; sequential ones walk the container in
+	 * place without copying it.
+	 */
+	default Stream<E> elements(boolean parallel) {
+		Stream<E> s = elements();
+		
+		return parallel ? s.parallel() : s.sequential();
+	}
+	
+	/**
+	 * {@link ConfigurableDataAccess#flush() Flushes} every element, so values their data points
+	 * hold back reach the fields before the collection is transformed. Parsers call it before
+	 * {@code transform()} in {@code snapshot()}, and the parsing collectors before their finisher.
+	 */
+	default void flush() {
+		elements().forEach(ConfigurableDataAccess::flush);
+	}
+	
 	Class<R> getDataClass();
 	
 	Supplier<R> getDataSupplier();
 	
 	R getData();
+	
+	default void releaseData(R r) {}
+	
+	/**
+	 * Whether {@link #clear()} is implemented, which {@code Parser.snapshot()} and
+	 * {@code WindowedParser} require.
+	 */
+	default boolean supportsClear() {
+		return false;
+	}
+	
+	default void clear() {
+		throw new UnsupportedOperationException(getClass().getName() + " cannot be cleared.");
+	}
 }
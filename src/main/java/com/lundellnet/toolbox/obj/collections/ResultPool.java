@@ -0,0 +1,82 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.collections;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, thread-safe pool of result objects. Released results are passed through the reset
+ * function before being handed out again, which must return them to the state a fresh
+ * {@code supplier} result would have. Results released beyond the capacity are dropped.
+ *
+ * <p>A result must be released at most once per acquisition. Releasing one that is still idle in
+ * the pool is rejected with an {@link IllegalStateException}; a second release after the result
+ * was handed out again cannot be told apart from a legitimate one, and would leave two holders
+ * sharing it.
+ */
+public class ResultPool <R> {
+	private final Supplier<R> supplier;
+	private final Consumer<? super R> reset;
+	private final int capacity;
+
+	private final ArrayDeque<R> idle;
+
+	public ResultPool(Supplier<R> supplier, Consumer<? super R> reset, int capacity) {
+		this.supplier = supplier;
+		this.reset = reset;
+		this.capacity = capacity;
+		this.idle = new ArrayDeque<>(Math.max(1, capacity));
+	}
+
+	public R acquire() {
+		R r;
+
+		synchronized (idle) {
+			r = idle.pollLast();
+		}
+
+		return (r == null) ? supplier.get() : r;
+	}
+
+	public void release(R r) {
+		if (r == null) {
+			return;
+		}
+
+		synchronized (idle) {
+			for (R i : idle) {
+				if (i == r) {
+					throw new IllegalStateException("Result " + r + " was released twice.");
+				}
+			}
+
+			if (idle.size() < capacity) {
+				reset.accept(r);
+				idle.offerLast(r);
+			}
+		}
+	}
+
+	public int idle() {
+		synchronized (idle) {
+			return idle.size();
+		}
+	}
+}
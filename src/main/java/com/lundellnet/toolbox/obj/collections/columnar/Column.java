@@ -0,0 +1,344 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.collections.columnar;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.DoubleDataPoint;
+import com.lundellnet.toolbox.obj.data_access.IntDataPoint;
+import com.lundellnet.toolbox.obj.data_access.LongDataPoint;
+import com.lundellnet.toolbox.obj.data_access.compilation.FieldHandles;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.DoubleDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.IntDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.LongDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.DoubleDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.IntDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.LongDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.StandardDataAccess;
+import com.lundellnet.toolbox.obj.elements.ComponentElement;
+import com.lundellnet.toolbox.obj.elements.ElementMetadata;
+import com.lundellnet.toolbox.obj.elements.configs.ElementConf;
+
+/**
+ * One column of a {@link ColumnarCollection}: a growable array holding a single field of every
+ * row, unboxed for {@code int}, {@code long} and {@code double} fields.
+ */
+abstract class Column {
+	interface IntCell
+			extends IntDataAccess<IntDataAccessConf>, ComponentElement<Integer, Integer, IntDataAccessConf>
+	{}
+
+	interface LongCell
+			extends LongDataAccess<LongDataAccessConf>, ComponentElement<Long, Long, LongDataAccessConf>
+	{}
+
+	interface DoubleCell
+			extends DoubleDataAccess<DoubleDataAccessConf>, ComponentElement<Double, Double, DoubleDataAccessConf>
+	{}
+
+	interface ObjectCell
+			extends StandardDataAccess<Object, DataAccessConf<Object, Object>>, ComponentElement<Object, Object, DataAccessConf<Object, Object>>
+	{}
+
+	final Field field;
+	final ElementMetadata metadata;
+	final FieldHandles handles;
+
+	Column(Field field, ElementMetadata metadata) {
+		this.field = field;
+		this.metadata = metadata;
+		this.handles = FieldHandles.of(field);
+	}
+
+	static Column of(Field field, ElementMetadata metadata, int capacity) {
+		Class<?> type = field.getType();
+
+		if (type == int.class) {
+			return new Ints(field, metadata, capacity);
+		} else if (type == long.class) {
+			return new Longs(field, metadata, capacity);
+		} else if (type == double.class) {
+			return new Doubles(field, metadata, capacity);
+		}
+
+		return new Objects(field, metadata, capacity);
+	}
+
+	abstract void grow(int capacity);
+
+	abstract void clear(int rows);
+
+	abstract void set(int row, Object value);
+
+	/**
+	 * Copies the row into the field of {@code target}.
+	 */
+	abstract void copyTo(int row, Object target);
+
+	/**
+	 * A cell element reading and writing this column at the cursor's row.
+	 */
+	abstract ComponentElement<?, ?, ?> cell(RowCursor<?> cursor);
+
+	static int grown(int length, int capacity) {
+		return Math.max(capacity, length + (length >> 1) + 1);
+	}
+
+	static final class Ints
+			extends Column
+	{
+		int[] values;
+
+		Ints(Field field, ElementMetadata metadata, int capacity) {
+			super(field, metadata);
+			this.values = new int[capacity];
+		}
+
+		@Override
+		void grow(int capacity) {
+			if (capacity > values.length) {
+				values = Arrays.copyOf(values, grown(values.length, capacity));
+			}
+		}
+
+		@Override
+		void clear(int rows) {
+			Arrays.fill(values, 0, rows, 0);
+		}
+
+		@Override
+		void set(int row, Object value) {
+			values[row] = ((Number) value).intValue();
+		}
+
+		@Override
+		void copyTo(int row, Object target) {
+			handles.setInt(target, values[row]);
+		}
+
+		@Override
+		IntCell cell(RowCursor<?> cursor) {
+			IntConsumer setter = (v) -> values[cursor.checkedRow()] = v;
+			IntSupplier getter = () -> values[cursor.checkedRow()];
+			IntDataPoint point = new IntDataPoint() {
+				@Override
+				public Field field() {
+					return field;
+				}
+
+				@Override
+				public IntConsumer intSetter() {
+					return setter;
+				}
+
+				@Override
+				public IntSupplier intGetter() {
+					return getter;
+				}
+			};
+			IntDataAccessConf conf = ElementConf.ofInt(point, metadata);
+
+			return () -> conf;
+		}
+	}
+
+	static final class Longs
+			extends Column
+	{
+		long[] values;
+
+		Longs(Field field, ElementMetadata metadata, int capacity) {
+			super(field, metadata);
+			this.values = new long[capacity];
+		}
+
+		@Override
+		void grow(int capacity) {
+			if (capacity > values.length) {
+				values = Arrays.copyOf(values, grown(values.length, capacity));
+			}
+		}
+
+		@Override
+		void clear(int rows) {
+			Arrays.fill(values, 0, rows, 0);
+		}
+
+		@Override
+		void set(int row, Object value) {
+			values[row] = ((Number) value).longValue();
+		}
+
+		@Override
+		void copyTo(int row, Object target) {
+			handles.setLong(target, values[row]);
+		}
+
+		@Override
+		LongCell cell(RowCursor<?> cursor) {
+			LongConsumer setter = (v) -> values[cursor.checkedRow()] = v;
+			LongSupplier getter = () -> values[cursor.checkedRow()];
+			LongDataPoint point = new LongDataPoint() {
+				@Override
+				public Field field() {
+					return field;
+				}
+
+				@Override
+				public LongConsumer longSetter() {
+					return setter;
+				}
+
+				@Override
+				public LongSupplier longGetter() {
+					return getter;
+				}
+			};
+			LongDataAccessConf conf = ElementConf.ofLong(point, metadata);
+
+			return () -> conf;
+		}
+	}
+
+	static final class Doubles
+			extends Column
+	{
+		double[] values;
+
+		Doubles(Field field, ElementMetadata metadata, int capacity) {
+			super(field, metadata);
+			this.values = new double[capacity];
+		}
+
+		@Override
+		void grow(int capacity) {
+			if (capacity > values.length) {
+				values = Arrays.copyOf(values, grown(values.length, capacity));
+			}
+		}
+
+		@Override
+		void clear(int rows) {
+			Arrays.fill(values, 0, rows, 0);
+		}
+
+		@Override
+		void set(int row, Object value) {
+			values[row] = ((Number) value).doubleValue();
+		}
+
+		@Override
+		void copyTo(int row, Object target) {
+			handles.setDouble(target, values[row]);
+		}
+
+		@Override
+		DoubleCell cell(RowCursor<?> cursor) {
+			DoubleConsumer setter = (v) -> values[cursor.checkedRow()] = v;
+			DoubleSupplier getter = () -> values[cursor.checkedRow()];
+			DoubleDataPoint point = new DoubleDataPoint() {
+				@Override
+				public Field field() {
+					return field;
+				}
+
+				@Override
+				public DoubleConsumer doubleSetter() {
+					return setter;
+				}
+
+				@Override
+				public DoubleSupplier doubleGetter() {
+					return getter;
+				}
+			};
+			DoubleDataAccessConf conf = ElementConf.ofDouble(point, metadata);
+
+			return () -> conf;
+		}
+	}
+
+	static final class Objects
+			extends Column
+	{
+		Object[] values;
+
+		Objects(Field field, ElementMetadata metadata, int capacity) {
+			super(field, metadata);
+			this.values = new Object[capacity];
+		}
+
+		@Override
+		void grow(int capacity) {
+			if (capacity > values.length) {
+				values = Arrays.copyOf(values, grown(values.length, capacity));
+			}
+		}
+
+		@Override
+		void clear(int rows) {
+			Arrays.fill(values, 0, rows, null);
+		}
+
+		@Override
+		void set(int row, Object value) {
+			values[row] = value;
+		}
+
+		@Override
+		void copyTo(int row, Object target) {
+			handles.set(target, values[row]);
+		}
+
+		@Override
+		ObjectCell cell(RowCursor<?> cursor) {
+			Consumer<Object> setter = (v) -> values[cursor.checkedRow()] = v;
+			Supplier<Object> getter = () -> values[cursor.checkedRow()];
+			DataPoint<Object, Object> point = new DataPoint<Object, Object>() {
+				@Override
+				public Field field() {
+					return field;
+				}
+
+				@Override
+				public Consumer<Object> setter() {
+					return setter;
+				}
+
+				@Override
+				public Supplier<Object> getter() {
+					return getter;
+				}
+			};
+			DataAccessConf<Object, Object> conf = ElementConf.of(point, metadata);
+
+			return () -> conf;
+		}
+	}
+}
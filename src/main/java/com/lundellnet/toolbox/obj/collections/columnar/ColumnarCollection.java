@@ -0,0 +1,246 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.collections.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import com.lundellnet.toolbox.api.data_access.annotations.MatrixComponentField;
+import com.lundellnet.toolbox.obj.collections.DataElementCollection;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableFieldAccess;
+import com.lundellnet.toolbox.obj.elements.compilation.BindingPlan;
+
+/**
+ * Structure-of-arrays store for matrix rows: every {@link MatrixComponentField} of the row class
+ * is kept as one column array, unboxed for {@code int}, {@code long} and {@code double}, instead
+ * of one row object per row. Rows are read and written through {@link RowCursor}s and only become
+ * row objects when {@link #materialize(int) materialized}; column scans run over the arrays.
+ *
+ * <p>As a {@link DataElementCollection} it collects into the last {@link #append() appended} row:
+ * an included element's current value is copied into the column for its field, and
+ * {@link #elements()} streams the cells of that row. Including an element whose column the
+ * current row already holds, or including into an empty collection, starts a new row, so a stream
+ * of elements laying out one row after another is collected without explicit appends. Not safe for
+ * concurrent writes.
+ */
+public final class ColumnarCollection <R>
+		implements DataElementCollection<R, ConfigurableFieldAccess<?, ?, ?>>
+{
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final Class<R> rowClass;
+	private final Supplier<R> rowSupplier;
+	private final Column[] columns;
+	private final Map<String, Integer> columnIndex = new HashMap<>();
+	private final RowCursor<R> writer;
+	private final boolean[] included;
+
+	private int rows;
+	private int capacity = INITIAL_CAPACITY;
+
+	public ColumnarCollection(Class<R> rowClass, Supplier<R> rowSupplier) {
+		List<Column> found = new ArrayList<>();
+
+		for (BindingPlan.Binding b : BindingPlan.of(rowClass).bindings()) {
+			if (b.metadata().componentField() != null && !columnIndex.containsKey(b.field().getName())) {
+				columnIndex.put(b.field().getName(), found.size());
+				found.add(Column.of(b.field(), b.metadata(), INITIAL_CAPACITY));
+			}
+		}
+
+		if (found.isEmpty()) {
+			throw new IllegalArgumentException(rowClass.getName() + " declares no " + MatrixComponentField.class.getSimpleName() + " fields.");
+		}
+
+		this.rowClass = rowClass;
+		this.rowSupplier = rowSupplier;
+		this.columns = found.toArray(new Column[found.size()]);
+		this.writer = new RowCursor<>(this, columns);
+		this.included = new boolean[columns.length];
+	}
+
+	public int rows() {
+		return rows;
+	}
+
+	/**
+	 * Adds an empty row and returns the collection's write cursor positioned on it.
+	 */
+	public RowCursor<R> append() {
+		if (rows == capacity) {
+			capacity = Column.grown(capacity, rows + 1);
+
+			for (Column c : columns) {
+				c.grow(capacity);
+			}
+		}
+
+		Arrays.fill(included, false);
+		return writer.at(rows++);
+	}
+
+	/**
+	 * A new cursor positioned before the first row.
+	 */
+	public RowCursor<R> cursor() {
+		return new RowCursor<>(this, columns);
+	}
+
+	public R materialize(int row) {
+		if (row < 0 || row >= rows) {
+			throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+		}
+
+		R r = rowSupplier.get();
+
+		for (Column c : columns) {
+			c.copyTo(row, r);
+		}
+
+		return r;
+	}
+
+	public IntStream ints(String fieldName) {
+		Column c = column(fieldName);
+
+		if (!(c instanceof Column.Ints)) {
+			throw new IllegalArgumentException("Column " + fieldName + " is not an int column.");
+		}
+
+		return Arrays.stream(((Column.Ints) c).values, 0, rows);
+	}
+
+	public LongStream longs(String fieldName) {
+		Column c = column(fieldName);
+
+		if (!(c instanceof Column.Longs)) {
+			throw new IllegalArgumentException("Column " + fieldName + " is not a long column.");
+		}
+
+		return Arrays.stream(((Column.Longs) c).values, 0, rows);
+	}
+
+	public DoubleStream doubles(String fieldName) {
+		Column c = column(fieldName);
+
+		if (!(c instanceof Column.Doubles)) {
+			throw new IllegalArgumentException("Column " + fieldName + " is not a double column.");
+		}
+
+		return Arrays.stream(((Column.Doubles) c).values, 0, rows);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> Stream<T> objects(String fieldName) {
+		Column c = column(fieldName);
+
+		if (!(c instanceof Column.Objects)) {
+			throw new IllegalArgumentException("Column " + fieldName + " is a primitive column.");
+		}
+
+		return Arrays.stream((T[]) ((Column.Objects) c).values, 0, rows);
+	}
+
+	@Override
+	public void includeElement(ConfigurableFieldAccess<?, ?, ?> e) {
+		Integer index = columnIndex.get(e.getFieldName());
+
+		if (index == null) {
+			return;
+		}
+
+		if (rows == 0 || included[index]) {
+			append();
+		}
+
+		columns[index].set(rows - 1, e.conf().dataPoint().getter().get());
+		included[index] = true;
+	}
+
+	/**
+	 * Cells write through to their columns, so there is nothing to flush.
+	 */
+	@Override
+	public void flush() {}
+
+	@Override
+	public Stream<ConfigurableFieldAccess<?, ?, ?>> elements() {
+		if (rows == 0) {
+			return Stream.empty();
+		}
+
+		writer.at(rows - 1);
+		return writer.cells().stream().map((c) -> c);
+	}
+
+	@Override
+	public Class<R> getDataClass() {
+		return rowClass;
+	}
+
+	@Override
+	public Supplier<R> getDataSupplier() {
+		return rowSupplier;
+	}
+
+	/**
+	 * Materializes the last appended row, or returns a fresh row while the collection is empty.
+	 */
+	@Override
+	public R getData() {
+		return (rows == 0) ? rowSupplier.get() : materialize(rows - 1);
+	}
+
+	@Override
+	public boolean supportsClear() {
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		for (Column c : columns) {
+			c.clear(rows);
+		}
+
+		rows = 0;
+		Arrays.fill(included, false);
+		writer.rewind();
+	}
+
+	int columnIndex(String fieldName) {
+		Integer index = columnIndex.get(fieldName);
+
+		if (index == null) {
+			throw new IllegalArgumentException("No column for field " + fieldName + " of " + rowClass.getName() + ".");
+		}
+
+		return index;
+	}
+
+	private Column column(String fieldName) {
+		return columns[columnIndex(fieldName)];
+	}
+}
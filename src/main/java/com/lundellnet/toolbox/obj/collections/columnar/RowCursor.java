@@ -0,0 +1,136 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.collections.columnar;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.lundellnet.toolbox.obj.data_access.configs.DoubleDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.IntDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.LongDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.DoubleDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.IntDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.LongDataAccess;
+import com.lundellnet.toolbox.obj.elements.ComponentElement;
+
+/**
+ * Movable view of one row of a {@link ColumnarCollection}. Its cells are elements implementing the
+ * usual access interfaces, {@link IntDataAccess}, {@link LongDataAccess}, {@link DoubleDataAccess}
+ * or {@link com.lundellnet.toolbox.obj.data_access.configurables.StandardDataAccess
+ * StandardDataAccess}, together with {@link ComponentElement} for the row class's field, and read
+ * and write whatever row the cursor is on. Cursors are cheap; use one per thread.
+ */
+public final class RowCursor <R> {
+	private final ColumnarCollection<R> collection;
+	private final ComponentElement<?, ?, ?>[] cells;
+	private final List<ComponentElement<?, ?, ?>> cellList;
+	private int row = -1;
+
+	RowCursor(ColumnarCollection<R> collection, Column[] columns) {
+		this.collection = collection;
+		this.cells = new ComponentElement<?, ?, ?>[columns.length];
+
+		for (int i = 0; i < columns.length; i++) {
+			cells[i] = columns[i].cell(this);
+		}
+
+		this.cellList = Collections.unmodifiableList(Arrays.asList(cells));
+	}
+
+	public int row() {
+		return row;
+	}
+
+	public RowCursor<R> at(int row) {
+		if (row < 0 || row >= collection.rows()) {
+			throw new IndexOutOfBoundsException("Row " + row + " of " + collection.rows());
+		}
+
+		this.row = row;
+		return this;
+	}
+
+	/**
+	 * Moves to the next row, returning {@code false} once past the last one.
+	 */
+	public boolean next() {
+		if (row + 1 >= collection.rows()) {
+			return false;
+		}
+
+		row++;
+		return true;
+	}
+
+	/**
+	 * Positions the cursor before the first row.
+	 */
+	public RowCursor<R> rewind() {
+		row = -1;
+		return this;
+	}
+
+	public List<ComponentElement<?, ?, ?>> cells() {
+		return cellList;
+	}
+
+	public ComponentElement<?, ?, ?> cell(String fieldName) {
+		return cells[collection.columnIndex(fieldName)];
+	}
+
+	@SuppressWarnings("unchecked")
+	public IntDataAccess<IntDataAccessConf> intCell(String fieldName) {
+		return (IntDataAccess<IntDataAccessConf>) typed(fieldName, IntDataAccess.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	public LongDataAccess<LongDataAccessConf> longCell(String fieldName) {
+		return (LongDataAccess<LongDataAccessConf>) typed(fieldName, LongDataAccess.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	public DoubleDataAccess<DoubleDataAccessConf> doubleCell(String fieldName) {
+		return (DoubleDataAccess<DoubleDataAccessConf>) typed(fieldName, DoubleDataAccess.class);
+	}
+
+	/**
+	 * Copies the current row into a new instance of the row class.
+	 */
+	public R materialize() {
+		return collection.materialize(checkedRow());
+	}
+
+	int checkedRow() {
+		if (row < 0 || row >= collection.rows()) {
+			throw new IllegalStateException("Cursor is not on a row.");
+		}
+
+		return row;
+	}
+
+	private Object typed(String fieldName, Class<?> access) {
+		ComponentElement<?, ?, ?> cell = cell(fieldName);
+
+		if (!access.isInstance(cell)) {
+			throw new IllegalArgumentException("Column " + fieldName + " is not a " + access.getSimpleName() + ".");
+		}
+
+		return cell;
+	}
+}
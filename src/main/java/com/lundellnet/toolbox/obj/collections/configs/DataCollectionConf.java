@@ -19,8 +19,10 @@ package com.lundellnet.toolbox.obj.collections.configs;
 
 import java.util.function.Supplier;
 
+import com.lundellnet.toolbox.obj.collections.ResultPool;
 import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
 import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.elements.compilation.BindingPlan;
 import com.lundellnet.toolbox.obj.elements.compilation.ElementBuilder;
 
 public interface DataCollectionConf <R, E extends ConfigurableDataAccess<?>, B extends ElementBuilder<?, ?>> {
@@ -31,4 +33,16 @@ public interface DataCollectionConf <R, E extends ConfigurableDataAccess<?>, B e
 	Class<R> resultClass();
 	
 	Supplier<R> resultSupplier();
+	
+	default ResultPool<R> resultPool() {
+		return null;
+	}
+	
+	/**
+	 * Binding plan of the result class, shared by every collection of that class and used by
+	 * {@link com.lundellnet.toolbox.obj.collections.configurables.DataCollection#bindElements(Supplier) bindElements}.
+	 */
+	default BindingPlan<R> bindingPlan() {
+		return BindingPlan.of(resultClass());
+	}
 }
@@ -17,10 +17,12 @@
  */
 package com.lundellnet.toolbox.obj.collections.configurables;
 
+import java.util.function.BinaryOperator;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import com.lundellnet.toolbox.obj.collections.ElementCreatingCollection;
+import com.lundellnet.toolbox.obj.collections.ResultPool;
 import com.lundellnet.toolbox.obj.collections.configs.DataCollectionConf;
 import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
 import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
@@ -33,11 +35,26 @@ public interface CreatingCollection <C extends DataCollectionConf<R, E, ?>, R, D
 		void includeElement(E e)
 	{ conf().collectionStream().includeElement(e); }
 
+	@Override
+	default
+		void includeElement(E e, BinaryOperator<E> merge)
+	{ conf().collectionStream().includeElement(e, merge); }
+
 	@Override
 	default
 		Stream<E> elements()
 	{ return conf().collectionStream().getStream(); }
 
+	@Override
+	default
+		Stream<E> elements(boolean parallel)
+	{ return conf().collectionStream().getStream(parallel); }
+
+	@Override
+	default
+		void flush()
+	{ conf().collectionStream().flush(); }
+
 	@Override
 	default
 		Class<R> getDataClass()
@@ -51,5 +68,30 @@ public interface CreatingCollection <C extends DataCollectionConf<R, E, ?>, R, D
 	@Override
 	default
 		R getData()
-	{ return conf().resultSupplier().get(); }
+	{
+		ResultPool<R> pool = conf().resultPool();
+		
+		return (pool == null) ? conf().resultSupplier().get() : pool.acquire();
+	}
+
+	@Override
+	default
+		void releaseData(R r)
+	{
+		ResultPool<R> pool = conf().resultPool();
+		
+		if (pool != null) {
+			pool.release(r);
+		}
+	}
+
+	@Override
+	default
+		boolean supportsClear()
+	{ return conf().collectionStream().supportsClear(); }
+
+	@Override
+	default
+		void clear()
+	{ conf().collectionStream().clear(); }
 }
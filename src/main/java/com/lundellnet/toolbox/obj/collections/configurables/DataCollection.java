@@ -17,12 +17,20 @@
  */
 package com.lundellnet.toolbox.obj.collections.configurables;
 
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import com.lundellnet.toolbox.obj.collections.DataElementCollection;
+import com.lundellnet.toolbox.obj.collections.ResultPool;
 import com.lundellnet.toolbox.obj.collections.configs.DataCollectionConf;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
 import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+import com.lundellnet.toolbox.obj.elements.compilation.BindingPlan;
+import com.lundellnet.toolbox.obj.elements.compilation.ElementBuilder;
+import com.lundellnet.toolbox.obj.elements.configs.ElementConf;
 
 @FunctionalInterface
 public interface DataCollection <C extends DataCollectionConf<R, E, ?>, R, E extends ConfigurableDataAccess<?>>
@@ -30,16 +38,53 @@ public interface DataCollection <C extends DataCollectionConf<R, E, ?>, R, E ext
 {
 	C conf();
 	
+	/**
+	 * Builds one element per field of the result class through the collection's
+	 * {@link DataCollectionConf#elementBuilder() element builder}, each over
+	 * {@link BindingPlan.Binding#conf(Supplier) the binding's configuration} of the shared
+	 * {@link DataCollectionConf#bindingPlan() binding plan}. The builder must accept an
+	 * {@link ElementConf}.
+	 */
+	@SuppressWarnings("unchecked")
+	default List<E> bindElements(Supplier<?> parentSupplier) {
+		return bindElements(parentSupplier, BindingPlan.Binding::conf, (ElementBuilder<ElementConf<?, ?>, E>) conf().elementBuilder());
+	}
+	
+	/**
+	 * Builds elements from the shared {@link DataCollectionConf#bindingPlan() binding plan}, see
+	 * {@link BindingPlan#elements(Supplier, BiFunction, ElementBuilder)}.
+	 */
+	default <A extends DataAccessConf<?, ?>> List<E> bindElements(Supplier<?> parentSupplier,
+			BiFunction<BindingPlan.Binding, Supplier<?>, A> conf, ElementBuilder<A, E> builder)
+	{
+		return conf().bindingPlan().elements(parentSupplier, conf, builder);
+	}
+	
 	@Override
 	default
 			void includeElement(E e)
 	{ conf().collectionStream().includeElement(e); }
 
+	@Override
+	default
+			void includeElement(E e, BinaryOperator<E> merge)
+	{ conf().collectionStream().includeElement(e, merge); }
+
 	@Override
 	default
 			Stream<E> elements()
 	{ return conf().collectionStream().getStream(); }
 
+	@Override
+	default
+			Stream<E> elements(boolean parallel)
+	{ return conf().collectionStream().getStream(parallel); }
+
+	@Override
+	default
+			void flush()
+	{ conf().collectionStream().flush(); }
+
 	@Override
 	default
 			Class<R> getDataClass()
@@ -53,5 +98,30 @@ public interface DataCollection <C extends DataCollectionConf<R, E, ?>, R, E ext
 	@Override
 	default
 			R getData()
-	{ return conf().resultSupplier().get(); }
+	{
+		ResultPool<R> pool = conf().resultPool();
+		
+		return (pool == null) ? conf().resultSupplier().get() : pool.acquire();
+	}
+
+	@Override
+	default
+			void releaseData(R r)
+	{
+		ResultPool<R> pool = conf().resultPool();
+		
+		if (pool != null) {
+			pool.release(r);
+		}
+	}
+
+	@Override
+	default
+			boolean supportsClear()
+	{ return conf().collectionStream().supportsClear(); }
+
+	@Override
+	default
+			void clear()
+	{ conf().collectionStream().clear(); }
 }
@@ -17,10 +17,12 @@
  */
 package com.lundellnet.toolbox.obj.collections.configurables;
 
+import java.util.function.BinaryOperator;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import com.lundellnet.toolbox.obj.collections.EnumElementCollection;
+import com.lundellnet.toolbox.obj.collections.ResultPool;
 import com.lundellnet.toolbox.obj.collections.configs.EnumDataCollectionConf;
 import com.lundellnet.toolbox.obj.elements.EnumElement;
 
@@ -37,11 +39,21 @@ public interface EnumDataCollection <C extends EnumDataCollectionConf<D, R, E, ?
 			void includeElement(E e)
 	{ conf().collectionStream().includeElement(e); }
 
+	@Override
+	default
+			void includeElement(E e, BinaryOperator<E> merge)
+	{ conf().collectionStream().includeElement(e, merge); }
+
 	@Override
 	default
 			Stream<E> elements()
 	{ return conf().collectionStream().getStream(); }
 
+	@Override
+	default
+			Stream<E> elements(boolean parallel)
+	{ return conf().collectionStream().getStream(parallel); }
+
 	@Override
 	default
 			Class<R> getDataClass()
@@ -55,5 +67,30 @@ public interface EnumDataCollection <C extends EnumDataCollectionConf<D, R, E, ?
 	@Override
 	default
 			R getData()
-	{ return conf().resultSupplier().get(); }
+	{
+		ResultPool<R> pool = conf().resultPool();
+		
+		return (pool == null) ? conf().resultSupplier().get() : pool.acquire();
+	}
+
+	@Override
+	default
+			void releaseData(R r)
+	{
+		ResultPool<R> pool = conf().resultPool();
+		
+		if (pool != null) {
+			pool.release(r);
+		}
+	}
+
+	@Override
+	default
+			boolean supportsClear()
+	{ return conf().collectionStream().supportsClear(); }
+
+	@Override
+	default
+			void clear()
+	{ conf().collectionStream().clear(); }
 }
@@ -0,0 +1,62 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.collectors;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import com.lundellnet.toolbox.obj.collections.DataElementCollection;
+import com.lundellnet.toolbox.obj.parsers.Parser;
+
+@FunctionalInterface
+public interface BatchingParsingCollector <T, P extends Parser<T, C, ?, R>, C extends DataElementCollection<R, ?>, R>
+	extends java.util.stream.Collector<List<T>, P, R>
+{
+    /**
+     * Feeds each batch through {@link Parser#acceptBatch(List)}, which groups it by
+     * {@link Parser#batchKey()} when the parser declares one.
+     */
+    @Override
+    default BiConsumer<P, List<T>> accumulator() {
+	return (p, b) -> p.acceptBatch(b);
+    }
+	
+    @Override
+    default BinaryOperator<P> combiner() {
+	return (p1, p2) -> {
+		p1.merge(p2);
+		return p1;
+	};
+    }
+	
+    @Override
+    default Function<P, R> finisher() {
+	return (p) -> {
+		p.collection().flush();
+		return p.transform();
+	};
+    }
+    
+    @Override
+    default Set<Characteristics> characteristics() {
+	return CoreCollector.DEFAULT_COLLECTOR_CHARACTERISTICS;
+    }
+}
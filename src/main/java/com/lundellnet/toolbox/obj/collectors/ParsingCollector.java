@@ -17,9 +17,13 @@
  */
 package com.lundellnet.toolbox.obj.collectors;
 
+import java.util.List;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 import com.lundellnet.toolbox.obj.collections.DataElementCollection;
 import com.lundellnet.toolbox.obj.parsers.Parser;
@@ -35,11 +39,59 @@ public interface ParsingCollector <T, P extends Parser<T, C, ?, R>, C extends Da
 	
     @Override
     default BinaryOperator<P> combiner() {
-	return (p1, p2) -> p1;
+	return (p1, p2) -> {
+		p1.merge(p2);
+		return p1;
+	};
     }
 	
     @Override
     default Function<P, R> finisher() {
-	return (p) -> p.transform();
+	return (p) -> {
+		p.collection().flush();
+		return p.transform();
+	};
+    }
+    
+    default BatchingParsingCollector<T, P, C, R> batching() {
+	ParsingCollector<T, P, C, R> records = this;
+	
+	return new BatchingParsingCollector<T, P, C, R>() {
+		@Override
+		public Supplier<P> supplier() {
+			return records.supplier();
+		}
+		
+		@Override
+		public Set<Characteristics> characteristics() {
+			return records.characteristics();
+		}
+	};
+    }
+    
+    /**
+     * Batching collector grouping every batch by {@code key} through
+     * {@link Parser#acceptBatch(List, ToLongFunction)}, for parsers whose {@code accept} is their
+     * identifier, falling back to their element init, followed by their accepter.
+     */
+    default BatchingParsingCollector<T, P, C, R> batching(ToLongFunction<? super T> key) {
+	ParsingCollector<T, P, C, R> records = this;
+	
+	return new BatchingParsingCollector<T, P, C, R>() {
+		@Override
+		public Supplier<P> supplier() {
+			return records.supplier();
+		}
+		
+		@Override
+		public BiConsumer<P, List<T>> accumulator() {
+			return (p, b) -> p.acceptBatch(b, key);
+		}
+		
+		@Override
+		public Set<Characteristics> characteristics() {
+			return records.characteristics();
+		}
+	};
     }
 }
@@ -0,0 +1,45 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.collectors;
+
+import static java.util.stream.Collector.Characteristics.UNORDERED;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.lundellnet.toolbox.obj.collections.DataElementCollection;
+import com.lundellnet.toolbox.obj.parsers.Parser;
+
+/**
+ * Collector that hands every partition of a parallel stream its own parser and folds the
+ * partial parsers together through {@link Parser#merge(Parser)}. The supplier must return
+ * a new parser, backed by its own collection, on every invocation.
+ */
+@FunctionalInterface
+public interface PartitionedParsingCollector <T, P extends Parser<T, C, ?, R>, C extends DataElementCollection<R, ?>, R>
+	extends ParsingCollector<T, P, C, R>
+{
+	static final Set<Characteristics> PARTITIONED_COLLECTOR_CHARACTERISTICS =
+			Collections.unmodifiableSet(EnumSet.of(UNORDERED));
+
+	@Override
+	default Set<Characteristics> characteristics() {
+		return PARTITIONED_COLLECTOR_CHARACTERISTICS;
+	}
+}
@@ -26,4 +26,11 @@ public interface DataPoint <I, O>
 	Consumer<I> setter();
 	
 	Supplier<O> getter();
+	
+	/**
+	 * Stores in the field any value this point has accepted but holds back until it is read, so
+	 * the value is visible to code reading the field directly. Points that write through, which
+	 * is every point but the lazily converting ones, do nothing.
+	 */
+	default void flush() {}
 }
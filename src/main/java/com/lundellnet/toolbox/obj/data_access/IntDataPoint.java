@@ -0,0 +1,45 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+public interface IntDataPoint
+		extends DataPoint<Integer, Integer>
+{
+	IntConsumer intSetter();
+	
+	IntSupplier intGetter();
+	
+	@Override
+	default Consumer<Integer> setter() {
+		IntConsumer s = intSetter();
+		
+		return (v) -> s.accept(v);
+	}
+	
+	@Override
+	default Supplier<Integer> getter() {
+		IntSupplier g = intGetter();
+		
+		return () -> g.getAsInt();
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Field;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+import com.lundellnet.toolbox.obj.data_access.AppendingDataPoint;
+
+/**
+ * Handle-backed {@link AppendingDataPoint} keeping the collector's accumulation container for the
+ * current parent, so an append only costs its own elements. Identity-finishing collectors publish
+ * the container itself. Other results are finished when the next parent is set, finishing the
+ * container in place, or on a get or flush for the current parent, finishing a copy that later
+ * appends cannot reach. The combiner must merge into its left argument, as the JDK's collectors
+ * do. Not safe for concurrent use.
+ */
+final class AppendingCollectingDataPoint <I, A, O>
+		implements AppendingDataPoint<I, O>
+{
+	private final Field field;
+	private final Supplier<?> parentSupplier;
+	private final FieldHandles h;
+
+	private final Supplier<A> supplier;
+	private final BiConsumer<A, I> accumulator;
+	private final BinaryOperator<A> combiner;
+	private final Function<A, O> finisher;
+	private final boolean identityFinish;
+
+	private final Consumer<Stream<I>> setter = this::set;
+	private final Consumer<Stream<I>> appender = this::append;
+	private final Supplier<O> getter = this::get;
+
+	private Object parent;
+	private A accumulated;
+	private boolean stale;
+
+	AppendingCollectingDataPoint(Field field, Supplier<?> parentSupplier, Collector<I, A, O> collector, FieldHandles h) {
+		this.field = field;
+		this.parentSupplier = parentSupplier;
+		this.h = h;
+		this.supplier = collector.supplier();
+		this.accumulator = collector.accumulator();
+		this.combiner = collector.combiner();
+		this.finisher = collector.finisher();
+		this.identityFinish = collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	@Override
+	public Field field() {
+		return field;
+	}
+
+	@Override
+	public Consumer<Stream<I>> setter() {
+		return setter;
+	}
+
+	@Override
+	public Consumer<Stream<I>> appender() {
+		return appender;
+	}
+
+	@Override
+	public Supplier<O> getter() {
+		return getter;
+	}
+
+	private void set(Stream<I> s) {
+		Object p = parentSupplier.get();
+
+		if (stale && p != parent) {
+			h.set(parent, finisher.apply(accumulated));
+			stale = false;
+		}
+
+		parent = p;
+		accumulated = supplier.get();
+		fold(s);
+	}
+
+	private void append(Stream<I> s) {
+		if (accumulated == null || parent != parentSupplier.get()) {
+			set(s);
+		} else {
+			fold(s);
+		}
+	}
+
+	private void fold(Stream<I> s) {
+		A acc = accumulated;
+
+		if (s.isParallel()) {
+			acc = combiner.apply(acc, s.collect(Collector.of(supplier, accumulator, combiner)));
+		} else {
+			s.forEachOrdered((i) -> accumulator.accept(accumulated, i));
+		}
+
+		if (identityFinish) {
+			if (acc != accumulated || h.get(parent) != acc) {
+				h.set(parent, acc);
+			}
+		} else {
+			stale = true;
+		}
+
+		accumulated = acc;
+	}
+
+	@SuppressWarnings("unchecked")
+	private O get() {
+		Object p = parentSupplier.get();
+
+		if (stale && p == parent) {
+			O o = finishCopy();
+
+			h.set(p, o);
+			return o;
+		}
+
+		return (O) h.get(p);
+	}
+
+	@Override
+	public void flush() {
+		if (stale) {
+			h.set(parent, finishCopy());
+		}
+	}
+
+	private O finishCopy() {
+		stale = false;
+		return finisher.apply(combiner.apply(supplier.get(), accumulated));
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Field;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+import com.lundellnet.toolbox.obj.data_access.AppendingDataPoint;
+
+/**
+ * Builds collecting data points with an append mode. Any {@link Collector} can back them,
+ * including a {@link com.lundellnet.toolbox.obj.collectors.CoreCollector CoreCollector}, or one
+ * producing a {@code Set} for use with set access.
+ */
+@FunctionalInterface
+public interface AppendingDataPointBuilder <I, O> {
+	AppendingDataPoint<I, O> build(Class<?> parentClass, Supplier<?> parentSupplier, Field elementField, Collector<I, ?, O> collector);
+	
+	static <I, O> AppendingDataPointBuilder<I, O> handleBacked() {
+		return (parentClass, parentSupplier, elementField, collector) ->
+				new AppendingCollectingDataPoint<>(elementField, parentSupplier, collector, FieldHandles.of(elementField));
+	}
+}
@@ -26,4 +26,19 @@ import com.lundellnet.toolbox.obj.data_access.DataPoint;
 
 public interface CollectingObjectDataPointBuilder <I, O> {
 	DataPoint<Stream<I>, O> build(Class<?> parentClass, Supplier<?> parentSupplier, Field elementField, CoreCollector<I, ?, ?, O> collector);
+	
+	/**
+	 * Handle-backed builder; collected results bound for a primitive {@code int}, {@code long} or
+	 * {@code double} field are stored through its primitive handle.
+	 */
+	@SuppressWarnings("unchecked")
+	static <I, O> CollectingObjectDataPointBuilder<I, O> handleBacked() {
+		return (parentClass, parentSupplier, elementField, collector) -> {
+			FieldHandles h = FieldHandles.of(elementField);
+			
+			return new HandleDataPoint<Stream<I>, O>(elementField,
+					(s) -> h.setBoxed(parentSupplier.get(), s.collect(collector)),
+					() -> (O) h.get(parentSupplier.get()));
+		};
+	}
 }
@@ -27,4 +27,20 @@ import com.lundellnet.toolbox.obj.data_access.DataPoint;
 
 public interface CollectingSetDataPointBuilder <I, O> {
 	DataPoint<Stream<I>, Set<O>> build(Class<?> parentClass, Supplier<?> parentSupplier, Field elementField, CoreCollector<I, ?, ?, O> collector);
+	
+	/**
+	 * Handle-backed builder whose data points collect each stream and add the result to the
+	 * field's set, created through {@link CompactSets} on first use.
+	 */
+	@SuppressWarnings("unchecked")
+	static <I, O> CollectingSetDataPointBuilder<I, O> handleBacked() {
+		return (parentClass, parentSupplier, elementField, collector) -> {
+			FieldHandles h = FieldHandles.of(elementField);
+			Supplier<Set<O>> factory = CompactSets.factory(elementField);
+			
+			return new HandleDataPoint<Stream<I>, Set<O>>(elementField,
+					(s) -> CompactSets.add(h, parentSupplier.get(), factory, s.collect(collector)),
+					() -> (Set<O>) h.get(parentSupplier.get()));
+		};
+	}
 }
@@ -0,0 +1,172 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Chooses the backing of the sets created by the set data point builders from the member type:
+ * an {@link EnumSet} for enums, a sorted unboxed array for {@code Integer} and {@code Long}, and
+ * otherwise an array held inline until the set reaches eight members. All of them are mutable,
+ * unsynchronized and iterate in a type-defined order: ordinal, ascending and insertion order
+ * respectively.
+ *
+ * <p>The enum and sorted sets cannot hold {@code null} and throw a {@link NullPointerException}
+ * when one is added directly. The set data points add members through {@link #add}, which
+ * instead moves the field's members to an inline array set, then holding {@code null} too, so a
+ * converter or collector yielding {@code null} changes the set's type and order rather than
+ * failing the record.
+ *
+ * <p>Compact sets are only used for fields declared as plain {@link Set} or {@link Collection}.
+ * Any other declared type gets a {@link LinkedHashSet} when it can hold one, a {@link TreeSet}
+ * for sorted sets, an {@link EnumSet} for {@code EnumSet} fields and otherwise a new instance of
+ * the declared class itself.
+ */
+public final class CompactSets {
+	private CompactSets() {}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <O> Supplier<Set<O>> factory(Class<O> memberType) {
+		if (memberType != null && memberType.isEnum()) {
+			Class<? extends Enum> enumType = (Class<? extends Enum>) memberType;
+
+			return () -> (Set<O>) EnumSet.noneOf(enumType);
+		} else if (memberType == Integer.class) {
+			return () -> (Set<O>) (Set<?>) new SortedIntSet();
+		} else if (memberType == Long.class) {
+			return () -> (Set<O>) (Set<?>) new SortedLongSet();
+		}
+
+		return SmallArraySet::new;
+	}
+
+	/**
+	 * Factory for a set field: compact sets for the member type declared by a {@code Set<O>} or
+	 * {@code Collection<O>} field, falling back to the inline array set when the member type is
+	 * not a concrete class, and a set of the declared type for any other field.
+	 *
+	 * @throws DataPointCompilationException if the declared type is not a set that can be
+	 * created
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <O> Supplier<Set<O>> factory(Field setField) {
+		Class<?> type = setField.getType();
+		Class<O> member = memberType(setField);
+
+		if (compact(setField)) {
+			return factory(member);
+		} else if (type.isAssignableFrom(LinkedHashSet.class)) {
+			return LinkedHashSet::new;
+		} else if (type.isAssignableFrom(TreeSet.class)) {
+			return TreeSet::new;
+		} else if (type == EnumSet.class && member != null && member.isEnum()) {
+			Class<? extends Enum> enumType = (Class<? extends Enum>) member;
+
+			return () -> (Set<O>) EnumSet.noneOf(enumType);
+		} else if (Set.class.isAssignableFrom(type) && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+			try {
+				Constructor<?> constructor = type.getDeclaredConstructor();
+
+				constructor.setAccessible(true);
+				return () -> {
+					try {
+						return (Set<O>) constructor.newInstance();
+					} catch (ReflectiveOperationException e) {
+						throw new DataPointCompilationException("Unable to create a set for " + setField + ".", e);
+					}
+				};
+			} catch (NoSuchMethodException e) {
+				throw new DataPointCompilationException("Unable to resolve a default constructor for " + setField + ".", e);
+			}
+		}
+
+		throw new DataPointCompilationException("Unable to create a set for " + setField + ".");
+	}
+
+	/**
+	 * Whether the field is declared as a plain {@code Set} or {@code Collection}, so that any set
+	 * implementation can be stored in it.
+	 */
+	static boolean compact(Field setField) {
+		Class<?> type = setField.getType();
+
+		return type == Set.class || type == Collection.class;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <O> Class<O> memberType(Field setField) {
+		Type type = setField.getGenericType();
+
+		if (type instanceof ParameterizedType) {
+			Type member = ((ParameterizedType) type).getActualTypeArguments()[0];
+
+			if (member instanceof Class) {
+				return (Class<O>) member;
+			}
+		}
+
+		return null;
+	}
+
+	static <O> Set<O> ensure(FieldHandles h, Object parent, Supplier<Set<O>> factory) {
+		@SuppressWarnings("unchecked")
+		Set<O> members = (Set<O>) h.get(parent);
+
+		if (members == null) {
+			members = factory.get();
+			h.set(parent, members);
+		}
+
+		return members;
+	}
+
+	/**
+	 * Adds {@code member} to the field's set, creating it through {@code factory} when the field is
+	 * {@code null} and replacing it with an inline array set holding the same members when
+	 * {@code member} is {@code null}, the current set is a compact one rejecting {@code null} and
+	 * the field is declared as a plain {@code Set} or {@code Collection}.
+	 */
+	static <O> Set<O> add(FieldHandles h, Object parent, Supplier<Set<O>> factory, O member) {
+		Set<O> members = ensure(h, parent, factory);
+
+		if (member == null && rejectsNull(members) && compact(h.field())) {
+			Set<O> tolerant = new SmallArraySet<>();
+
+			tolerant.addAll(members);
+			h.set(parent, tolerant);
+			members = tolerant;
+		}
+
+		members.add(member);
+		return members;
+	}
+
+	private static boolean rejectsNull(Set<?> members) {
+		return members instanceof SortedIntSet || members instanceof SortedLongSet || members instanceof EnumSet;
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe memoizing wrapper around a converter, to be handed to the converting data
+ * point builders in place of the converter itself. One cache is meant to be shared by every
+ * parser binding the same field, so it pays off on low cardinality inputs such as currency codes
+ * or status strings.
+ *
+ * <p>Hits are served from a concurrent map without locking. Which entries stay is decided by an
+ * {@link EvictionPolicy} under a lock. A hit does not take the lock: it is recorded in one of a
+ * few small ring buffers, picked by thread, and the buffers are replayed to the policy in a batch
+ * once one of them fills up or when a miss takes the lock anyway. Hits that find their buffer
+ * full are dropped, which only makes the policy's view slightly less precise. {@code null}
+ * inputs and {@code null} results are never cached.
+ */
+public final class ConverterCache <I, O>
+		implements Function<I, O>
+{
+	/**
+	 * Decides which keys a full cache keeps. Calls are serialized by the cache.
+	 */
+	public interface EvictionPolicy <K> {
+		/**
+		 * Notified for every miss, and in batches for the hits recorded since the last one. Hits
+		 * may be dropped under contention.
+		 */
+		void accessed(K key);
+		
+		void inserted(K key);
+		
+		void removed(K key);
+		
+		/**
+		 * The key to evict to make room for a new one.
+		 */
+		K victim();
+		
+		/**
+		 * Whether {@code candidate} is worth evicting {@code victim} for.
+		 */
+		default boolean admit(K candidate, K victim) {
+			return true;
+		}
+	}
+
+	private final Function<I, O> converter;
+	private final int capacity;
+	private final EvictionPolicy<I> policy;
+	private final ConcurrentMap<I, O> values;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final AccessBuffer<I>[] buffers;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public ConverterCache(Function<I, O> converter, int capacity, EvictionPolicy<I> policy) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+
+		this.converter = converter;
+		this.capacity = capacity;
+		this.policy = policy;
+		this.values = new ConcurrentHashMap<>(Math.max(16, capacity * 4 / 3 + 1));
+		this.buffers = AccessBuffer.stripes();
+	}
+
+	/**
+	 * Least recently used eviction.
+	 */
+	public static <I, O> ConverterCache<I, O> lru(Function<I, O> converter, int capacity) {
+		return new ConverterCache<>(converter, capacity, new LruPolicy<>());
+	}
+
+	/**
+	 * Least recently used eviction behind a frequency-sketch admission filter: a new key only
+	 * replaces the eviction candidate when it has been seen more often recently, so a burst of
+	 * one-off inputs cannot flush the frequently used entries. This is plain TinyLFU, without the
+	 * admission window of W-TinyLFU, so a new key that is about to become hot still has to be
+	 * missed a few times before it gets in.
+	 */
+	public static <I, O> ConverterCache<I, O> tinyLfu(Function<I, O> converter, int capacity) {
+		return new ConverterCache<>(converter, capacity, new TinyLfuPolicy<>(capacity));
+	}
+
+	@Override
+	public O apply(I in) {
+		if (in == null) {
+			return converter.apply(null);
+		}
+
+		O out = values.get(in);
+
+		if (out != null) {
+			hits.increment();
+
+			if (buffers[AccessBuffer.stripe(buffers.length)].offer(in) && lock.tryLock()) {
+				try {
+					drain();
+				} finally {
+					lock.unlock();
+				}
+			}
+
+			return out;
+		}
+
+		misses.increment();
+		out = converter.apply(in);
+
+		if (out != null) {
+			store(in, out);
+		}
+
+		return out;
+	}
+
+	private void store(I in, O out) {
+		lock.lock();
+
+		try {
+			drain();
+			policy.accessed(in);
+
+			if (values.containsKey(in)) {
+				return;
+			}
+
+			if (values.size() >= capacity) {
+				I victim = policy.victim();
+
+				if (!policy.admit(in, victim)) {
+					return;
+				}
+
+				values.remove(victim);
+				policy.removed(victim);
+				evictions.increment();
+			}
+
+			values.put(in, out);
+			policy.inserted(in);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void drain() {
+		for (AccessBuffer<I> buffer : buffers) {
+			buffer.drainTo(policy);
+		}
+	}
+
+	/**
+	 * Bounded multi-producer ring of hit keys, drained by whoever holds the cache lock.
+	 */
+	private static final class AccessBuffer <K> {
+		private static final int SIZE = 16;
+		private static final int MASK = SIZE - 1;
+		private static final int STRIPES = Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), 16) * 2 - 1);
+
+		private final AtomicReferenceArray<K> slots = new AtomicReferenceArray<>(SIZE);
+		private final AtomicLong tail = new AtomicLong();
+		private volatile long head;
+
+		@SuppressWarnings("unchecked")
+		static <K> AccessBuffer<K>[] stripes() {
+			AccessBuffer<K>[] buffers = new AccessBuffer[STRIPES];
+
+			for (int i = 0; i < buffers.length; i++) {
+				buffers[i] = new AccessBuffer<>();
+			}
+
+			return buffers;
+		}
+
+		static int stripe(int stripes) {
+			long id = Thread.currentThread().getId();
+			int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+
+			return (h ^ (h >>> 16)) & (stripes - 1);
+		}
+
+		/**
+		 * Records {@code key}, dropping it when the buffer is full or contended. Returns whether
+		 * the buffer is due for a drain.
+		 */
+		boolean offer(K key) {
+			long t = tail.get();
+			long size = t - head;
+
+			if (size >= SIZE) {
+				return true;
+			}
+
+			if (tail.compareAndSet(t, t + 1)) {
+				slots.lazySet((int) t & MASK, key);
+				return size + 1 >= SIZE;
+			}
+
+			return false;
+		}
+
+		/**
+		 * Replays the recorded keys in order. Only called under the cache lock.
+		 */
+		void drainTo(EvictionPolicy<K> policy) {
+			long h = head;
+			long t = tail.get();
+
+			for (; h < t; h++) {
+				int index = (int) h & MASK;
+				K key = slots.get(index);
+
+				if (key == null) {
+					break;
+				}
+
+				slots.lazySet(index, null);
+				policy.accessed(key);
+			}
+
+			head = h;
+		}
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	public int size() {
+		return values.size();
+	}
+
+	public long hits() {
+		return hits.sum();
+	}
+
+	public long misses() {
+		return misses.sum();
+	}
+
+	public long evictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Fraction of lookups served from the cache since creation, or {@code 0} before the first.
+	 */
+	public double hitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+
+		return (total == 0) ? 0 : (double) h / total;
+	}
+}
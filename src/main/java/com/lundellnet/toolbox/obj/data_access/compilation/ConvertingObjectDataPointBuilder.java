@@ -25,4 +25,29 @@ import com.lundellnet.toolbox.obj.data_access.DataPoint;
 
 public interface ConvertingObjectDataPointBuilder <I, O> {
     	DataPoint<I, O> build(Class<?> parentClass, Supplier<?> parentSupplier, Field elementField, Function<I, O> converter);
+    	
+    	/**
+    	 * Handle-backed builder; converted values bound for an {@code int}, {@code long} or
+    	 * {@code double} field are stored through the field's primitive handle.
+    	 */
+    	@SuppressWarnings("unchecked")
+    	static <I, O> ConvertingObjectDataPointBuilder<I, O> handleBacked() {
+    	    return (parentClass, parentSupplier, elementField, converter) -> {
+    		FieldHandles h = FieldHandles.of(elementField);
+    		
+    		return new HandleDataPoint<I, O>(elementField,
+    			(i) -> h.setBoxed(parentSupplier.get(), converter.apply(i)),
+    			() -> (O) h.get(parentSupplier.get()));
+    	    };
+    	}
+    	
+    	/**
+    	 * Handle-backed builder whose data points convert on the first read after a set rather than on
+    	 * the set itself, see {@link LazyConvertingDataPoint}. Suited to wide records of which only a
+    	 * few fields are read.
+    	 */
+    	static <I, O> ConvertingObjectDataPointBuilder<I, O> lazy() {
+    	    return (parentClass, parentSupplier, elementField, converter) ->
+    		    new LazyConvertingDataPoint<I, O>(elementField, parentSupplier, converter, FieldHandles.of(elementField));
+    	}
 }
@@ -26,4 +26,29 @@ import com.lundellnet.toolbox.obj.data_access.DataPoint;
 
 public interface ConvertingSetDataPointBuilder <I, O> {
     	DataPoint<I, Set<O>> build(Class<?> parentClass, Supplier<?> parentSupplier, Field elementField, Function<I, O> converter);
+    	
+    	/**
+    	 * Handle-backed builder whose data points convert each input and add it to the field's set,
+    	 * created through {@link CompactSets} on first use.
+    	 */
+    	@SuppressWarnings("unchecked")
+    	static <I, O> ConvertingSetDataPointBuilder<I, O> handleBacked() {
+    	    return (parentClass, parentSupplier, elementField, converter) -> {
+    		FieldHandles h = FieldHandles.of(elementField);
+    		Supplier<Set<O>> factory = CompactSets.factory(elementField);
+    		
+    		return new HandleDataPoint<I, Set<O>>(elementField,
+    			(i) -> CompactSets.add(h, parentSupplier.get(), factory, converter.apply(i)),
+    			() -> (Set<O>) h.get(parentSupplier.get()));
+    	    };
+    	}
+    	
+    	/**
+    	 * Handle-backed builder whose data points queue raw members on set and convert them on the
+    	 * next read, see {@link LazyConvertingSetDataPoint}.
+    	 */
+    	static <I, O> ConvertingSetDataPointBuilder<I, O> lazy() {
+    	    return (parentClass, parentSupplier, elementField, converter) ->
+    		    new LazyConvertingSetDataPoint<I, O>(elementField, parentSupplier, converter, FieldHandles.of(elementField));
+    	}
 }
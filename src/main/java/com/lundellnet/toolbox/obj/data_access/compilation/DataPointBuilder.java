@@ -25,4 +25,29 @@ import com.lundellnet.toolbox.obj.data_access.DataPoint;
 @FunctionalInterface
 public interface DataPointBuilder <I, O> {
 	DataPoint<I, O> build(Class<?> parentClass, Supplier<?> parentSupplier, Field elementField);
+	
+	static <I, O> DataPointBuilder<I, O> handleBacked() {
+		return (parentClass, parentSupplier, elementField) -> fromHandles(FieldHandles.of(elementField), parentSupplier);
+	}
+	
+	/**
+	 * Handle-backed data point over already resolved handles, unboxed for {@code int},
+	 * {@code long} and {@code double} fields like {@link #handleBacked()}.
+	 */
+	@SuppressWarnings("unchecked")
+	static <I, O> DataPoint<I, O> fromHandles(FieldHandles h, Supplier<?> parentSupplier) {
+		Class<?> type = h.field().getType();
+		
+		if (type == int.class) {
+			return (DataPoint<I, O>) (DataPoint<?, ?>) IntDataPointBuilder.fromHandles(h, parentSupplier);
+		} else if (type == long.class) {
+			return (DataPoint<I, O>) (DataPoint<?, ?>) LongDataPointBuilder.fromHandles(h, parentSupplier);
+		} else if (type == double.class) {
+			return (DataPoint<I, O>) (DataPoint<?, ?>) DoubleDataPointBuilder.fromHandles(h, parentSupplier);
+		}
+		
+		return new HandleDataPoint<I, O>(h.field(),
+				(i) -> h.set(parentSupplier.get(), i),
+				() -> (O) h.get(parentSupplier.get()));
+	}
 }
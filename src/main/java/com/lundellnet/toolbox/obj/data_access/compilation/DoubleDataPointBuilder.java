@@ -0,0 +1,50 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Field;
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.data_access.DoubleDataPoint;
+
+@FunctionalInterface
+public interface DoubleDataPointBuilder
+		extends DataPointBuilder<Double, Double>
+{
+	@Override
+	DoubleDataPoint build(Class<?> parentClass, Supplier<?> parentSupplier, Field elementField);
+	
+	static DoubleDataPointBuilder handleBacked() {
+		return (parentClass, parentSupplier, elementField) -> {
+			if (elementField.getType() != double.class) {
+				throw new DataPointCompilationException(elementField + " is not of type double.");
+			}
+			
+			return fromHandles(FieldHandles.of(elementField), parentSupplier);
+		};
+	}
+	
+	/**
+	 * Handle-backed data point over already resolved handles of a {@code double} field.
+	 */
+	static DoubleDataPoint fromHandles(FieldHandles h, Supplier<?> parentSupplier) {
+		return new HandleDoubleDataPoint(h.field(),
+				(v) -> h.setDouble(parentSupplier.get(), v),
+				() -> h.getDouble(parentSupplier.get()));
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spins one {@link FieldHandles.Accessor} subclass per field. The spun class holds the field's
+ * handles in {@code static final} fields, which HotSpot folds as constants, so each
+ * {@code invokeExact} compiles down to the field access itself. Every class is defined in a
+ * loader of its own, parented to this library's loader, and can be unloaded with its handles.
+ */
+final class FieldAccessors {
+	private static final String PACKAGE = "com/lundellnet/toolbox/obj/data_access/compilation/spun/";
+	private static final String SUPER = FieldHandles.Accessor.class.getName().replace('.', '/');
+	private static final String HANDLE = "java/lang/invoke/MethodHandle";
+	private static final String HANDLE_DESC = "L" + HANDLE + ";";
+	private static final String[] SLOTS = { "GET", "SET", "PRIMITIVE_GET", "PRIMITIVE_SET" };
+
+	private static final AtomicInteger SEQUENCE = new AtomicInteger();
+	private static final ThreadLocal<MethodHandle[]> HANDOFF = new ThreadLocal<>();
+
+	private FieldAccessors() {}
+
+	/**
+	 * An accessor invoking {@code get} and {@code set}, typed {@code (Object)Object} and
+	 * {@code (Object,Object)void}, and for primitive fields {@code primitiveGet} and
+	 * {@code primitiveSet} typed on {@code type}.
+	 */
+	static FieldHandles.Accessor spin(Class<?> type, MethodHandle get, MethodHandle set, MethodHandle primitiveGet,
+			MethodHandle primitiveSet) throws ReflectiveOperationException
+	{
+		String name = PACKAGE + "FieldAccessor" + SEQUENCE.incrementAndGet();
+		byte[] bytes = classFile(name, type);
+		Loader loader = new Loader(FieldAccessors.class.getClassLoader());
+
+		HANDOFF.set(new MethodHandle[] { get, set, primitiveGet, primitiveSet });
+
+		try {
+			return (FieldHandles.Accessor) loader.define(name.replace('/', '.'), bytes).getConstructor().newInstance();
+		} finally {
+			HANDOFF.remove();
+		}
+	}
+
+	/**
+	 * The handles of the class being spun on this thread, for its static initializer.
+	 */
+	static MethodHandle[] handoff() {
+		MethodHandle[] handles = HANDOFF.get();
+
+		if (handles == null) {
+			throw new IllegalStateException("No field accessor is being spun.");
+		}
+
+		return handles;
+	}
+
+	private static final class Loader
+			extends ClassLoader
+	{
+		Loader(ClassLoader parent) {
+			super(parent);
+		}
+
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+	private static byte[] classFile(String name, Class<?> type) {
+		ClassFile cf = new ClassFile(name);
+
+		cf.method(0x0001, "<init>", "()V", 1, 1, cf.code()
+				.op(0x2a)
+				.op(0xb7).u2(cf.methodref(SUPER, "<init>", "()V"))
+				.op(0xb1));
+
+		Code clinit = cf.code().op(0xb8).u2(cf.methodref(SUPER, "handoff", "()[" + HANDLE_DESC));
+
+		for (int i = 0; i < SLOTS.length; i++) {
+			clinit.op(0x59).op(0x03 + i).op(0x32).op(0xb3).u2(cf.fieldref(name, SLOTS[i], HANDLE_DESC));
+		}
+		cf.method(0x0008, "<clinit>", "()V", 4, 0, clinit.op(0x57).op(0xb1));
+
+		cf.method(0x0001, "get", "(Ljava/lang/Object;)Ljava/lang/Object;", 2, 2,
+				invoke(cf, name, "GET", "(Ljava/lang/Object;)Ljava/lang/Object;", 0x2b).op(0xb0));
+		cf.method(0x0001, "set", "(Ljava/lang/Object;Ljava/lang/Object;)V", 3, 3,
+				invoke(cf, name, "SET", "(Ljava/lang/Object;Ljava/lang/Object;)V", 0x2b, 0x2c).op(0xb1));
+
+		if (type == int.class) {
+			primitive(cf, name, "Int", "I", 0x1c, 0xac, 3);
+		} else if (type == long.class) {
+			primitive(cf, name, "Long", "J", 0x20, 0xad, 4);
+		} else if (type == double.class) {
+			primitive(cf, name, "Double", "D", 0x28, 0xaf, 4);
+		}
+
+		return cf.bytes(name, SUPER);
+	}
+
+	private static void primitive(ClassFile cf, String name, String suffix, String desc, int load2, int ret, int locals) {
+		cf.method(0x0001, "get" + suffix, "(Ljava/lang/Object;)" + desc, 3, 2,
+				invoke(cf, name, "PRIMITIVE_GET", "(Ljava/lang/Object;)" + desc, 0x2b).op(ret));
+		cf.method(0x0001, "set" + suffix, "(Ljava/lang/Object;" + desc + ")V", 4, locals,
+				invoke(cf, name, "PRIMITIVE_SET", "(Ljava/lang/Object;" + desc + ")V", 0x2b, load2).op(0xb1));
+	}
+
+	private static Code invoke(ClassFile cf, String name, String slot, String desc, int... loads) {
+		Code code = cf.code().op(0xb2).u2(cf.fieldref(name, slot, HANDLE_DESC));
+
+		for (int load : loads) {
+			code.op(load);
+		}
+
+		return code.op(0xb6).u2(cf.methodref(HANDLE, "invokeExact", desc));
+	}
+
+	private static final class Code {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		Code op(int op) {
+			bytes.write(op);
+			return this;
+		}
+
+		Code u2(int v) {
+			bytes.write(v >>> 8);
+			bytes.write(v);
+			return this;
+		}
+	}
+
+	/**
+	 * Just enough of the class file format for a final class with static handle fields and
+	 * straight-line methods, which need no stack map frames.
+	 */
+	private static final class ClassFile {
+		private final List<byte[]> pool = new ArrayList<>();
+		private final Map<String, Integer> indices = new HashMap<>();
+		private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+		private final int code;
+		private int methodCount;
+
+		ClassFile(String name) {
+			this.code = utf8("Code");
+			klass(name);
+		}
+
+		Code code() {
+			return new Code();
+		}
+
+		void method(int access, String name, String desc, int maxStack, int maxLocals, Code body) {
+			byte[] instructions = body.bytes.toByteArray();
+			DataOutputStream out = new DataOutputStream(methods);
+
+			try {
+				out.writeShort(access);
+				out.writeShort(utf8(name));
+				out.writeShort(utf8(desc));
+				out.writeShort(1);
+				out.writeShort(code);
+				out.writeInt(12 + instructions.length);
+				out.writeShort(maxStack);
+				out.writeShort(maxLocals);
+				out.writeInt(instructions.length);
+				out.write(instructions);
+				out.writeShort(0);
+				out.writeShort(0);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+
+			methodCount++;
+		}
+
+		int fieldref(String owner, String name, String desc) {
+			return ref(9, owner, name, desc);
+		}
+
+		int methodref(String owner, String name, String desc) {
+			return ref(10, owner, name, desc);
+		}
+
+		byte[] bytes(String name, String superName) {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(buffer);
+			int thisClass = klass(name);
+			int superClass = klass(superName);
+			int[] fields = new int[SLOTS.length];
+			int handleDesc = utf8(HANDLE_DESC);
+
+			for (int i = 0; i < SLOTS.length; i++) {
+				fields[i] = utf8(SLOTS[i]);
+			}
+
+			try {
+				out.writeInt(0xCAFEBABE);
+				out.writeShort(0);
+				out.writeShort(52);
+				out.writeShort(pool.size() + 1);
+
+				for (byte[] entry : pool) {
+					out.write(entry);
+				}
+
+				out.writeShort(0x0001 | 0x0010 | 0x0020);
+				out.writeShort(thisClass);
+				out.writeShort(superClass);
+				out.writeShort(0);
+				out.writeShort(SLOTS.length);
+
+				for (int field : fields) {
+					out.writeShort(0x0002 | 0x0008 | 0x0010);
+					out.writeShort(field);
+					out.writeShort(handleDesc);
+					out.writeShort(0);
+				}
+
+				out.writeShort(methodCount);
+				methods.writeTo(out);
+				out.writeShort(0);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+
+			return buffer.toByteArray();
+		}
+
+		private int utf8(String s) {
+			return entry("U" + s, () -> {
+				ByteArrayOutputStream b = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(b);
+
+				out.writeByte(1);
+				out.writeUTF(s);
+				return b.toByteArray();
+			});
+		}
+
+		private int klass(String name) {
+			int utf8 = utf8(name);
+
+			return entry("C" + name, () -> new byte[] { 7, (byte) (utf8 >>> 8), (byte) utf8 });
+		}
+
+		private int ref(int tag, String owner, String name, String desc) {
+			int owning = klass(owner);
+			int n = utf8(name);
+			int d = utf8(desc);
+			int nameAndType = entry("N" + name + ":" + desc,
+					() -> new byte[] { 12, (byte) (n >>> 8), (byte) n, (byte) (d >>> 8), (byte) d });
+
+			return entry(tag + owner + "." + name + ":" + desc, () -> new byte[] { (byte) tag,
+					(byte) (owning >>> 8), (byte) owning, (byte) (nameAndType >>> 8), (byte) nameAndType });
+		}
+
+		private int entry(String key, Entry entry) {
+			Integer index = indices.get(key);
+
+			if (index == null) {
+				try {
+					pool.add(entry.bytes());
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+
+				index = pool.size();
+				indices.put(key, index);
+			}
+
+			return index;
+		}
+	}
+
+	@FunctionalInterface
+	private interface Entry {
+		byte[] bytes() throws IOException;
+	}
+}
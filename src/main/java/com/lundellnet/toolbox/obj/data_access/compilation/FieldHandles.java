@@ -0,0 +1,318 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Getter/setter {@link MethodHandle} pair resolved once per {@link Field} and shared by every
+ * data point built against it. Handles are cached per declaring class through a {@link ClassValue},
+ * so they are released together with the class loader that defined the field.
+ *
+ * <p>Handles held in instance fields are not constants to the JIT, and invoking them costs as
+ * much as reflection. Each field therefore gets an {@link Accessor} class of its own, spun at
+ * runtime, that keeps its handles in {@code static final} fields, so a monomorphic call compiles
+ * to the plain field access. Where classes cannot be spun, the instance handles are used.
+ */
+public final class FieldHandles {
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final ClassValue<ConcurrentMap<String, FieldHandles>> CACHE =
+			new ClassValue<ConcurrentMap<String, FieldHandles>>() {
+				@Override
+				protected ConcurrentMap<String, FieldHandles> computeValue(Class<?> type) {
+					return new ConcurrentHashMap<>();
+				}
+			};
+
+	/**
+	 * Access to one field. Public only so that the accessor classes spun for each field, which
+	 * live in loaders of their own, can extend it; the typed methods of another type than the
+	 * field's fail.
+	 */
+	public abstract static class Accessor {
+		protected Accessor() {}
+
+		protected static MethodHandle[] handoff() {
+			return FieldAccessors.handoff();
+		}
+
+		public abstract Object get(Object parent);
+
+		public abstract void set(Object parent, Object value);
+
+		public int getInt(Object parent) {
+			throw unsupported(int.class);
+		}
+
+		public void setInt(Object parent, int value) {
+			throw unsupported(int.class);
+		}
+
+		public long getLong(Object parent) {
+			throw unsupported(long.class);
+		}
+
+		public void setLong(Object parent, long value) {
+			throw unsupported(long.class);
+		}
+
+		public double getDouble(Object parent) {
+			throw unsupported(double.class);
+		}
+
+		public void setDouble(Object parent, double value) {
+			throw unsupported(double.class);
+		}
+
+		private static DataPointCompilationException unsupported(Class<?> type) {
+			return new DataPointCompilationException("Field is not of type " + type.getName() + ".");
+		}
+	}
+
+	private final Field field;
+	private final Accessor accessor;
+	private final BiConsumer<Object, Object> writer;
+
+	private FieldHandles(Field field) {
+		this.field = field;
+
+		try {
+			Field accessible = field.getDeclaringClass().getDeclaredField(field.getName());
+
+			accessible.setAccessible(true);
+
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle get = lookup.unreflectGetter(accessible);
+			MethodHandle set = lookup.unreflectSetter(accessible);
+
+			if (Modifier.isStatic(field.getModifiers())) {
+				get = MethodHandles.dropArguments(get, 0, Object.class);
+				set = MethodHandles.dropArguments(set, 0, Object.class);
+			}
+
+			MethodHandle getter = get.asType(GETTER_TYPE);
+			MethodHandle setter = set.asType(SETTER_TYPE);
+			MethodHandle primitiveGetter = null;
+			MethodHandle primitiveSetter = null;
+
+			if (field.getType().isPrimitive()) {
+				primitiveGetter = get.asType(MethodType.methodType(field.getType(), Object.class));
+				primitiveSetter = set.asType(MethodType.methodType(void.class, Object.class, field.getType()));
+			}
+
+			this.accessor = accessor(field.getType(), getter, setter, primitiveGetter, primitiveSetter);
+			this.writer = writer(field.getType());
+		} catch (ReflectiveOperationException | RuntimeException ex) {
+			throw new DataPointCompilationException("Unable to resolve access handles for " + field + ".", ex);
+		}
+	}
+
+	public static FieldHandles of(Field field) {
+		return CACHE.get(field.getDeclaringClass()).computeIfAbsent(field.getName(), (n) -> new FieldHandles(field));
+	}
+
+	public Field field() {
+		return field;
+	}
+
+	public Object get(Object parent) {
+		return accessor.get(parent);
+	}
+
+	public void set(Object parent, Object value) {
+		accessor.set(parent, value);
+	}
+
+	public int getInt(Object parent) {
+		return accessor.getInt(parent);
+	}
+
+	public void setInt(Object parent, int value) {
+		accessor.setInt(parent, value);
+	}
+
+	public long getLong(Object parent) {
+		return accessor.getLong(parent);
+	}
+
+	public void setLong(Object parent, long value) {
+		accessor.setLong(parent, value);
+	}
+
+	public double getDouble(Object parent) {
+		return accessor.getDouble(parent);
+	}
+
+	public void setDouble(Object parent, double value) {
+		accessor.setDouble(parent, value);
+	}
+
+	/**
+	 * Stores a boxed value, through the primitive handle when the field is an {@code int},
+	 * {@code long} or {@code double}, so converted values skip the generic unboxing adapter.
+	 */
+	public void setBoxed(Object parent, Object value) {
+		writer.accept(parent, value);
+	}
+
+	private BiConsumer<Object, Object> writer(Class<?> type) {
+		if (type == int.class) {
+			return (p, v) -> setInt(p, (Integer) v);
+		} else if (type == long.class) {
+			return (p, v) -> setLong(p, (Long) v);
+		} else if (type == double.class) {
+			return (p, v) -> setDouble(p, (Double) v);
+		}
+
+		return this::set;
+	}
+
+	private Accessor accessor(Class<?> type, MethodHandle getter, MethodHandle setter, MethodHandle primitiveGetter,
+			MethodHandle primitiveSetter)
+	{
+		try {
+			return FieldAccessors.spin(type, getter, setter, primitiveGetter, primitiveSetter);
+		} catch (ReflectiveOperationException | RuntimeException | LinkageError ex) {
+			return new HandleAccessor(getter, setter, primitiveGetter, primitiveSetter);
+		}
+	}
+
+	/**
+	 * Fallback invoking the handles from instance fields.
+	 */
+	private final class HandleAccessor
+			extends Accessor
+	{
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		private final MethodHandle primitiveGetter;
+		private final MethodHandle primitiveSetter;
+
+		HandleAccessor(MethodHandle getter, MethodHandle setter, MethodHandle primitiveGetter, MethodHandle primitiveSetter) {
+			this.getter = getter;
+			this.setter = setter;
+			this.primitiveGetter = primitiveGetter;
+			this.primitiveSetter = primitiveSetter;
+		}
+
+		@Override
+		public Object get(Object parent) {
+			try {
+				return getter.invokeExact(parent);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new DataPointCompilationException("Unable to read " + field + ".", ex);
+			}
+		}
+
+		@Override
+		public void set(Object parent, Object value) {
+			try {
+				setter.invokeExact(parent, value);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new DataPointCompilationException("Unable to write " + field + ".", ex);
+			}
+		}
+
+		@Override
+		public int getInt(Object parent) {
+			try {
+				return (int) primitive(primitiveGetter, int.class).invokeExact(parent);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new DataPointCompilationException("Unable to read " + field + ".", ex);
+			}
+		}
+
+		@Override
+		public void setInt(Object parent, int value) {
+			try {
+				primitive(primitiveSetter, int.class).invokeExact(parent, value);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new DataPointCompilationException("Unable to write " + field + ".", ex);
+			}
+		}
+
+		@Override
+		public long getLong(Object parent) {
+			try {
+				return (long) primitive(primitiveGetter, long.class).invokeExact(parent);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new DataPointCompilationException("Unable to read " + field + ".", ex);
+			}
+		}
+
+		@Override
+		public void setLong(Object parent, long value) {
+			try {
+				primitive(primitiveSetter, long.class).invokeExact(parent, value);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new DataPointCompilationException("Unable to write " + field + ".", ex);
+			}
+		}
+
+		@Override
+		public double getDouble(Object parent) {
+			try {
+				return (double) primitive(primitiveGetter, double.class).invokeExact(parent);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new DataPointCompilationException("Unable to read " + field + ".", ex);
+			}
+		}
+
+		@Override
+		public void setDouble(Object parent, double value) {
+			try {
+				primitive(primitiveSetter, double.class).invokeExact(parent, value);
+			} catch (RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new DataPointCompilationException("Unable to write " + field + ".", ex);
+			}
+		}
+
+		private MethodHandle primitive(MethodHandle handle, Class<?> type) {
+			if (handle == null || field.getType() != type) {
+				throw new DataPointCompilationException(field + " is not of type " + type.getName() + ".");
+			}
+
+			return handle;
+		}
+	}
+}
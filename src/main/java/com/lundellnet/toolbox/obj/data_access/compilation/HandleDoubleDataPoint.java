@@ -0,0 +1,69 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Field;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.data_access.DoubleDataPoint;
+
+final class HandleDoubleDataPoint
+		implements DoubleDataPoint
+{
+	private final Field field;
+	private final DoubleConsumer setter;
+	private final DoubleSupplier getter;
+	private final Consumer<Double> boxedSetter;
+	private final Supplier<Double> boxedGetter;
+
+	HandleDoubleDataPoint(Field field, DoubleConsumer setter, DoubleSupplier getter) {
+		this.field = field;
+		this.setter = setter;
+		this.getter = getter;
+		this.boxedSetter = (v) -> setter.accept(v);
+		this.boxedGetter = () -> getter.getAsDouble();
+	}
+
+	@Override
+	public Field field() {
+		return field;
+	}
+
+	@Override
+	public DoubleConsumer doubleSetter() {
+		return setter;
+	}
+
+	@Override
+	public DoubleSupplier doubleGetter() {
+		return getter;
+	}
+
+	@Override
+	public Consumer<Double> setter() {
+		return boxedSetter;
+	}
+
+	@Override
+	public Supplier<Double> getter() {
+		return boxedGetter;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+
+/**
+ * Converting data point that defers conversion to the first read. A set records the raw input
+ * together with the parent it was meant for and clears the field, so the field never shows the
+ * value the set replaced; the first get against that parent converts the input, writes the result
+ * to the field and returns it, and later gets read the field until the next set. A set for another
+ * parent first converts and writes the input still pending for the previous one, so switching
+ * parents never loses a value. An input is therefore converted when it is read through the data
+ * point, displaced by a set for another parent or {@link #flush() flushed}, which parsers do
+ * before transforming their collection; until then, code reading the field directly sees it
+ * cleared. Like the parsers driving it, an instance is not safe for concurrent use.
+ */
+final class LazyConvertingDataPoint <I, O>
+		implements DataPoint<I, O>
+{
+	private static final Object NONE = new Object();
+
+	private final Field field;
+	private final Function<I, O> converter;
+	private final FieldHandles h;
+	private final Object empty;
+	private final Consumer<I> setter;
+	private final Supplier<O> getter;
+
+	private Object pendingParent;
+	private Object pending = NONE;
+
+	@SuppressWarnings("unchecked")
+	LazyConvertingDataPoint(Field field, Supplier<?> parentSupplier, Function<I, O> converter, FieldHandles h) {
+		this.field = field;
+		this.converter = converter;
+		this.h = h;
+		this.empty = field.getType().isPrimitive() ? Array.get(Array.newInstance(field.getType(), 1), 0) : null;
+		this.setter = (i) -> {
+			Object parent = parentSupplier.get();
+
+			if (pending == NONE || pendingParent != parent) {
+				if (pending != NONE) {
+					store();
+				}
+
+				h.setBoxed(parent, empty);
+				pendingParent = parent;
+			}
+
+			pending = i;
+		};
+		this.getter = () -> {
+			Object parent = parentSupplier.get();
+
+			if (pending != NONE && pendingParent == parent) {
+				return store();
+			}
+
+			return (O) h.get(parent);
+		};
+	}
+
+	/**
+	 * Converts and stores the input still pending, if any.
+	 */
+	@Override
+	public void flush() {
+		if (pending != NONE) {
+			store();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private O store() {
+		O o = converter.apply((I) pending);
+
+		h.setBoxed(pendingParent, o);
+		pending = NONE;
+		pendingParent = null;
+		return o;
+	}
+
+	@Override
+	public Field field() {
+		return field;
+	}
+
+	@Override
+	public Consumer<I> setter() {
+		return setter;
+	}
+
+	@Override
+	public Supplier<O> getter() {
+		return getter;
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+
+/**
+ * Set counterpart of {@link LazyConvertingDataPoint}: each set queues a raw member, and the next
+ * get converts the queued members and adds them to the field's set, creating one through
+ * {@link CompactSets} when the field is still {@code null}. Until then the field's set does not
+ * contain the queued members. A set for another parent first adds the members still queued for
+ * the previous one to that parent's set, so switching parents never loses a member, and a
+ * {@link #flush() flush}, which parsers do before transforming their collection, adds them too.
+ */
+final class LazyConvertingSetDataPoint <I, O>
+		implements DataPoint<I, Set<O>>
+{
+	private final Field field;
+	private final Function<I, O> converter;
+	private final FieldHandles h;
+	private final Supplier<Set<O>> factory;
+	private final Consumer<I> setter;
+	private final Supplier<Set<O>> getter;
+
+	private final List<I> pending = new ArrayList<>();
+	private Object pendingParent;
+
+	@SuppressWarnings("unchecked")
+	LazyConvertingSetDataPoint(Field field, Supplier<?> parentSupplier, Function<I, O> converter, FieldHandles h) {
+		this.field = field;
+		this.converter = converter;
+		this.h = h;
+		this.factory = CompactSets.factory(field);
+		this.setter = (i) -> {
+			Object parent = parentSupplier.get();
+
+			if (parent != pendingParent) {
+				if (!pending.isEmpty()) {
+					store();
+				}
+
+				pendingParent = parent;
+			}
+
+			pending.add(i);
+		};
+		this.getter = () -> {
+			Object parent = parentSupplier.get();
+
+			if (pending.isEmpty() || pendingParent != parent) {
+				return (Set<O>) h.get(parent);
+			}
+
+			return store();
+		};
+	}
+
+	/**
+	 * Converts and adds the members still queued, if any.
+	 */
+	@Override
+	public void flush() {
+		if (!pending.isEmpty()) {
+			store();
+		}
+	}
+
+	private Set<O> store() {
+		Set<O> members = CompactSets.ensure(h, pendingParent, factory);
+
+		for (I i : pending) {
+			members = CompactSets.add(h, pendingParent, factory, converter.apply(i));
+		}
+
+		pending.clear();
+		return members;
+	}
+
+	@Override
+	public Field field() {
+		return field;
+	}
+
+	@Override
+	public Consumer<I> setter() {
+		return setter;
+	}
+
+	@Override
+	public Supplier<Set<O>> getter() {
+		return getter;
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class LruPolicy <K>
+		implements ConverterCache.EvictionPolicy<K>
+{
+	private final Map<K, Boolean> order = new LinkedHashMap<>(16, 0.75f, true);
+
+	@Override
+	public void accessed(K key) {
+		order.get(key);
+	}
+
+	@Override
+	public void inserted(K key) {
+		order.put(key, Boolean.TRUE);
+	}
+
+	@Override
+	public void removed(K key) {
+		order.remove(key);
+	}
+
+	@Override
+	public K victim() {
+		return order.keySet().iterator().next();
+	}
+}
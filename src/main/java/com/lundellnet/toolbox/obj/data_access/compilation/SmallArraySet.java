@@ -0,0 +1,161 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Set keeping fewer than {@value #INLINE_LIMIT} members inline in an array sized to its content,
+ * in insertion order. Adding the {@value #INLINE_LIMIT}th member moves them all to a
+ * {@link HashSet}.
+ */
+final class SmallArraySet <E>
+		extends AbstractSet<E>
+{
+	static final int INLINE_LIMIT = 8;
+
+	private static final Object[] EMPTY = {};
+
+	private Object[] members = EMPTY;
+	private int size;
+	private Set<E> inflated;
+
+	@Override
+	public int size() {
+		return (inflated != null) ? inflated.size() : size;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return (inflated != null) ? inflated.contains(o) : indexOf(o) >= 0;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean add(E e) {
+		if (inflated != null) {
+			return inflated.add(e);
+		}
+
+		if (indexOf(e) >= 0) {
+			return false;
+		}
+
+		if (size + 1 == INLINE_LIMIT) {
+			inflated = new HashSet<>();
+
+			for (int i = 0; i < size; i++) {
+				inflated.add((E) members[i]);
+			}
+
+			members = EMPTY;
+			size = 0;
+			return inflated.add(e);
+		}
+
+		if (size == members.length) {
+			members = Arrays.copyOf(members, Math.min(Math.max(2, size * 2), INLINE_LIMIT - 1));
+		}
+
+		members[size++] = e;
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (inflated != null) {
+			return inflated.remove(o);
+		}
+
+		int i = indexOf(o);
+
+		if (i < 0) {
+			return false;
+		}
+
+		removeAt(i);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		members = EMPTY;
+		size = 0;
+		inflated = null;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		if (inflated != null) {
+			return inflated.iterator();
+		}
+
+		return new Iterator<E>() {
+			private int next;
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if (next >= size) {
+					throw new NoSuchElementException();
+				}
+
+				last = next++;
+				return (E) members[last];
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0) {
+					throw new IllegalStateException();
+				}
+
+				removeAt(last);
+				next = last;
+				last = -1;
+			}
+		};
+	}
+
+	private int indexOf(Object o) {
+		for (int i = 0; i < size; i++) {
+			if (Objects.equals(o, members[i])) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	private void removeAt(int i) {
+		System.arraycopy(members, i + 1, members, i, size - i - 1);
+		members[--size] = null;
+	}
+}
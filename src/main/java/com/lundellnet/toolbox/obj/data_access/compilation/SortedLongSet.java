@@ -0,0 +1,128 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of {@code long} values held unboxed in a sorted array, iterated in ascending order.
+ * Lookups are binary searches and inserts shift the tail, which suits the small to medium sets
+ * found on records far better than the per-member entry and box of a {@code HashSet}.
+ */
+final class SortedLongSet
+		extends AbstractSet<Long>
+{
+	private static final long[] EMPTY = {};
+
+	private long[] values = EMPTY;
+	private int size;
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return (o instanceof Long) && Arrays.binarySearch(values, 0, size, (Long) o) >= 0;
+	}
+
+	@Override
+	public boolean add(Long v) {
+		int i = Arrays.binarySearch(values, 0, size, v);
+
+		if (i >= 0) {
+			return false;
+		}
+
+		i = -i - 1;
+
+		if (size == values.length) {
+			values = Arrays.copyOf(values, Math.max(4, size + (size >> 1)));
+		}
+
+		System.arraycopy(values, i, values, i + 1, size - i);
+		values[i] = v;
+		size++;
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!(o instanceof Long)) {
+			return false;
+		}
+
+		int i = Arrays.binarySearch(values, 0, size, (Long) o);
+
+		if (i < 0) {
+			return false;
+		}
+
+		removeAt(i);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		values = EMPTY;
+		size = 0;
+	}
+
+	@Override
+	public Iterator<Long> iterator() {
+		return new Iterator<Long>() {
+			private int next;
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public Long next() {
+				if (next >= size) {
+					throw new NoSuchElementException();
+				}
+
+				last = next++;
+				return values[last];
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0) {
+					throw new IllegalStateException();
+				}
+
+				removeAt(last);
+				next = last;
+				last = -1;
+			}
+		};
+	}
+
+	private void removeAt(int i) {
+		System.arraycopy(values, i + 1, values, i, size - i - 1);
+		size--;
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Field;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+
+/**
+ * Builds the data points of {@link com.lundellnet.toolbox.obj.data_access.configurables.StandardSetAccess StandardSetAccess}
+ * elements, which add each value to the field's set as it is.
+ */
+public interface StandardSetDataPointBuilder <O> {
+	DataPoint<O, Set<O>> build(Class<?> parentClass, Supplier<?> parentSupplier, Field elementField);
+	
+	/**
+	 * Handle-backed builder whose data points add each value to the field's set, created through
+	 * {@link CompactSets} on first use.
+	 */
+	@SuppressWarnings("unchecked")
+	static <O> StandardSetDataPointBuilder<O> handleBacked() {
+		return (parentClass, parentSupplier, elementField) -> {
+			FieldHandles h = FieldHandles.of(elementField);
+			Supplier<Set<O>> factory = CompactSets.factory(elementField);
+			
+			return new HandleDataPoint<O, Set<O>>(elementField,
+					(o) -> CompactSets.add(h, parentSupplier.get(), factory, o),
+					() -> (Set<O>) h.get(parentSupplier.get()));
+		};
+	}
+}
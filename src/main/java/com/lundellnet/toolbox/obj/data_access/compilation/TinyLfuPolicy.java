@@ -0,0 +1,110 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+/**
+ * {@link LruPolicy} with TinyLFU admission. Access frequencies are estimated by a count-min
+ * sketch of four 4-bit counters per key, all halved once the number of recorded accesses reaches
+ * ten times the cache capacity so that the estimate follows recent history.
+ */
+final class TinyLfuPolicy <K>
+		extends LruPolicy<K>
+{
+	private static final int[] SEEDS = { 0x97CB3127, 0xB6E2A47D, 0x4F1BBCDD, 0xC2B2AE35 };
+
+	private final long[] table;
+	private final int mask;
+	private final int sampleSize;
+	private int samples;
+
+	TinyLfuPolicy(int capacity) {
+		int size = Integer.highestOneBit(Math.max(capacity, 4) - 1) << 1;
+
+		this.table = new long[size];
+		this.mask = size - 1;
+		this.sampleSize = 10 * Math.max(capacity, 4);
+	}
+
+	@Override
+	public void accessed(K key) {
+		super.accessed(key);
+
+		int hash = spread(key.hashCode());
+		boolean added = false;
+
+		for (int i = 0; i < SEEDS.length; i++) {
+			added |= increment(hash, i);
+		}
+
+		if (added && ++samples >= sampleSize) {
+			age();
+		}
+	}
+
+	@Override
+	public boolean admit(K candidate, K victim) {
+		return frequency(candidate) > frequency(victim);
+	}
+
+	int frequency(K key) {
+		int hash = spread(key.hashCode());
+		int min = 15;
+
+		for (int i = 0; i < SEEDS.length; i++) {
+			min = Math.min(min, (int) ((table[index(hash, i)] >>> offset(hash, i)) & 0xF));
+		}
+
+		return min;
+	}
+
+	private boolean increment(int hash, int i) {
+		int index = index(hash, i);
+		int offset = offset(hash, i);
+
+		if (((table[index] >>> offset) & 0xF) == 0xF) {
+			return false;
+		}
+
+		table[index] += 1L << offset;
+		return true;
+	}
+
+	private void age() {
+		for (int i = 0; i < table.length; i++) {
+			table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+		}
+
+		samples /= 2;
+	}
+
+	private int index(int hash, int i) {
+		int h = (hash + SEEDS[i]) * SEEDS[i];
+
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	private static int offset(int hash, int i) {
+		return ((hash >>> (i << 2)) & 0xF) << 2;
+	}
+
+	private static int spread(int h) {
+		h = (h ^ (h >>> 16)) * 0x45D9F3B;
+
+		return h ^ (h >>> 16);
+	}
+}
@@ -17,9 +17,22 @@
  */
 package com.lundellnet.toolbox.obj.data_access.configurables;
 
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
 import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
 
 @FunctionalInterface
 public interface ConfigurableDataAccess <C extends DataAccessConf<?, ?>> {
 	C conf();
+	
+	/**
+	 * {@link DataPoint#flush() Flushes} the element's data point, if it has one.
+	 */
+	default void flush() {
+		C conf = conf();
+		DataPoint<?, ?> point = (conf == null) ? null : conf.dataPoint();
+		
+		if (point != null) {
+			point.flush();
+		}
+	}
 }
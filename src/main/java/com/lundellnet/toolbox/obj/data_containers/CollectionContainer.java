@@ -17,6 +17,7 @@
  */
 package com.lundellnet.toolbox.obj.data_containers;
 
+import java.util.function.BinaryOperator;
 import java.util.stream.Stream;
 
 import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
@@ -24,7 +25,47 @@ import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAcce
 public interface CollectionContainer <D, E extends ConfigurableDataAccess<?>> {
 	void includeElement(E e);
 	
+	/**
+	 * Includes an element, folding it into the element of the same identity with {@code merge}
+	 * instead of the container's own merge function. Used to combine partial results, where the
+	 * parser's {@code checker()} decides how shared elements are merged. Containers that cannot
+	 * find an element's counterpart fall back to {@link #includeElement(ConfigurableDataAccess)}.
+	 */
+	default void includeElement(E e, BinaryOperator<E> merge) {
+		includeElement(e);
+	}
+	
 	E retreiveElement(D ident);
 	
 	Stream<E> getStream();
+	
+	default Stream<E> getStream(boolean parallel) {
+		Stream<E> s = getStream();
+		
+		return parallel ? s.parallel() : s.sequential();
+	}
+	
+	/**
+	 * {@link ConfigurableDataAccess#flush() Flushes} every element, so values their data points
+	 * hold back reach the fields before a result is read.
+	 */
+	default void flush() {
+		getStream().forEach(ConfigurableDataAccess::flush);
+	}
+	
+	default int size() {
+		return (int) getStream().count();
+	}
+	
+	/**
+	 * Whether {@link #clear()} is implemented. Built-in containers support it; parsers only
+	 * {@code snapshot()} collections whose container does.
+	 */
+	default boolean supportsClear() {
+		return false;
+	}
+	
+	default void clear() {
+		throw new UnsupportedOperationException(getClass().getName() + " cannot be cleared.");
+	}
 }
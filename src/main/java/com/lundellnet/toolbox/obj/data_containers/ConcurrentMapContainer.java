@@ -0,0 +1,103 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+
+/**
+ * Container safe for concurrent inclusion and retrieval from any number of threads. Elements
+ * sharing an identity are folded together atomically with the container's merge function, which
+ * must therefore be free of side effects outside the elements it is given.
+ */
+public class ConcurrentMapContainer <D, E extends ConfigurableDataAccess<?>>
+		implements CollectionContainer<D, E>
+{
+	private final ConcurrentMap<D, E> elements;
+	private final Function<E, D> identity;
+	private final BiFunction<E, E, E> merge;
+
+	public ConcurrentMapContainer(Function<E, D> identity, BiFunction<E, E, E> merge) {
+		this(identity, merge, 16);
+	}
+
+	public ConcurrentMapContainer(Function<E, D> identity, BiFunction<E, E, E> merge, int initialCapacity) {
+		this.elements = new ConcurrentHashMap<>(initialCapacity);
+		this.identity = identity;
+		this.merge = merge;
+	}
+
+	@Override
+	public void includeElement(E e) {
+		elements.merge(identity.apply(e), e, merge);
+	}
+
+	@Override
+	public void includeElement(E e, BinaryOperator<E> merge) {
+		elements.merge(identity.apply(e), e, merge);
+	}
+
+	@Override
+	public E retreiveElement(D ident) {
+		return elements.get(ident);
+	}
+
+	@Override
+	public Stream<E> getStream() {
+		return elements.values().stream();
+	}
+
+	/**
+	 * A parallel stream runs over a snapshot of the elements present when the call is made,
+	 * which unlike the live view is {@code SIZED} and splits evenly; elements included afterwards
+	 * are not seen by it.
+	 */
+	@Override
+	public Stream<E> getStream(boolean parallel) {
+		if (!parallel) {
+			return getStream();
+		}
+
+		Object[] snapshot = elements.values().toArray();
+
+		return StreamSupport.stream(Spliterators.<E>spliterator(snapshot, Containers.STREAM_CHARACTERISTICS), true);
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public boolean supportsClear() {
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		elements.clear();
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+final class Containers {
+	static final int STREAM_CHARACTERISTICS = Spliterator.NONNULL;
+
+	private Containers() {}
+
+	static int tableSize(int expected, float loadFactor) {
+		int size = 2;
+
+		while (size * loadFactor < expected) {
+			size <<= 1;
+		}
+
+		return size;
+	}
+
+	static int mix(int hash) {
+		int h = hash * 0x9E3779B9;
+
+		return h ^ (h >>> 16);
+	}
+
+	static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Streams the {@code size} non-null entries of an open-addressed or ordinal-indexed table.
+	 * A sequential stream walks the table in place and only reports {@code SIZED} until split. A
+	 * parallel stream compacts the entries into a dense array first, so its spliterator is
+	 * {@code SIZED} and {@code SUBSIZED} at every split and halves always carry equal work, which
+	 * sparse slot ranges cannot guarantee.
+	 */
+	static <E> Stream<E> stream(Object[] slots, int size, int characteristics, boolean parallel) {
+		if (!parallel) {
+			return StreamSupport.stream(new SlotSpliterator<>(slots, 0, slots.length, size, characteristics | Spliterator.SIZED), false);
+		}
+
+		return StreamSupport.stream(Spliterators.<E>spliterator(compact(slots, size), 0, size, characteristics), true);
+	}
+
+	/**
+	 * Streams {@code at(0)} to {@code at(size - 1)}, {@code SIZED} and {@code SUBSIZED} at every
+	 * split, for containers whose elements are created per index.
+	 */
+	static <E> Stream<E> indexed(int size, IntFunction<E> at, int characteristics, boolean parallel) {
+		return StreamSupport.stream(new IndexSpliterator<>(at, 0, size, characteristics | Spliterator.SIZED | Spliterator.SUBSIZED), parallel);
+	}
+
+	private static final class IndexSpliterator <E>
+			implements Spliterator<E>
+	{
+		private final IntFunction<E> at;
+		private final int fence;
+		private final int characteristics;
+		private int index;
+
+		IndexSpliterator(IntFunction<E> at, int origin, int fence, int characteristics) {
+			this.at = at;
+			this.index = origin;
+			this.fence = fence;
+			this.characteristics = characteristics;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			if (index < fence) {
+				action.accept(at.apply(index++));
+				return true;
+			}
+
+			return false;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			for (int i = index, n = fence; i < n; i++) {
+				action.accept(at.apply(i));
+			}
+
+			index = fence;
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			int lo = index;
+			int mid = (lo + fence) >>> 1;
+
+			if (mid <= lo) {
+				return null;
+			}
+
+			index = mid;
+
+			return new IndexSpliterator<>(at, lo, mid, characteristics);
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return characteristics;
+		}
+	}
+
+	/**
+	 * Spliterator over the non-null slots of a table, skipping empty slots as it goes. Halves of
+	 * a split cover equal slot ranges, so their sizes are only estimates.
+	 */
+	private static final class SlotSpliterator <E>
+			implements Spliterator<E>
+	{
+		private final Object[] slots;
+		private final int fence;
+		private int index;
+		private long estimate;
+		private int characteristics;
+
+		SlotSpliterator(Object[] slots, int origin, int fence, long estimate, int characteristics) {
+			this.slots = slots;
+			this.index = origin;
+			this.fence = fence;
+			this.estimate = estimate;
+			this.characteristics = characteristics;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean tryAdvance(Consumer<? super E> action) {
+			while (index < fence) {
+				Object e = slots[index++];
+
+				if (e != null) {
+					if (estimate > 0) {
+						estimate--;
+					}
+
+					action.accept((E) e);
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void forEachRemaining(Consumer<? super E> action) {
+			Object[] s = slots;
+
+			for (int i = index, n = fence; i < n; i++) {
+				Object e = s[i];
+
+				if (e != null) {
+					action.accept((E) e);
+				}
+			}
+
+			index = fence;
+			estimate = 0;
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			int lo = index;
+			int mid = (lo + fence) >>> 1;
+
+			if (mid <= lo) {
+				return null;
+			}
+
+			characteristics &= ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+			estimate >>>= 1;
+			index = mid;
+
+			return new SlotSpliterator<>(slots, lo, mid, estimate, characteristics);
+		}
+
+		@Override
+		public long estimateSize() {
+			return estimate;
+		}
+
+		@Override
+		public int characteristics() {
+			return characteristics;
+		}
+	}
+
+	private static Object[] compact(Object[] slots, int size) {
+		if (size == slots.length) {
+			return slots;
+		}
+
+		Object[] included = new Object[size];
+		int i = 0;
+
+		for (Object e : slots) {
+			if (e != null) {
+				included[i++] = e;
+			}
+		}
+
+		return included;
+	}
+}
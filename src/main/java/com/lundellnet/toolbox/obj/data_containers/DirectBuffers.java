@@ -0,0 +1,73 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the native memory of direct and mapped buffers on demand instead of when they are
+ * collected, through {@code Unsafe.invokeCleaner} on Java 9 and later and the buffer's own cleaner
+ * on Java 8. Where neither is reachable, release is left to the collector.
+ */
+final class DirectBuffers {
+	private static final MethodHandle FREE = freeHandle();
+
+	private DirectBuffers() {}
+
+	/**
+	 * Frees {@code buffer}'s memory, returning whether it was freed. The buffer must not be
+	 * touched afterwards: any access may crash the JVM.
+	 */
+	static boolean free(ByteBuffer buffer) {
+		if (FREE == null || buffer == null || !buffer.isDirect()) {
+			return false;
+		}
+
+		try {
+			FREE.invokeExact(buffer);
+			return true;
+		} catch (Throwable t) {
+			return false;
+		}
+	}
+
+	private static MethodHandle freeHandle() {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+
+			theUnsafe.setAccessible(true);
+			return lookup.unreflect(unsafeClass.getMethod("invokeCleaner", ByteBuffer.class)).bindTo(theUnsafe.get(null));
+		} catch (ReflectiveOperationException | RuntimeException java8) {
+			try {
+				MethodHandle cleaner = lookup.unreflect(Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner"));
+				MethodHandle clean = lookup.unreflect(Class.forName("sun.misc.Cleaner").getMethod("clean"));
+
+				return MethodHandles.filterReturnValue(cleaner, clean).asType(MethodType.methodType(void.class, ByteBuffer.class));
+			} catch (ReflectiveOperationException | RuntimeException unavailable) {
+				return null;
+			}
+		}
+	}
+}
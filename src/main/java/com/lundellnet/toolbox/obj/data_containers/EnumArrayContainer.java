@@ -0,0 +1,101 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.stream.Stream;
+
+import com.lundellnet.toolbox.obj.elements.EnumElement;
+
+/**
+ * Container holding at most one element per enum constant in a dense array indexed by
+ * {@link Enum#ordinal()}. It is not safe for concurrent inclusion; give each thread its own
+ * container, e.g. through a partitioned parsing collector. As with {@link java.util.Map#merge}, a
+ * merge returning {@code null} removes the element.
+ */
+public class EnumArrayContainer <D extends Enum<D>, E extends EnumElement<?, ?, ?, D>>
+		implements CollectionContainer<D, E>
+{
+	private static final int STREAM_CHARACTERISTICS = Containers.STREAM_CHARACTERISTICS | Spliterator.ORDERED;
+
+	private final E[] elements;
+	private final BiFunction<E, E, E> merge;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public EnumArrayContainer(Class<D> enumClass, BiFunction<E, E, E> merge) {
+		this.elements = (E[]) new EnumElement<?, ?, ?, ?>[enumClass.getEnumConstants().length];
+		this.merge = merge;
+	}
+
+	@Override
+	public void includeElement(E e) {
+		include(e, merge);
+	}
+
+	@Override
+	public void includeElement(E e, BinaryOperator<E> merge) {
+		include(e, merge);
+	}
+
+	private void include(E e, BiFunction<E, E, E> merge) {
+		int ordinal = e.getEnumConstant().ordinal();
+		E current = elements[ordinal];
+
+		if (current == null) {
+			elements[ordinal] = e;
+			size++;
+		} else if ((elements[ordinal] = merge.apply(current, e)) == null) {
+			size--;
+		}
+	}
+
+	@Override
+	public E retreiveElement(D ident) {
+		return elements[ident.ordinal()];
+	}
+
+	@Override
+	public Stream<E> getStream() {
+		return getStream(false);
+	}
+
+	@Override
+	public Stream<E> getStream(boolean parallel) {
+		return Containers.stream(elements, size, STREAM_CHARACTERISTICS, parallel);
+	}
+
+	@Override
+	public boolean supportsClear() {
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(elements, null);
+		size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+}
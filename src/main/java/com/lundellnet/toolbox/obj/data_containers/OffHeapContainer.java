@@ -0,0 +1,334 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.StandardDataAccess;
+
+/**
+ * Container storing records outside the Java heap, so tens of millions of them add nothing for
+ * the collector to trace. Each included element's value is copied into a fixed-size binary
+ * record laid out from the record class's binding metadata. Records live in direct buffers, or in
+ * segments of a memory-mapped file, and are reached through {@link OffHeapRecord} flyweights;
+ * fields read or written in place are best resolved once through {@link #field(String)}. The
+ * identity index is two primitive arrays.
+ *
+ * <p>Only primitive fields can be laid out; there is no variable-length area, so a record class
+ * with a {@code String} or any other reference field is rejected. Keep such values on the heap,
+ * for instance as a code or index into a table held beside the container.
+ *
+ * <p>The container must be {@link #close() closed}; afterwards any access fails. Closing frees the
+ * native memory of every segment at once, unmapping file segments, and closes the backing file.
+ * Closing while other threads still use the container or its records is unsafe. Not safe for
+ * concurrent inclusion.
+ */
+public class OffHeapContainer <R>
+		implements CollectionContainer<Long, StandardDataAccess<R, DataAccessConf<R, R>>>, AutoCloseable
+{
+	private static final float LOAD_FACTOR = 0.6f;
+	private static final int SEGMENT_BYTES = 1 << 26;
+
+	private final OffHeapLayout layout;
+	private final Supplier<R> recordSupplier;
+	private final ToLongFunction<R> identity;
+	private final BinaryOperator<R> merge;
+	private final FileChannel file;
+	private final int recordsPerSegment;
+	private final OffHeapField<R>[] fields;
+
+	private ByteBuffer[] segments = new ByteBuffer[0];
+	private long[] keys;
+	private int[] slots;
+	private int mask;
+	private int size;
+	private boolean closed;
+
+	/**
+	 * Container backed by direct buffers.
+	 */
+	public OffHeapContainer(Class<R> recordClass, Supplier<R> recordSupplier, ToLongFunction<R> identity, BinaryOperator<R> merge) {
+		this(recordClass, recordSupplier, identity, merge, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private OffHeapContainer(Class<R> recordClass, Supplier<R> recordSupplier, ToLongFunction<R> identity, BinaryOperator<R> merge,
+			FileChannel file)
+	{
+		this.layout = new OffHeapLayout(recordClass);
+		this.recordSupplier = recordSupplier;
+		this.identity = identity;
+		this.merge = merge;
+		this.file = file;
+		this.recordsPerSegment = SEGMENT_BYTES / layout.recordSize;
+		this.fields = new OffHeapField[layout.slots.length];
+
+		for (int i = 0; i < fields.length; i++) {
+			OffHeapLayout.Slot s = layout.slots[i];
+
+			fields[i] = new OffHeapField<>(this, s.field.getName(), s.type, s.offset);
+		}
+
+		this.keys = new long[16];
+		this.slots = new int[16];
+		this.mask = 15;
+	}
+
+	/**
+	 * Container backed by segments of {@code path}, which is created or truncated and grows as
+	 * records are added. The file is scratch space, not a persistent format.
+	 */
+	public static <R> OffHeapContainer<R> mapped(Path path, Class<R> recordClass, Supplier<R> recordSupplier, ToLongFunction<R> identity,
+			BinaryOperator<R> merge) throws IOException
+	{
+		FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		try {
+			return new OffHeapContainer<>(recordClass, recordSupplier, identity, merge, file);
+		} catch (RuntimeException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public void includeElement(StandardDataAccess<R, DataAccessConf<R, R>> e) {
+		include(e, null);
+	}
+
+	/**
+	 * Folds {@code e} into the record of the same identity with {@code merge}; the merged access's
+	 * value is copied into the existing slot.
+	 */
+	@Override
+	public void includeElement(StandardDataAccess<R, DataAccessConf<R, R>> e,
+			BinaryOperator<StandardDataAccess<R, DataAccessConf<R, R>>> merge)
+	{
+		include(e, merge);
+	}
+
+	private void include(StandardDataAccess<R, DataAccessConf<R, R>> e,
+			BinaryOperator<StandardDataAccess<R, DataAccessConf<R, R>>> elementMerge)
+	{
+		R value = e.get();
+		long key = identity.applyAsLong(value);
+		int i = Containers.mix(key) & mask;
+
+		checkOpen();
+
+		while (slots[i] != 0) {
+			if (keys[i] == key) {
+				int slot = slots[i] - 1;
+
+				if (elementMerge == null) {
+					write(slot, merge.apply(materialize(slot), value));
+				} else {
+					write(slot, elementMerge.apply(new OffHeapRecord<>(this, slot), e).get());
+				}
+
+				return;
+			}
+
+			i = (i + 1) & mask;
+		}
+
+		int slot = size;
+
+		write(slot, value);
+		keys[i] = key;
+		slots[i] = slot + 1;
+
+		if (++size > slots.length * LOAD_FACTOR) {
+			rehash(slots.length << 1);
+		}
+	}
+
+	@Override
+	public OffHeapRecord<R> retreiveElement(Long ident) {
+		return retreiveElement(ident.longValue());
+	}
+
+	public OffHeapRecord<R> retreiveElement(long ident) {
+		int i = Containers.mix(ident) & mask;
+
+		checkOpen();
+
+		while (slots[i] != 0) {
+			if (keys[i] == ident) {
+				return new OffHeapRecord<>(this, slots[i] - 1);
+			}
+
+			i = (i + 1) & mask;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Records are copied into the segments on inclusion, so there is nothing to flush.
+	 */
+	@Override
+	public void flush() {}
+
+	@Override
+	public Stream<StandardDataAccess<R, DataAccessConf<R, R>>> getStream() {
+		return getStream(false);
+	}
+
+	/**
+	 * Streams a flyweight per record in insertion order, sized and evenly splittable.
+	 */
+	@Override
+	public Stream<StandardDataAccess<R, DataAccessConf<R, R>>> getStream(boolean parallel) {
+		checkOpen();
+		return Containers.indexed(size, (slot) -> new OffHeapRecord<>(this, slot), Containers.STREAM_CHARACTERISTICS | Spliterator.ORDERED, parallel);
+	}
+
+	/**
+	 * The record field named {@code fieldName}, for the typed accessors of {@link OffHeapRecord}.
+	 */
+	public OffHeapField<R> field(String fieldName) {
+		return fields[layout.slotIndex(fieldName)];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean supportsClear() {
+		return true;
+	}
+
+	/**
+	 * Forgets every record but keeps the segments for reuse.
+	 */
+	@Override
+	public void clear() {
+		checkOpen();
+		Arrays.fill(slots, 0);
+		size = 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			ByteBuffer[] released = segments;
+
+			closed = true;
+			segments = new ByteBuffer[0];
+			keys = null;
+			slots = null;
+
+			for (ByteBuffer b : released) {
+				DirectBuffers.free(b);
+			}
+
+			if (file != null) {
+				file.close();
+			}
+		}
+	}
+
+	R materialize(int slot) {
+		R r = recordSupplier.get();
+
+		layout.read(buffer(slot), base(slot), r);
+		return r;
+	}
+
+	void write(int slot, R r) {
+		layout.write(r, buffer(slot), base(slot));
+	}
+
+	ByteBuffer buffer(int slot) {
+		checkOpen();
+
+		int segment = slot / recordsPerSegment;
+
+		if (segment >= segments.length) {
+			allocate(segment);
+		}
+
+		return segments[segment];
+	}
+
+	int base(int slot) {
+		return (slot % recordsPerSegment) * layout.recordSize;
+	}
+
+	private void allocate(int segment) {
+		int bytes = recordsPerSegment * layout.recordSize;
+		ByteBuffer[] grown = Arrays.copyOf(segments, segment + 1);
+
+		for (int s = segments.length; s <= segment; s++) {
+			if (file == null) {
+				grown[s] = ByteBuffer.allocateDirect(bytes);
+			} else {
+				try {
+					grown[s] = file.map(FileChannel.MapMode.READ_WRITE, (long) s * bytes, bytes);
+				} catch (IOException e) {
+					throw new IllegalStateException("Unable to map segment " + s + " of the backing file.", e);
+				}
+			}
+		}
+
+		segments = grown;
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("Container is closed.");
+		}
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldSlots = slots;
+
+		keys = new long[capacity];
+		slots = new int[capacity];
+		mask = capacity - 1;
+
+		for (int j = 0; j < oldSlots.length; j++) {
+			if (oldSlots[j] != 0) {
+				int i = Containers.mix(oldKeys[j]) & mask;
+
+				while (slots[i] != 0) {
+					i = (i + 1) & mask;
+				}
+
+				keys[i] = oldKeys[j];
+				slots[i] = oldSlots[j];
+			}
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+/**
+ * A field of an {@link OffHeapContainer}'s records, resolved once by
+ * {@link OffHeapContainer#field(String)} so that the typed accessors of {@link OffHeapRecord}
+ * taking it only add the field's offset to the record's position. Only valid for records of the
+ * container it was resolved from.
+ */
+public final class OffHeapField <R> {
+	private final OffHeapContainer<R> container;
+	private final String name;
+	private final Class<?> type;
+	private final int offset;
+
+	OffHeapField(OffHeapContainer<R> container, String name, Class<?> type, int offset) {
+		this.container = container;
+		this.name = name;
+		this.type = type;
+		this.offset = offset;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	public Class<?> type() {
+		return type;
+	}
+
+	int position(OffHeapContainer<R> records, int slot, Class<?> accessed) {
+		if (records != container) {
+			throw new IllegalArgumentException("Field " + name + " belongs to another container.");
+		}
+		if (accessed != type) {
+			throw new IllegalArgumentException("Field " + name + " is " + type.getName() + ", not " + accessed.getName() + ".");
+		}
+
+		return container.base(slot) + offset;
+	}
+
+	@Override
+	public String toString() {
+		return name + ":" + type.getName() + "@" + offset;
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.lundellnet.toolbox.obj.data_access.compilation.FieldHandles;
+import com.lundellnet.toolbox.obj.elements.compilation.BindingPlan;
+
+/**
+ * Fixed-size binary record layout of a class, derived from its {@link BindingPlan}. Fields are
+ * placed widest first so every value is naturally aligned within the record.
+ */
+final class OffHeapLayout {
+	static final class Slot {
+		final Field field;
+		final FieldHandles handles;
+		final Class<?> type;
+		final int size;
+		int offset;
+
+		Slot(Field field) {
+			this.field = field;
+			this.handles = FieldHandles.of(field);
+			this.type = field.getType();
+			this.size = sizeOf(type);
+		}
+	}
+
+	final Slot[] slots;
+	final int recordSize;
+	private final Map<String, Integer> index = new HashMap<>();
+
+	OffHeapLayout(Class<?> recordClass) {
+		List<Slot> found = new ArrayList<>();
+
+		for (BindingPlan.Binding b : BindingPlan.of(recordClass).bindings()) {
+			if (!b.field().getType().isPrimitive()) {
+				throw new IllegalArgumentException("Off-heap records hold primitive fields only, with no variable-length area; "
+						+ b.field().getName() + " of " + recordClass.getName() + " is " + b.field().getType().getName() + ".");
+			}
+
+			found.add(new Slot(b.field()));
+		}
+
+		found.sort(Comparator.comparingInt((Slot s) -> s.size).reversed());
+
+		int offset = 0;
+
+		for (int i = 0; i < found.size(); i++) {
+			Slot s = found.get(i);
+
+			s.offset = offset;
+			offset += s.size;
+			index.putIfAbsent(s.field.getName(), i);
+		}
+
+		this.slots = found.toArray(new Slot[found.size()]);
+		this.recordSize = Math.max(8, (offset + 7) & ~7);
+	}
+
+	int slotIndex(String fieldName) {
+		Integer i = index.get(fieldName);
+
+		if (i == null) {
+			throw new IllegalArgumentException("No off-heap field " + fieldName + ".");
+		}
+
+		return i;
+	}
+
+	void write(Object record, ByteBuffer b, int base) {
+		for (Slot s : slots) {
+			int at = base + s.offset;
+			Class<?> t = s.type;
+
+			if (t == int.class) {
+				b.putInt(at, s.handles.getInt(record));
+			} else if (t == long.class) {
+				b.putLong(at, s.handles.getLong(record));
+			} else if (t == double.class) {
+				b.putDouble(at, s.handles.getDouble(record));
+			} else {
+				put(b, at, t, s.handles.get(record));
+			}
+		}
+	}
+
+	void read(ByteBuffer b, int base, Object record) {
+		for (Slot s : slots) {
+			int at = base + s.offset;
+			Class<?> t = s.type;
+
+			if (t == int.class) {
+				s.handles.setInt(record, b.getInt(at));
+			} else if (t == long.class) {
+				s.handles.setLong(record, b.getLong(at));
+			} else if (t == double.class) {
+				s.handles.setDouble(record, b.getDouble(at));
+			} else {
+				s.handles.set(record, get(b, at, t));
+			}
+		}
+	}
+
+	static Object get(ByteBuffer b, int at, Class<?> t) {
+		if (t == int.class) {
+			return b.getInt(at);
+		} else if (t == long.class) {
+			return b.getLong(at);
+		} else if (t == double.class) {
+			return b.getDouble(at);
+		} else if (t == float.class) {
+			return b.getFloat(at);
+		} else if (t == short.class) {
+			return b.getShort(at);
+		} else if (t == char.class) {
+			return b.getChar(at);
+		} else if (t == byte.class) {
+			return b.get(at);
+		}
+
+		return b.get(at) != 0;
+	}
+
+	static void put(ByteBuffer b, int at, Class<?> t, Object v) {
+		if (t == int.class) {
+			b.putInt(at, (Integer) v);
+		} else if (t == long.class) {
+			b.putLong(at, (Long) v);
+		} else if (t == double.class) {
+			b.putDouble(at, (Double) v);
+		} else if (t == float.class) {
+			b.putFloat(at, (Float) v);
+		} else if (t == short.class) {
+			b.putShort(at, (Short) v);
+		} else if (t == char.class) {
+			b.putChar(at, (Character) v);
+		} else if (t == byte.class) {
+			b.put(at, (Byte) v);
+		} else {
+			b.put(at, ((Boolean) v) ? (byte) 1 : (byte) 0);
+		}
+	}
+
+	private static int sizeOf(Class<?> t) {
+		if (t == long.class || t == double.class) {
+			return 8;
+		} else if (t == int.class || t == float.class) {
+			return 4;
+		} else if (t == short.class || t == char.class) {
+			return 2;
+		}
+
+		return 1;
+	}
+}
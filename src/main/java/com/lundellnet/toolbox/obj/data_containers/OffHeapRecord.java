@@ -0,0 +1,135 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.lang.reflect.Field;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.StandardDataAccess;
+
+/**
+ * Flyweight element over one record of an {@link OffHeapContainer}, holding nothing but the
+ * record's position. {@link #get()} materializes the record into a new object and {@link #set}
+ * stores one; the typed accessors read and write single fields in place, given an
+ * {@link OffHeapField} resolved from the container or, more slowly, a field name. A view must not
+ * be used once its container has been cleared or closed.
+ */
+public final class OffHeapRecord <R>
+		implements StandardDataAccess<R, DataAccessConf<R, R>>
+{
+	private final OffHeapContainer<R> container;
+	private final int slot;
+	private DataAccessConf<R, R> conf;
+
+	OffHeapRecord(OffHeapContainer<R> container, int slot) {
+		this.container = container;
+		this.slot = slot;
+	}
+
+	@Override
+	public DataAccessConf<R, R> conf() {
+		if (conf == null) {
+			Consumer<R> setter = this::set;
+			Supplier<R> getter = this::get;
+			DataPoint<R, R> point = new DataPoint<R, R>() {
+				@Override
+				public Field field() {
+					return null;
+				}
+
+				@Override
+				public Consumer<R> setter() {
+					return setter;
+				}
+
+				@Override
+				public Supplier<R> getter() {
+					return getter;
+				}
+			};
+
+			conf = () -> point;
+		}
+
+		return conf;
+	}
+
+	@Override
+	public R get() {
+		return container.materialize(slot);
+	}
+
+	@Override
+	public void set(R r) {
+		container.write(slot, r);
+	}
+
+	public int getInt(OffHeapField<R> field) {
+		return container.buffer(slot).getInt(field.position(container, slot, int.class));
+	}
+
+	public void setInt(OffHeapField<R> field, int v) {
+		container.buffer(slot).putInt(field.position(container, slot, int.class), v);
+	}
+
+	public long getLong(OffHeapField<R> field) {
+		return container.buffer(slot).getLong(field.position(container, slot, long.class));
+	}
+
+	public void setLong(OffHeapField<R> field, long v) {
+		container.buffer(slot).putLong(field.position(container, slot, long.class), v);
+	}
+
+	public double getDouble(OffHeapField<R> field) {
+		return container.buffer(slot).getDouble(field.position(container, slot, double.class));
+	}
+
+	public void setDouble(OffHeapField<R> field, double v) {
+		container.buffer(slot).putDouble(field.position(container, slot, double.class), v);
+	}
+
+	/**
+	 * Looks {@code fieldName} up on every call; prefer {@link #getInt(OffHeapField)} in loops.
+	 */
+	public int getInt(String fieldName) {
+		return getInt(container.field(fieldName));
+	}
+
+	public void setInt(String fieldName, int v) {
+		setInt(container.field(fieldName), v);
+	}
+
+	public long getLong(String fieldName) {
+		return getLong(container.field(fieldName));
+	}
+
+	public void setLong(String fieldName, long v) {
+		setLong(container.field(fieldName), v);
+	}
+
+	public double getDouble(String fieldName) {
+		return getDouble(container.field(fieldName));
+	}
+
+	public void setDouble(String fieldName, double v) {
+		setDouble(container.field(fieldName), v);
+	}
+}
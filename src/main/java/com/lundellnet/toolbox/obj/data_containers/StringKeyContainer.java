@@ -0,0 +1,192 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.util.Arrays;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+
+/**
+ * Open-addressing container keyed by {@code String} identities. Each slot keeps the spread hash
+ * of its key alongside it, so probes only dereference keys whose hashes already match. It is not
+ * safe for concurrent inclusion. A merge returning {@code null} removes the element.
+ */
+public class StringKeyContainer <E extends ConfigurableDataAccess<?>>
+		implements CollectionContainer<String, E>
+{
+	private static final float LOAD_FACTOR = 0.6f;
+
+	private final Function<E, String> identity;
+	private final BiFunction<E, E, E> merge;
+
+	private String[] keys;
+	private int[] hashes;
+	private Object[] elements;
+	private int mask;
+	private int size;
+
+	public StringKeyContainer(Function<E, String> identity, BiFunction<E, E, E> merge) {
+		this(identity, merge, 16);
+	}
+
+	public StringKeyContainer(Function<E, String> identity, BiFunction<E, E, E> merge, int expectedSize) {
+		int capacity = Containers.tableSize(expectedSize, LOAD_FACTOR);
+
+		this.identity = identity;
+		this.merge = merge;
+		this.keys = new String[capacity];
+		this.hashes = new int[capacity];
+		this.elements = new Object[capacity];
+		this.mask = capacity - 1;
+	}
+
+	@Override
+	public void includeElement(E e) {
+		include(e, merge);
+	}
+
+	@Override
+	public void includeElement(E e, BinaryOperator<E> merge) {
+		include(e, merge);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void include(E e, BiFunction<E, E, E> merge) {
+		String key = identity.apply(e);
+		int hash = Containers.mix(key.hashCode());
+		int i = hash & mask;
+		Object current;
+
+		while ((current = elements[i]) != null) {
+			if (hashes[i] == hash && key.equals(keys[i])) {
+				if ((elements[i] = merge.apply((E) current, e)) == null) {
+					remove(i);
+				}
+
+				return;
+			}
+
+			i = (i + 1) & mask;
+		}
+
+		keys[i] = key;
+		hashes[i] = hash;
+		elements[i] = e;
+
+		if (++size > elements.length * LOAD_FACTOR) {
+			rehash(elements.length << 1);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E retreiveElement(String ident) {
+		int hash = Containers.mix(ident.hashCode());
+		int i = hash & mask;
+		Object current;
+
+		while ((current = elements[i]) != null) {
+			if (hashes[i] == hash && ident.equals(keys[i])) {
+				return (E) current;
+			}
+
+			i = (i + 1) & mask;
+		}
+
+		return null;
+	}
+
+	@Override
+	public Stream<E> getStream() {
+		return getStream(false);
+	}
+
+	@Override
+	public Stream<E> getStream(boolean parallel) {
+		return Containers.stream(elements, size, Containers.STREAM_CHARACTERISTICS, parallel);
+	}
+
+	@Override
+	public boolean supportsClear() {
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(elements, null);
+		Arrays.fill(keys, null);
+		size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Empties slot {@code i} and shifts later entries of its probe run back into the gap, so
+	 * every remaining key stays reachable from its home slot.
+	 */
+	private void remove(int i) {
+		int gap = i;
+
+		for (int j = (i + 1) & mask; elements[j] != null; j = (j + 1) & mask) {
+			int home = hashes[j] & mask;
+
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = keys[j];
+				hashes[gap] = hashes[j];
+				elements[gap] = elements[j];
+				gap = j;
+			}
+		}
+
+		elements[gap] = null;
+		keys[gap] = null;
+		size--;
+	}
+
+	private void rehash(int capacity) {
+		String[] oldKeys = keys;
+		int[] oldHashes = hashes;
+		Object[] oldElements = elements;
+
+		keys = new String[capacity];
+		hashes = new int[capacity];
+		elements = new Object[capacity];
+		mask = capacity - 1;
+
+		for (int j = 0; j < oldElements.length; j++) {
+			if (oldElements[j] != null) {
+				int i = oldHashes[j] & mask;
+
+				while (elements[i] != null) {
+					i = (i + 1) & mask;
+				}
+
+				keys[i] = oldKeys[j];
+				hashes[i] = oldHashes[j];
+				elements[i] = oldElements[j];
+			}
+		}
+	}
+}
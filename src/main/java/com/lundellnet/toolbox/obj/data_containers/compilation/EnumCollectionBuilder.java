@@ -20,6 +20,7 @@ package com.lundellnet.toolbox.obj.data_containers.compilation;
 import java.util.function.BiFunction;
 
 import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.data_containers.EnumArrayContainer;
 import com.lundellnet.toolbox.obj.elements.EnumElement;
 
 @FunctionalInterface
@@ -37,4 +38,8 @@ public interface EnumCollectionBuilder <D extends Enum<D>, E extends EnumElement
 	default CollectionContainer<D, E> build(Class<D> e) {
 		return build(e, true, (l, r) -> l);
 	}
+	
+	static <D extends Enum<D>, E extends EnumElement<?, ?, ?, D>> EnumCollectionBuilder<D, E> ordinalIndexed() {
+		return (e, p, m) -> new EnumArrayContainer<>(e, m);
+	}
 }
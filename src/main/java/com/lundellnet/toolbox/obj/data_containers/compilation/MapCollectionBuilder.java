@@ -19,9 +19,15 @@ package com.lundellnet.toolbox.obj.data_containers.compilation;
 
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
 import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.data_containers.ConcurrentMapContainer;
+import com.lundellnet.toolbox.obj.data_containers.IntKeyContainer;
+import com.lundellnet.toolbox.obj.data_containers.LongKeyContainer;
+import com.lundellnet.toolbox.obj.data_containers.StringKeyContainer;
 
 @FunctionalInterface
 public interface MapCollectionBuilder <D, E extends ConfigurableDataAccess<?>> {
@@ -38,4 +44,24 @@ public interface MapCollectionBuilder <D, E extends ConfigurableDataAccess<?>> {
 	default CollectionContainer<D, E> build(Function<E, D> i) {
 		return build(i, true, (l, r) -> l);
 	}
+	
+	static <D, E extends ConfigurableDataAccess<?>> MapCollectionBuilder<D, E> concurrent() {
+		return (i, p, m) -> new ConcurrentMapContainer<>(i, m);
+	}
+	
+	/**
+	 * Open-addressing container keyed by {@code k}; the identity function handed to {@code build}
+	 * is ignored so that keys are never boxed.
+	 */
+	static <E extends ConfigurableDataAccess<?>> MapCollectionBuilder<Long, E> longKeyed(ToLongFunction<E> k) {
+		return (i, p, m) -> new LongKeyContainer<>(k, m);
+	}
+	
+	static <E extends ConfigurableDataAccess<?>> MapCollectionBuilder<Integer, E> intKeyed(ToIntFunction<E> k) {
+		return (i, p, m) -> new IntKeyContainer<>(k, m);
+	}
+	
+	static <E extends ConfigurableDataAccess<?>> MapCollectionBuilder<String, E> stringKeyed() {
+		return (i, p, m) -> new StringKeyContainer<>(i, m);
+	}
 }
@@ -17,22 +17,31 @@
  */
 package com.lundellnet.toolbox.obj.elements;
 
-import java.util.Arrays;
 import java.util.stream.Stream;
 
 import com.lundellnet.toolbox.api.data_access.AnnotatedElementType;
 import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
 import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableFieldAccess;
+import com.lundellnet.toolbox.obj.elements.configs.ElementConf;
 
 public interface AnnotatedElement <I, O, C extends DataAccessConf<I, O>>
 	extends ConfigurableFieldAccess<I, O, C>
 {
+    /**
+     * Read from the configuration when it is an {@link ElementConf}; otherwise looked up by
+     * field on every call.
+     */
+    default ElementMetadata getMetadata() {
+    	C conf = conf();
+    	
+		return (conf instanceof ElementConf) ? ((ElementConf<?, ?>) conf).metadata() : ElementMetadata.of(getField());
+    }
+    
     default Stream<AnnotatedElementType> getAssociatedStream() {
-		return Arrays.stream(getField().getDeclaredAnnotations())
-			.map((a) -> AnnotatedElementType.fromValue(a.annotationType().getCanonicalName()));
+		return getMetadata().associatedTypes();
     }
     
     default AnnotatedElementType[] getAssociatedTypes() {
-    	return (AnnotatedElementType[]) getAssociatedStream().toArray();
+    	return getAssociatedStream().toArray(AnnotatedElementType[]::new);
     }
 }
@@ -28,18 +28,18 @@ public interface ComponentElement <I, O, C extends DataAccessConf<I, O>>
 	extends ConfigurableFieldAccess<I, O, C>, AnnotatedElement<I, O, C>
 {
 	default MatrixComponent getComponent() {
-		return getField().getAnnotation(MatrixComponent.class);
+		return getMetadata().component();
 	}
 	
 	default MatrixComponentAdapter getComponentAdapter() {
-		return getField().getAnnotation(MatrixComponentAdapter.class);
+		return getMetadata().componentAdapter();
 	}
 	
 	default MatrixComponentField getComponentField() {
-		return getField().getAnnotation(MatrixComponentField.class);
+		return getMetadata().componentField();
 	}
 	
     default MatrixComponentPoint getComponentPoint() {
-		return getField().getAnnotation(MatrixComponentPoint.class);
+		return getMetadata().componentPoint();
     }
 }
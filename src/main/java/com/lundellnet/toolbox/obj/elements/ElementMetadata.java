@@ -0,0 +1,193 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.elements;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.lundellnet.toolbox.api.data_access.AnnotatedElementType;
+import com.lundellnet.toolbox.api.data_access.annotations.MatrixComponent;
+import com.lundellnet.toolbox.api.data_access.annotations.MatrixComponentAdapter;
+import com.lundellnet.toolbox.api.data_access.annotations.MatrixComponentField;
+import com.lundellnet.toolbox.api.data_access.annotations.MatrixComponentPoint;
+import com.lundellnet.toolbox.api.data_access.annotations.MatrixSource;
+import com.lundellnet.toolbox.api.data_access.annotations.PointLocation;
+import com.lundellnet.toolbox.api.data_access.annotations.PointMapping;
+import com.lundellnet.toolbox.api.data_access.annotations.PointMappings;
+
+/**
+ * Element annotations of a single field, resolved once and shared by every element bound to it.
+ * Descriptors are registered per declaring class through a {@link ClassValue}, so they are
+ * discarded together with that class and never pin its class loader. A field's annotations are
+ * only parsed when one of them is first requested.
+ */
+public final class ElementMetadata {
+	private static final ClassValue<Map<String, ElementMetadata>> REGISTRY =
+			new ClassValue<Map<String, ElementMetadata>>() {
+				@Override
+				protected Map<String, ElementMetadata> computeValue(Class<?> type) {
+					Map<String, ElementMetadata> fields = new HashMap<>();
+
+					for (Field f : type.getDeclaredFields()) {
+						fields.put(f.getName(), new ElementMetadata(f));
+					}
+
+					return Collections.unmodifiableMap(fields);
+				}
+			};
+
+	private static final class Annotations {
+		private final Annotation[] declared;
+		private final PointLocation location;
+		private final PointMapping mapping;
+		private final PointMapping[] mappings;
+		private final MatrixSource matrix;
+		private final MatrixComponent component;
+		private final MatrixComponentAdapter componentAdapter;
+		private final MatrixComponentField componentField;
+		private final MatrixComponentPoint componentPoint;
+
+		private Annotations(Annotation[] declared) {
+			PointMappings pointMappings = find(declared, PointMappings.class);
+
+			this.declared = declared;
+			this.location = find(declared, PointLocation.class);
+			this.mapping = find(declared, PointMapping.class);
+			this.mappings = (pointMappings == null) ? null : pointMappings.value();
+			this.matrix = find(declared, MatrixSource.class);
+			this.component = find(declared, MatrixComponent.class);
+			this.componentAdapter = find(declared, MatrixComponentAdapter.class);
+			this.componentField = find(declared, MatrixComponentField.class);
+			this.componentPoint = find(declared, MatrixComponentPoint.class);
+		}
+
+		private static <A extends Annotation> A find(Annotation[] declared, Class<A> type) {
+			for (Annotation a : declared) {
+				if (a.annotationType() == type) {
+					return type.cast(a);
+				}
+			}
+
+			return null;
+		}
+	}
+
+	private final String fieldName;
+	private final Field field;
+
+	private volatile Annotations annotations;
+	private volatile AnnotatedElementType[] associatedTypes;
+
+	private ElementMetadata(Field field) {
+		this.fieldName = field.getName();
+		this.field = field;
+	}
+
+	private ElementMetadata(String fieldName, Annotation[] declared) {
+		this.fieldName = fieldName;
+		this.field = null;
+		this.annotations = new Annotations(declared);
+	}
+
+	public static ElementMetadata of(Field field) {
+		ElementMetadata metadata = REGISTRY.get(field.getDeclaringClass()).get(field.getName());
+
+		if (metadata == null) {
+			throw new DataPointElementException("No metadata registered for " + field + ".");
+		}
+
+		return metadata;
+	}
+
+	/**
+	 * Returns metadata for a field whose annotations were resolved ahead of time, as emitted by
+	 * the binding processor. No reflection is performed, neither now nor on later access; the
+	 * given annotations are the field's element annotations and are not copied.
+	 */
+	public static ElementMetadata resolved(String fieldName, Annotation... declared) {
+		return new ElementMetadata(fieldName, declared);
+	}
+
+	public String fieldName() {
+		return fieldName;
+	}
+
+	public PointLocation location() {
+		return annotations().location;
+	}
+
+	public PointMapping mapping() {
+		return annotations().mapping;
+	}
+
+	/**
+	 * The returned array is shared between all callers and must not be modified.
+	 */
+	public PointMapping[] mappings() {
+		return annotations().mappings;
+	}
+
+	public MatrixSource matrix() {
+		return annotations().matrix;
+	}
+
+	public MatrixComponent component() {
+		return annotations().component;
+	}
+
+	public MatrixComponentAdapter componentAdapter() {
+		return annotations().componentAdapter;
+	}
+
+	public MatrixComponentField componentField() {
+		return annotations().componentField;
+	}
+
+	public MatrixComponentPoint componentPoint() {
+		return annotations().componentPoint;
+	}
+
+	public Stream<AnnotatedElementType> associatedTypes() {
+		AnnotatedElementType[] types = associatedTypes;
+
+		if (types == null) {
+			types = Arrays.stream(annotations().declared)
+				.map((a) -> AnnotatedElementType.fromValue(a.annotationType().getName().replace('$', '.')))
+				.toArray(AnnotatedElementType[]::new);
+			associatedTypes = types;
+		}
+
+		return Arrays.stream(types);
+	}
+
+	private Annotations annotations() {
+		Annotations a = annotations;
+
+		if (a == null) {
+			a = new Annotations(field.getDeclaredAnnotations());
+			annotations = a;
+		}
+
+		return a;
+	}
+}
@@ -25,7 +25,7 @@ public interface LocatableElement <I, O, C extends DataAccessConf<I, O>>
 		extends ConfigurableFieldAccess<I, O, C>, AnnotatedElement<I, O, C>
 {
 	default PointLocation getLocation() {
-		PointLocation loc = getField().getAnnotation(PointLocation.class);
+		PointLocation loc = getMetadata().location();
 		
 		if (loc == null) {
 			throw new DataPointElementException("No " + PointLocation.class.getName() + " associated with this Element.");
@@ -25,7 +25,7 @@ public interface MappedElement <I, O, C extends DataAccessConf<I, O>>
 	extends ConfigurableFieldAccess<I, O, C>, AnnotatedElement<I, O, C>
 {
     default PointMapping getMapping() {
-	PointMapping map = getField().getAnnotation(PointMapping.class);
+	PointMapping map = getMetadata().mapping();
 	
 	if (map == null) {
 		throw new DataPointElementException("No " + PointMapping.class.getName() + " associated with this Element.");
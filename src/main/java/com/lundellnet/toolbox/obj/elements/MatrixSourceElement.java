@@ -25,7 +25,7 @@ public interface MatrixSourceElement <I, O, C extends DataAccessConf<I, O>>
 	extends ConfigurableFieldAccess<I, O, C>, AnnotatedElement<I, O, C>
 {
     default MatrixSource getMatrix() {
-	MatrixSource source = getField().getAnnotation(MatrixSource.class);
+	MatrixSource source = getMetadata().matrix();
 	
 	if (source == null) {
 	    throw new DataPointElementException("No " + MatrixSource.class.getName() + " associated with this Element.");
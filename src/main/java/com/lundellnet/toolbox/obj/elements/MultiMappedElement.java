@@ -26,7 +26,7 @@ public interface MultiMappedElement <I, O, C extends DataAccessConf<I, O>>
 	extends ConfigurableFieldAccess<I, O, C>, AnnotatedElement<I, O, C>
 {
     default PointMapping[] getMapping() {
-	PointMapping[] map = getField().getAnnotation(PointMappings.class).value();
+	PointMapping[] map = getMetadata().mappings();
 	
 	if (map == null) {//TODO throw exception? maybe return null or have a property setting?
 	    throw new DataPointElementException(
@@ -0,0 +1,137 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.elements;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Base of the annotation instances the binding processor emits as constants. Member values are
+ * held by the subclass and passed here only to implement {@link #equals(Object)},
+ * {@link #hashCode()} and {@link #toString()} as specified by {@link Annotation}, so a resolved
+ * annotation is interchangeable with the one reflection returns for the same field.
+ */
+public abstract class ResolvedAnnotation
+		implements Annotation
+{
+	private final Class<? extends Annotation> type;
+	private final String[] names;
+	private final Object[] values;
+
+	protected ResolvedAnnotation(Class<? extends Annotation> type, String[] names, Object[] values) {
+		this.type = type;
+		this.names = names;
+		this.values = values;
+	}
+
+	@Override
+	public Class<? extends Annotation> annotationType() {
+		return type;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (!type.isInstance(o)) {
+			return false;
+		}
+
+		try {
+			for (int i = 0; i < names.length; i++) {
+				Method member = type.getMethod(names[i]);
+
+				member.setAccessible(true);
+
+				if (!Objects.deepEquals(values[i], member.invoke(o))) {
+					return false;
+				}
+			}
+		} catch (ReflectiveOperationException e) {
+			Throwable cause = (e instanceof InvocationTargetException) ? e.getCause() : e;
+
+			throw new DataPointElementException("Unable to compare " + type.getName() + " members.", cause);
+		}
+
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+
+		for (int i = 0; i < names.length; i++) {
+			hash += (127 * names[i].hashCode()) ^ memberHash(values[i]);
+		}
+
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("@").append(type.getName()).append('(');
+
+		for (int i = 0; i < names.length; i++) {
+			if (i > 0) {
+				s.append(", ");
+			}
+
+			String v = Arrays.deepToString(new Object[] { values[i] });
+
+			s.append(names[i]).append('=').append(v, 1, v.length() - 1);
+		}
+
+		return s.append(')').toString();
+	}
+
+	private static int memberHash(Object v) {
+		if (v instanceof Object[]) {
+			return Arrays.hashCode((Object[]) v);
+		}
+		if (v instanceof int[]) {
+			return Arrays.hashCode((int[]) v);
+		}
+		if (v instanceof long[]) {
+			return Arrays.hashCode((long[]) v);
+		}
+		if (v instanceof double[]) {
+			return Arrays.hashCode((double[]) v);
+		}
+		if (v instanceof float[]) {
+			return Arrays.hashCode((float[]) v);
+		}
+		if (v instanceof boolean[]) {
+			return Arrays.hashCode((boolean[]) v);
+		}
+		if (v instanceof byte[]) {
+			return Arrays.hashCode((byte[]) v);
+		}
+		if (v instanceof short[]) {
+			return Arrays.hashCode((short[]) v);
+		}
+		if (v instanceof char[]) {
+			return Arrays.hashCode((char[]) v);
+		}
+
+		return v.hashCode();
+	}
+}
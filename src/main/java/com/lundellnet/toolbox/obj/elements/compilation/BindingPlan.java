@@ -0,0 +1,179 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.elements.compilation;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.compilation.DataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.compilation.DoubleDataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.compilation.FieldHandles;
+import com.lundellnet.toolbox.obj.data_access.compilation.IntDataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.compilation.LongDataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+import com.lundellnet.toolbox.obj.elements.ElementMetadata;
+import com.lundellnet.toolbox.obj.elements.configs.ElementConf;
+
+/**
+ * Immutable, per result class list of field bindings, each carrying the field's resolved
+ * {@link ElementMetadata} and, once first used, its {@link FieldHandles}. Plans are built once per class, cached in a
+ * {@link ClassValue} and shared by every parser and collection created for that class, so binding
+ * a new parser does not reflect over the result class again.
+ */
+public final class BindingPlan <R> {
+	public static final class Binding {
+		private final int index;
+		private final Field field;
+		private final ElementMetadata metadata;
+		private volatile FieldHandles handles;
+
+		private Binding(int index, Field field) {
+			this.index = index;
+			this.field = field;
+			this.metadata = ElementMetadata.of(field);
+		}
+
+		public int index() {
+			return index;
+		}
+
+		public Field field() {
+			return field;
+		}
+
+		public ElementMetadata metadata() {
+			return metadata;
+		}
+
+		public FieldHandles handles() {
+			FieldHandles h = handles;
+
+			if (h == null) {
+				h = FieldHandles.of(field);
+				handles = h;
+			}
+
+			return h;
+		}
+
+		/**
+		 * Handle-backed data point over this binding's handles, reading and writing the object
+		 * {@code parentSupplier} returns.
+		 */
+		public <I, O> DataPoint<I, O> dataPoint(Supplier<?> parentSupplier) {
+			return DataPointBuilder.fromHandles(handles(), parentSupplier);
+		}
+
+		/**
+		 * Element configuration over {@link #dataPoint(Supplier)} holding this binding's metadata;
+		 * {@code int}, {@code long} and {@code double} fields get the matching primitive
+		 * configuration.
+		 */
+		@SuppressWarnings("unchecked")
+		public <I, O> ElementConf<I, O> conf(Supplier<?> parentSupplier) {
+			Class<?> type = field.getType();
+
+			if (type == int.class) {
+				return (ElementConf<I, O>) (ElementConf<?, ?>) ElementConf.ofInt(IntDataPointBuilder.fromHandles(handles(), parentSupplier), metadata);
+			} else if (type == long.class) {
+				return (ElementConf<I, O>) (ElementConf<?, ?>) ElementConf.ofLong(LongDataPointBuilder.fromHandles(handles(), parentSupplier), metadata);
+			} else if (type == double.class) {
+				return (ElementConf<I, O>) (ElementConf<?, ?>) ElementConf.ofDouble(DoubleDataPointBuilder.fromHandles(handles(), parentSupplier), metadata);
+			}
+
+			return ElementConf.of(dataPoint(parentSupplier), metadata);
+		}
+	}
+
+	private static final ClassValue<BindingPlan<?>> PLANS = new ClassValue<BindingPlan<?>>() {
+		@Override
+		protected BindingPlan<?> computeValue(Class<?> type) {
+			return new BindingPlan<>(type);
+		}
+	};
+
+	private final Class<R> resultClass;
+	private final Binding[] bindings;
+	private final List<Binding> bindingList;
+
+	private BindingPlan(Class<R> resultClass) {
+		List<Binding> resolved = new ArrayList<>();
+
+		for (Class<?> c = resultClass; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field f : c.getDeclaredFields()) {
+				if (!Modifier.isStatic(f.getModifiers()) && !f.isSynthetic()) {
+					resolved.add(new Binding(resolved.size(), f));
+				}
+			}
+		}
+
+		this.resultClass = resultClass;
+		this.bindings = resolved.toArray(new Binding[resolved.size()]);
+		this.bindingList = Collections.unmodifiableList(Arrays.asList(bindings));
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <R> BindingPlan<R> of(Class<R> resultClass) {
+		return (BindingPlan<R>) PLANS.get(resultClass);
+	}
+
+	public Class<R> resultClass() {
+		return resultClass;
+	}
+
+	public int size() {
+		return bindings.length;
+	}
+
+	public Binding binding(int index) {
+		return bindings[index];
+	}
+
+	public List<Binding> bindings() {
+		return bindingList;
+	}
+
+	/**
+	 * Builds one element per binding against the given parent, using {@code conf} to wrap each
+	 * binding in the element configuration the builder expects. Bindings for which {@code conf}
+	 * returns {@code null} are skipped.
+	 */
+	public <C extends DataAccessConf<?, ?>, E extends ConfigurableDataAccess<?>> List<E> elements(Supplier<?> parentSupplier,
+			BiFunction<Binding, Supplier<?>, C> conf, ElementBuilder<C, E> builder)
+	{
+		List<E> elements = new ArrayList<>(bindings.length);
+
+		for (Binding b : bindings) {
+			C c = conf.apply(b, parentSupplier);
+
+			if (c != null) {
+				elements.add(builder.build(c));
+			}
+		}
+
+		return elements;
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.elements.configs;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.DoubleDataPoint;
+import com.lundellnet.toolbox.obj.data_access.IntDataPoint;
+import com.lundellnet.toolbox.obj.data_access.LongDataPoint;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.DoubleDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.IntDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.LongDataAccessConf;
+import com.lundellnet.toolbox.obj.elements.ElementMetadata;
+
+/**
+ * Element configuration holding the {@link ElementMetadata} of its field, resolved when the
+ * configuration is built, so the element defaults read it from a field instead of looking it up
+ * on every call. A class rather than an interface, since a failed interface check on the
+ * configurations that are not one costs more than the lookup it saves.
+ */
+public abstract class ElementConf <I, O>
+		implements DataAccessConf<I, O>
+{
+	private final ElementMetadata metadata;
+
+	ElementConf(ElementMetadata metadata) {
+		this.metadata = metadata;
+	}
+
+	public final ElementMetadata metadata() {
+		return metadata;
+	}
+
+	public static <I, O> ElementConf<I, O> of(DataPoint<I, O> point) {
+		return of(point, ElementMetadata.of(point.field()));
+	}
+
+	public static <I, O> ElementConf<I, O> of(DataPoint<I, O> point, ElementMetadata metadata) {
+		return new Of<>(point, metadata);
+	}
+
+	public static OfInt ofInt(IntDataPoint point, ElementMetadata metadata) {
+		return new OfInt(point, metadata);
+	}
+
+	public static OfLong ofLong(LongDataPoint point, ElementMetadata metadata) {
+		return new OfLong(point, metadata);
+	}
+
+	public static OfDouble ofDouble(DoubleDataPoint point, ElementMetadata metadata) {
+		return new OfDouble(point, metadata);
+	}
+
+	private static final class Of <I, O>
+			extends ElementConf<I, O>
+	{
+		private final DataPoint<I, O> point;
+
+		Of(DataPoint<I, O> point, ElementMetadata metadata) {
+			super(metadata);
+			this.point = point;
+		}
+
+		@Override
+		public DataPoint<I, O> dataPoint() {
+			return point;
+		}
+	}
+
+	public static final class OfInt
+			extends ElementConf<Integer, Integer>
+			implements IntDataAccessConf
+	{
+		private final IntDataPoint point;
+
+		OfInt(IntDataPoint point, ElementMetadata metadata) {
+			super(metadata);
+			this.point = point;
+		}
+
+		@Override
+		public IntDataPoint dataPoint() {
+			return point;
+		}
+	}
+
+	public static final class OfLong
+			extends ElementConf<Long, Long>
+			implements LongDataAccessConf
+	{
+		private final LongDataPoint point;
+
+		OfLong(LongDataPoint point, ElementMetadata metadata) {
+			super(metadata);
+			this.point = point;
+		}
+
+		@Override
+		public LongDataPoint dataPoint() {
+			return point;
+		}
+	}
+
+	public static final class OfDouble
+			extends ElementConf<Double, Double>
+			implements DoubleDataAccessConf
+	{
+		private final DoubleDataPoint point;
+
+		OfDouble(DoubleDataPoint point, ElementMetadata metadata) {
+			super(metadata);
+			this.point = point;
+		}
+
+		@Override
+		public DoubleDataPoint dataPoint() {
+			return point;
+		}
+	}
+}
@@ -0,0 +1,286 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Parsers reading numbers, dates and enum constants directly from a {@link CharSequence}, such as
+ * a {@link TextRecord} field, without materializing it as a {@code String} first. The primitive
+ * variants suit the int, long and double data accesses; the functions suit converting data
+ * access and the converting data point builders. Surrounding blanks are ignored throughout.
+ */
+public final class CharSequenceConverters {
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final double[] POWERS_OF_TEN = new double[19];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private CharSequenceConverters() {}
+
+	public static int parseInt(CharSequence cs) {
+		long v = parseLong(cs);
+
+		if (v != (int) v) {
+			throw new NumberFormatException("Out of int range: " + cs);
+		}
+
+		return (int) v;
+	}
+
+	/**
+	 * Parses {@code [sign]digits}, accepting the full {@code long} range; values outside it are
+	 * rejected with a {@link NumberFormatException}.
+	 */
+	public static long parseLong(CharSequence cs) {
+		int i = skipBlanks(cs, 0);
+		int end = trimBlanks(cs, i);
+		boolean negative = false;
+		long v = 0;
+
+		if (i < end && (cs.charAt(i) == '-' || cs.charAt(i) == '+')) {
+			negative = cs.charAt(i++) == '-';
+		}
+
+		if (i == end) {
+			throw new NumberFormatException("Malformed number: \"" + cs + "\"");
+		}
+
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+
+		for (; i < end; i++) {
+			int d = cs.charAt(i) - '0';
+
+			if (d < 0 || d > 9) {
+				throw new NumberFormatException("Malformed number: \"" + cs + "\"");
+			}
+			if (v < limit / 10 || v * 10 < limit + d) {
+				throw new NumberFormatException("Out of long range: \"" + cs + "\"");
+			}
+
+			v = v * 10 - d;
+		}
+
+		return negative ? v : -v;
+	}
+
+	/**
+	 * Plain decimals are parsed in place and correctly rounded; anything longer or with an
+	 * exponent falls back to {@link Double#parseDouble(String)}.
+	 */
+	public static double parseDouble(CharSequence cs) {
+		int i = skipBlanks(cs, 0);
+		int end = trimBlanks(cs, i);
+		boolean negative = false;
+		boolean digits = false;
+		long mantissa = 0;
+		int scale = -1;
+
+		if (i < end && (cs.charAt(i) == '-' || cs.charAt(i) == '+')) {
+			negative = cs.charAt(i++) == '-';
+		}
+
+		for (; i < end; i++) {
+			char c = cs.charAt(i);
+
+			if (c == '.' && scale < 0) {
+				scale = 0;
+			} else if (c >= '0' && c <= '9' && mantissa < MAX_EXACT_MANTISSA / 10 && scale < 18) {
+				mantissa = mantissa * 10 + (c - '0');
+				scale += (scale < 0) ? 0 : 1;
+				digits = true;
+			} else {
+				return Double.parseDouble(cs.toString());
+			}
+		}
+
+		if (!digits) {
+			throw new NumberFormatException("Malformed number: \"" + cs + "\"");
+		}
+
+		double v = (scale <= 0) ? mantissa : mantissa / POWERS_OF_TEN[scale];
+
+		return negative ? -v : v;
+	}
+
+	/**
+	 * Parses {@code yyyy-MM-dd} in place.
+	 */
+	public static LocalDate parseIsoDate(CharSequence cs) {
+		int i = skipBlanks(cs, 0);
+
+		if (trimBlanks(cs, i) - i != 10 || cs.charAt(i + 4) != '-' || cs.charAt(i + 7) != '-') {
+			throw new NumberFormatException("Malformed date: \"" + cs + "\"");
+		}
+
+		return LocalDate.of(digits(cs, i, 4), digits(cs, i + 5, 2), digits(cs, i + 8, 2));
+	}
+
+	public static Function<CharSequence, Integer> toInteger() {
+		return CharSequenceConverters::parseInt;
+	}
+
+	public static Function<CharSequence, Long> toLong() {
+		return CharSequenceConverters::parseLong;
+	}
+
+	public static Function<CharSequence, Double> toDouble() {
+		return CharSequenceConverters::parseDouble;
+	}
+
+	public static Function<CharSequence, LocalDate> toIsoDate() {
+		return CharSequenceConverters::parseIsoDate;
+	}
+
+	/**
+	 * Dates in any other format go through the formatter, which reads the sequence directly.
+	 */
+	public static Function<CharSequence, LocalDate> toDate(DateTimeFormatter format) {
+		return (cs) -> LocalDate.parse(cs, format);
+	}
+
+	public static Function<CharSequence, LocalDateTime> toDateTime(DateTimeFormatter format) {
+		return (cs) -> LocalDateTime.parse(cs, format);
+	}
+
+	/**
+	 * Resolves constants by name through a hash table built once, comparing characters in place.
+	 */
+	public static <E extends Enum<E>> Function<CharSequence, E> toEnum(Class<E> enumClass) {
+		E[] constants = enumClass.getEnumConstants();
+		int[] hashes = new int[constants.length];
+		E[] byHash = constants.clone();
+
+		Arrays.sort(byHash, (a, b) -> Integer.compare(a.name().hashCode(), b.name().hashCode()));
+
+		for (int i = 0; i < byHash.length; i++) {
+			hashes[i] = byHash[i].name().hashCode();
+		}
+
+		return (cs) -> {
+			CharSequence name = trimmed(cs);
+			int hash = hash(name);
+			int i = Arrays.binarySearch(hashes, hash);
+
+			if (i >= 0) {
+				while (i > 0 && hashes[i - 1] == hash) {
+					i--;
+				}
+
+				for (; i < hashes.length && hashes[i] == hash; i++) {
+					if (equal(byHash[i].name(), name)) {
+						return byHash[i];
+					}
+				}
+			}
+
+			throw new IllegalArgumentException("No enum constant " + enumClass.getName() + "." + cs);
+		};
+	}
+
+	/**
+	 * Materializes the trimmed sequence, for fields that really are strings.
+	 */
+	public static Function<CharSequence, String> toStringValue() {
+		return (cs) -> trimmed(cs).toString();
+	}
+
+	private static CharSequence trimmed(CharSequence cs) {
+		int from = skipBlanks(cs, 0);
+		int to = trimBlanks(cs, from);
+
+		return (from == 0 && to == cs.length()) ? cs : cs.subSequence(from, to);
+	}
+
+	private static int hash(CharSequence cs) {
+		if (cs instanceof String) {
+			return cs.hashCode();
+		}
+		if (cs instanceof CharSequenceView) {
+			return ((CharSequenceView) cs).contentHash();
+		}
+
+		int h = 0;
+
+		for (int i = 0; i < cs.length(); i++) {
+			h = 31 * h + cs.charAt(i);
+		}
+
+		return h;
+	}
+
+	private static boolean equal(String s, CharSequence cs) {
+		if (s.length() != cs.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < s.length(); i++) {
+			if (s.charAt(i) != cs.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static int digits(CharSequence cs, int from, int count) {
+		int v = 0;
+
+		for (int i = from; i < from + count; i++) {
+			int d = cs.charAt(i) - '0';
+
+			if (d < 0 || d > 9) {
+				throw new NumberFormatException("Malformed date: \"" + cs + "\"");
+			}
+
+			v = v * 10 + d;
+		}
+
+		return v;
+	}
+
+	private static int skipBlanks(CharSequence cs, int i) {
+		int end = cs.length();
+
+		while (i < end && cs.charAt(i) == ' ') {
+			i++;
+		}
+
+		return i;
+	}
+
+	private static int trimBlanks(CharSequence cs, int from) {
+		int end = cs.length();
+
+		while (end > from && cs.charAt(end - 1) == ' ') {
+			end--;
+		}
+
+		return end;
+	}
+}
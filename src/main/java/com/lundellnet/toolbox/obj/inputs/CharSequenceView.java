@@ -0,0 +1,133 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import com.lundellnet.toolbox.obj.parsers.ReusedRecord;
+
+/**
+ * Reusable window onto part of another {@link CharSequence}. Repositioning a view costs nothing
+ * and copies nothing; only {@link #toString()} materializes a {@code String}. A view reflects its
+ * source, so it must not be retained once the source is reused.
+ *
+ * <p>{@code equals} and {@code hashCode} keep identity semantics: content equality cannot be
+ * symmetric with {@code String}, and a view's content changes whenever it is repositioned. To look
+ * a view up against {@code String} keys use {@link #contentHash()}, which matches
+ * {@link String#hashCode()} of the same characters, with {@link #contentEquals(CharSequence)}.
+ */
+public final class CharSequenceView
+		implements CharSequence, ReusedRecord
+{
+	private CharSequence source = "";
+	private int start;
+	private int end;
+
+	public CharSequenceView() {}
+
+	public CharSequenceView(CharSequence source, int start, int end) {
+		reset(source, start, end);
+	}
+
+	public CharSequenceView reset(CharSequence source, int start, int end) {
+		if (start < 0 || end < start || end > source.length()) {
+			throw new IndexOutOfBoundsException("[" + start + ", " + end + ") of " + source.length());
+		}
+
+		this.source = source;
+		this.start = start;
+		this.end = end;
+		return this;
+	}
+
+	/**
+	 * Narrows the view by dropping leading and trailing blanks.
+	 */
+	public CharSequenceView trim() {
+		while (start < end && source.charAt(start) == ' ') {
+			start++;
+		}
+		while (end > start && source.charAt(end - 1) == ' ') {
+			end--;
+		}
+
+		return this;
+	}
+
+	@Override
+	public int length() {
+		return end - start;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= end - start) {
+			throw new IndexOutOfBoundsException(Integer.toString(index));
+		}
+
+		return source.charAt(start + index);
+	}
+
+	/**
+	 * Returns a new, independent view of the same source.
+	 */
+	@Override
+	public CharSequenceView subSequence(int from, int to) {
+		if (from < 0 || to < from || to > end - start) {
+			throw new IndexOutOfBoundsException("[" + from + ", " + to + ") of " + (end - start));
+		}
+
+		return new CharSequenceView(source, start + from, start + to);
+	}
+
+	public boolean isEmpty() {
+		return start == end;
+	}
+
+	public boolean contentEquals(CharSequence cs) {
+		int length = end - start;
+
+		if (cs.length() != length) {
+			return false;
+		}
+
+		for (int i = 0; i < length; i++) {
+			if (cs.charAt(i) != source.charAt(start + i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * {@link String#hashCode()} of the characters currently in view.
+	 */
+	public int contentHash() {
+		int h = 0;
+
+		for (int i = start; i < end; i++) {
+			h = 31 * h + source.charAt(i);
+		}
+
+		return h;
+	}
+
+	@Override
+	public String toString() {
+		return source.subSequence(start, end).toString();
+	}
+}
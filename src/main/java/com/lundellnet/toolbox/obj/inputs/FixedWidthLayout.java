@@ -0,0 +1,194 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.lundellnet.toolbox.api.data_access.annotations.PointLocation;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableFieldAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConvertingDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.DoubleDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.IntDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.LongDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.StandardDataAccess;
+import com.lundellnet.toolbox.obj.elements.LocatableElement;
+
+/**
+ * Column layout of a fixed-width record, built once from a set of {@link LocatableElement}s. Every
+ * element's field is paired with the byte range its {@link PointLocation} describes and with a
+ * decoder chosen from its access type, so a record is written into elements without intermediate
+ * lines or, for numeric fields, strings:
+ * <ul>
+ * <li>{@link IntDataAccess}, {@link LongDataAccess} and {@link DoubleDataAccess} parse in place</li>
+ * <li>{@code String} typed {@link StandardDataAccess} and {@link ConvertingDataAccess}, which
+ * must take {@code String} input, receive the trimmed field text</li>
+ * </ul>
+ *
+ * <p>The elements a layout is built from only serve as templates: decoders are looked up by the
+ * field name of the element they are applied to, so one layout serves any number of parsers,
+ * sequential or parallel, through {@link #accepter()} or {@link #decode(Iterable, FixedWidthRecord)}.
+ * Elements must be of the same access type as the template for their field.
+ *
+ * <p>Byte ranges are read from the locations' {@code offset} and {@code length} members unless a
+ * {@link LocationResolver} is passed to translate them.
+ */
+public final class FixedWidthLayout {
+	/**
+	 * Translates a {@link PointLocation} into a byte range of the record.
+	 */
+	public interface LocationResolver {
+		/**
+		 * Reads the range from the {@code offset} and {@code length} members of the location.
+		 */
+		LocationResolver ANNOTATED = annotated("offset", "length");
+		
+		int offset(PointLocation location);
+		
+		int length(PointLocation location);
+		
+		/**
+		 * Resolver reading the range from the named {@code int} members of the location.
+		 */
+		static LocationResolver annotated(String offsetMember, String lengthMember) {
+			return new LocationResolver() {
+				@Override
+				public int offset(PointLocation location) {
+					return member(location, offsetMember);
+				}
+				
+				@Override
+				public int length(PointLocation location) {
+					return member(location, lengthMember);
+				}
+			};
+		}
+	}
+
+	@FunctionalInterface
+	private interface Decoder {
+		void decode(ConfigurableFieldAccess<?, ?, ?> element, FixedWidthRecord record);
+	}
+
+	private final Map<String, Decoder> decoders;
+	private final int recordLength;
+
+	private FixedWidthLayout(Map<String, Decoder> decoders, int recordLength) {
+		this.decoders = decoders;
+		this.recordLength = recordLength;
+	}
+
+	/**
+	 * Layout taking each field's range from its {@link PointLocation}, see
+	 * {@link LocationResolver#ANNOTATED}.
+	 */
+	public static FixedWidthLayout of(Iterable<? extends LocatableElement<?, ?, ?>> elements) {
+		return of(elements, LocationResolver.ANNOTATED);
+	}
+
+	public static FixedWidthLayout of(Iterable<? extends LocatableElement<?, ?, ?>> elements, LocationResolver resolver) {
+		Map<String, Decoder> decoders = new HashMap<>();
+		int recordLength = 0;
+
+		for (LocatableElement<?, ?, ?> e : elements) {
+			PointLocation location = e.getLocation();
+			int offset = resolver.offset(location);
+			int length = resolver.length(location);
+
+			if (decoders.put(e.getFieldName(), decoder(e, offset, length)) != null) {
+				throw new IllegalArgumentException("Field " + e.getFieldName() + " is laid out twice.");
+			}
+
+			recordLength = Math.max(recordLength, offset + length);
+		}
+
+		return new FixedWidthLayout(decoders, recordLength);
+	}
+
+	/**
+	 * The shortest record covering every located field.
+	 */
+	public int recordLength() {
+		return recordLength;
+	}
+
+	/**
+	 * Parser accepter writing the column laid out for the element's field into the element.
+	 */
+	public <E extends ConfigurableFieldAccess<?, ?, ?>> BiConsumer<E, FixedWidthRecord> accepter() {
+		return this::accept;
+	}
+
+	public void decode(Iterable<? extends ConfigurableFieldAccess<?, ?, ?>> elements, FixedWidthRecord record) {
+		for (ConfigurableFieldAccess<?, ?, ?> e : elements) {
+			accept(e, record);
+		}
+	}
+
+	private void accept(ConfigurableFieldAccess<?, ?, ?> element, FixedWidthRecord record) {
+		Decoder d = decoders.get(element.getFieldName());
+
+		if (d == null) {
+			throw new IllegalArgumentException("No fixed-width column for field " + element.getFieldName() + ".");
+		}
+
+		d.decode(element, record);
+	}
+
+	static int member(Annotation location, String name) {
+		Class<? extends Annotation> type = location.annotationType();
+		Object value;
+
+		try {
+			Method m = type.getMethod(name);
+
+			m.setAccessible(true);
+			value = m.invoke(location);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException("@" + type.getName() + " has no member " + name + ".", e);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Unable to read " + name + " of @" + type.getName() + ".", e);
+		}
+
+		if (!(value instanceof Integer)) {
+			throw new IllegalArgumentException("@" + type.getName() + "." + name + " is not an int.");
+		}
+
+		return (Integer) value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Decoder decoder(LocatableElement<?, ?, ?> e, int offset, int length) {
+		if (e instanceof IntDataAccess) {
+			return (a, r) -> ((IntDataAccess<?>) a).setInt(r.parseInt(offset, length));
+		} else if (e instanceof LongDataAccess) {
+			return (a, r) -> ((LongDataAccess<?>) a).setLong(r.parseLong(offset, length));
+		} else if (e instanceof DoubleDataAccess) {
+			return (a, r) -> ((DoubleDataAccess<?>) a).setDouble(r.parseDouble(offset, length));
+		} else if (e instanceof ConvertingDataAccess) {
+			return (a, r) -> ((ConvertingDataAccess<String, ?, ?>) a).set(r.string(offset, length));
+		} else if (e instanceof StandardDataAccess && e.getFieldType() == String.class) {
+			return (a, r) -> ((StandardDataAccess<String, ?>) a).set(r.string(offset, length));
+		}
+
+		throw new IllegalArgumentException("No fixed-width decoder for element of field " + e.getFieldName() + ".");
+	}
+}
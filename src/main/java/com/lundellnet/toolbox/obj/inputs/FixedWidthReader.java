@@ -0,0 +1,128 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.lundellnet.toolbox.obj.collections.DataElementCollection;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+import com.lundellnet.toolbox.obj.parsers.Parser;
+import com.lundellnet.toolbox.obj.parsers.compilation.ParserProvider;
+
+/**
+ * Memory-mapped input stage for files of fixed-length records, each optionally followed by a
+ * line separator of fixed length. The file is mapped read-only in segments of whole records, so
+ * files larger than a single mapping are supported, and records are handed out as
+ * {@link FixedWidthRecord} views over the mapped bytes without building lines.
+ *
+ * <p>Record streams split on record boundaries and can be parsed in parallel through
+ * {@link #parse(ParserProvider, boolean)}, which runs a partitioned collector from the provider.
+ */
+public final class FixedWidthReader
+		implements AutoCloseable
+{
+	private static final long MAX_SEGMENT = 1L << 30;
+	private static final long MIN_SPLIT = 1024;
+
+	private final FileChannel channel;
+	private final int recordLength;
+	private final int stride;
+	private final long records;
+	private final long recordsPerSegment;
+	private final ByteBuffer[] segments;
+
+	private FixedWidthReader(FileChannel channel, int recordLength, int separatorLength) throws IOException {
+		long size = channel.size();
+
+		this.channel = channel;
+		this.recordLength = recordLength;
+		this.stride = recordLength + separatorLength;
+		this.records = (size + separatorLength) / stride;
+		this.recordsPerSegment = Math.max(1, MAX_SEGMENT / stride);
+		this.segments = new ByteBuffer[(int) ((records + recordsPerSegment - 1) / recordsPerSegment)];
+
+		for (int s = 0; s < segments.length; s++) {
+			long from = s * recordsPerSegment * stride;
+			long length = Math.min(recordsPerSegment * stride, size - from);
+
+			segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+		}
+	}
+
+	/**
+	 * @param recordLength bytes per record, excluding the separator
+	 * @param separatorLength bytes following each record, e.g. 1 for {@code \n} and 2 for
+	 * {@code \r\n}; the last record may omit it
+	 */
+	public static FixedWidthReader open(Path path, int recordLength, int separatorLength) throws IOException {
+		if (recordLength < 1 || separatorLength < 0) {
+			throw new IllegalArgumentException("Invalid record layout: " + recordLength + " + " + separatorLength);
+		}
+
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+		try {
+			return new FixedWidthReader(channel, recordLength, separatorLength);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public long records() {
+		return records;
+	}
+
+	public int recordLength() {
+		return recordLength;
+	}
+
+	public Stream<FixedWidthRecord> records(boolean parallel) {
+		return StreamSupport.stream(new RecordSpliterator(this, 0, records, MIN_SPLIT), parallel);
+	}
+
+	/**
+	 * Feeds every record to parsers from {@code provider} and returns the combined result. In
+	 * parallel each worker thread parses whole chunks into its own parser, and the parsers are
+	 * combined once at the end.
+	 */
+	public <P extends Parser<FixedWidthRecord, C, E, R>, C extends DataElementCollection<R, E>, E extends ConfigurableDataAccess<?>, R>
+			R parse(ParserProvider<FixedWidthRecord, P, C, E, R> provider, boolean parallel)
+	{
+		return records(parallel).collect(provider.asCollector());
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	ByteBuffer segment(long record) {
+		return segments[(int) (record / recordsPerSegment)];
+	}
+
+	int offsetInSegment(long record) {
+		return (int) ((record % recordsPerSegment) * stride);
+	}
+}
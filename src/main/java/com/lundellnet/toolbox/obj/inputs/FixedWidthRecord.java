@@ -0,0 +1,229 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.lundellnet.toolbox.obj.parsers.ReusedRecord;
+
+/**
+ * Flyweight view of one record of a {@link FixedWidthReader}, decoding fields straight from the
+ * mapped bytes. A view is repositioned for every record, so neither it nor the buffer it exposes
+ * may be retained past the call it was handed to. Text is read as single-byte ASCII/ISO-8859-1;
+ * numeric fields may be padded with blanks on either side.
+ */
+public final class FixedWidthRecord
+		implements ReusedRecord
+{
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final long[] POWERS_OF_TEN = new long[19];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private ByteBuffer buffer;
+	private int base;
+	private int length;
+	private long index;
+
+	FixedWidthRecord() {}
+
+	FixedWidthRecord position(ByteBuffer buffer, int base, int length, long index) {
+		this.buffer = buffer;
+		this.base = base;
+		this.length = length;
+		this.index = index;
+		return this;
+	}
+
+	/**
+	 * Zero-based position of the record in the file.
+	 */
+	public long index() {
+		return index;
+	}
+
+	public int length() {
+		return length;
+	}
+
+	public byte byteAt(int offset) {
+		return buffer.get(base + offset);
+	}
+
+	/**
+	 * The mapped region holding this record, and other records; the record starts at
+	 * {@link #base()}. Absolute reads only.
+	 */
+	public ByteBuffer buffer() {
+		return buffer;
+	}
+
+	public int base() {
+		return base;
+	}
+
+	public boolean isBlank(int offset, int len) {
+		for (int i = base + offset, end = i + len; i < end; i++) {
+			if (buffer.get(i) != ' ') {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * The field with surrounding blanks removed; the only decoder that allocates.
+	 */
+	public String string(int offset, int len) {
+		int from = base + offset;
+		int to = from + len;
+
+		while (from < to && buffer.get(from) == ' ') {
+			from++;
+		}
+		while (to > from && buffer.get(to - 1) == ' ') {
+			to--;
+		}
+
+		byte[] bytes = new byte[to - from];
+
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(from + i);
+		}
+
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+
+	public int parseInt(int offset, int len) {
+		long v = parseLong(offset, len);
+
+		if (v != (int) v) {
+			throw new NumberFormatException("Out of int range at record " + index + ", offset " + offset + ": " + v);
+		}
+
+		return (int) v;
+	}
+
+	/**
+	 * Parses {@code [sign]digits}, accepting the full {@code long} range; values outside it are
+	 * rejected with a {@link NumberFormatException}.
+	 */
+	public long parseLong(int offset, int len) {
+		int i = skipBlanks(base + offset, base + offset + len);
+		int end = trimBlanks(i, base + offset + len);
+		boolean negative = false;
+		long v = 0;
+
+		if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+			negative = buffer.get(i++) == '-';
+		}
+
+		if (i == end) {
+			throw malformed(offset, len);
+		}
+
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+
+		for (; i < end; i++) {
+			int d = buffer.get(i) - '0';
+
+			if (d < 0 || d > 9) {
+				throw malformed(offset, len);
+			}
+			if (v < limit / 10 || v * 10 < limit + d) {
+				throw new NumberFormatException("Out of long range at record " + index + ", offset " + offset + ": \"" + string(offset, len) + "\"");
+			}
+
+			v = v * 10 - d;
+		}
+
+		return negative ? v : -v;
+	}
+
+	/**
+	 * Parses a plain decimal ({@code [sign]digits[.digits]}). The result is correctly rounded;
+	 * values with more than 15 significant digits or 18 decimals fall back to
+	 * {@link Double#parseDouble(String)}.
+	 */
+	public double parseDouble(int offset, int len) {
+		int i = skipBlanks(base + offset, base + offset + len);
+		int end = trimBlanks(i, base + offset + len);
+		boolean negative = false;
+		boolean digits = false;
+		long mantissa = 0;
+		int scale = -1;
+
+		if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+			negative = buffer.get(i++) == '-';
+		}
+
+		for (; i < end; i++) {
+			byte b = buffer.get(i);
+
+			if (b == '.' && scale < 0) {
+				scale = 0;
+			} else if (b >= '0' && b <= '9') {
+				if (mantissa >= MAX_EXACT_MANTISSA / 10 || scale >= 18) {
+					return Double.parseDouble(string(offset, len));
+				}
+
+				mantissa = mantissa * 10 + (b - '0');
+				scale += (scale < 0) ? 0 : 1;
+				digits = true;
+			} else {
+				throw malformed(offset, len);
+			}
+		}
+
+		if (!digits) {
+			throw malformed(offset, len);
+		}
+
+		double v = (scale <= 0) ? mantissa : mantissa / (double) POWERS_OF_TEN[scale];
+
+		return negative ? -v : v;
+	}
+
+	private int skipBlanks(int i, int end) {
+		while (i < end && buffer.get(i) == ' ') {
+			i++;
+		}
+
+		return i;
+	}
+
+	private int trimBlanks(int from, int end) {
+		while (end > from && buffer.get(end - 1) == ' ') {
+			end--;
+		}
+
+		return end;
+	}
+
+	private NumberFormatException malformed(int offset, int len) {
+		return new NumberFormatException("Malformed number at record " + index + ", offset " + offset + ": \"" + string(offset, len) + "\"");
+	}
+}
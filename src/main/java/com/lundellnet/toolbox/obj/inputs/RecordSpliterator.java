@@ -0,0 +1,96 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of record indices of a {@link FixedWidthReader}. Splits halve the
+ * range, so it is exactly sized at every level, and each spliterator repositions its own
+ * {@link FixedWidthRecord} for every record it hands out.
+ */
+final class RecordSpliterator
+		implements Spliterator<FixedWidthRecord>
+{
+	private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+
+	private final FixedWidthReader reader;
+	private final FixedWidthRecord record = new FixedWidthRecord();
+	private long next;
+	private final long end;
+	private final long minSplit;
+
+	RecordSpliterator(FixedWidthReader reader, long from, long to, long minSplit) {
+		this.reader = reader;
+		this.next = from;
+		this.end = to;
+		this.minSplit = minSplit;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super FixedWidthRecord> action) {
+		if (next >= end) {
+			return false;
+		}
+
+		action.accept(position(next++));
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super FixedWidthRecord> action) {
+		for (long i = next; i < end; i++) {
+			action.accept(position(i));
+		}
+
+		next = end;
+	}
+
+	@Override
+	public Spliterator<FixedWidthRecord> trySplit() {
+		long remaining = end - next;
+
+		if (remaining < 2 * minSplit) {
+			return null;
+		}
+
+		long mid = next + (remaining >>> 1);
+		Spliterator<FixedWidthRecord> prefix = new RecordSpliterator(reader, next, mid, minSplit);
+
+		next = mid;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return end - next;
+	}
+
+	@Override
+	public int characteristics() {
+		return CHARACTERISTICS;
+	}
+
+	private FixedWidthRecord position(long i) {
+		ByteBuffer segment = reader.segment(i);
+
+		return record.position(segment, reader.offsetInSegment(i), reader.recordLength(), i);
+	}
+}
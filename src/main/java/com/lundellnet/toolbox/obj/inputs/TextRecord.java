@@ -0,0 +1,120 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.util.Arrays;
+
+import com.lundellnet.toolbox.obj.parsers.ReusedRecord;
+
+/**
+ * Flyweight view of one delimited text record, meant to be the {@code T} of a
+ * {@link com.lundellnet.toolbox.obj.parsers.Parser Parser} in place of a line that accepters
+ * would otherwise {@code split} or {@code substring}. Resetting the record to the next line finds
+ * the field boundaries once; {@link #field(int)} then hands out a view per field index, reused
+ * across records, so a record costs no allocation once the widest record has been seen.
+ *
+ * <p>Views and the record itself are only valid until the next {@link #reset(CharSequence)}.
+ * Quoting is not interpreted.
+ */
+public final class TextRecord
+		implements ReusedRecord
+{
+	private final char delimiter;
+
+	private CharSequence line = "";
+	private int[] bounds = new int[16];
+	private int fields;
+	private CharSequenceView[] views = new CharSequenceView[0];
+	private long index = -1;
+
+	public TextRecord(char delimiter) {
+		this.delimiter = delimiter;
+	}
+
+	public TextRecord reset(CharSequence line) {
+		int length = line.length();
+		int n = 0;
+
+		bounds[n++] = -1;
+
+		for (int i = 0; i < length; i++) {
+			if (line.charAt(i) == delimiter) {
+				if (n == bounds.length) {
+					bounds = Arrays.copyOf(bounds, n * 2);
+				}
+
+				bounds[n++] = i;
+			}
+		}
+
+		if (n == bounds.length) {
+			bounds = Arrays.copyOf(bounds, n + 1);
+		}
+
+		bounds[n] = length;
+		this.line = line;
+		this.fields = n;
+		this.index++;
+		return this;
+	}
+
+	/**
+	 * Number of records this view has been reset to, minus one: the zero-based position of the
+	 * current record in its input.
+	 */
+	public long index() {
+		return index;
+	}
+
+	public CharSequence line() {
+		return line;
+	}
+
+	public int fields() {
+		return fields;
+	}
+
+	/**
+	 * The field at {@code i}, untrimmed. The returned view is owned by this record and is
+	 * repositioned on every call for the same index.
+	 */
+	public CharSequenceView field(int i) {
+		if (i < 0 || i >= fields) {
+			throw new IndexOutOfBoundsException("Field " + i + " of " + fields + " at record " + index);
+		}
+
+		if (i >= views.length) {
+			int grown = views.length;
+
+			views = Arrays.copyOf(views, Math.max(fields, i + 1));
+
+			for (; grown < views.length; grown++) {
+				views[grown] = new CharSequenceView();
+			}
+		}
+
+		return views[i].reset(line, bounds[i] + 1, bounds[i + 1]);
+	}
+
+	/**
+	 * Materializes field {@code i}, for fields that really are strings.
+	 */
+	public String string(int i) {
+		return field(i).toString();
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads lines from a {@link Reader} straight into a reused {@link TextRecord}, without creating a
+ * {@code String} per line. {@code \n} and {@code \r\n} both end a line. The record handed to each
+ * consumer is the same instance throughout and is only valid during the call; for the same reason
+ * {@link #records()} never splits, even when the stream is made parallel.
+ */
+public final class TextRecordReader
+		implements Closeable
+{
+	private final Reader in;
+	private final TextRecord record;
+	private final CharSequenceView line = new CharSequenceView();
+
+	private char[] buffer = new char[8192];
+	private CharBuffer chars = CharBuffer.wrap(buffer);
+	private int position;
+	private int limit;
+	private boolean eof;
+
+	public TextRecordReader(Reader in, char delimiter) {
+		this.in = in;
+		this.record = new TextRecord(delimiter);
+	}
+
+	/**
+	 * Advances to the next line and returns the record positioned on it, or {@code null} at the
+	 * end of input.
+	 */
+	public TextRecord next() throws IOException {
+		int scan = position;
+
+		while (true) {
+			for (; scan < limit; scan++) {
+				if (buffer[scan] == '\n') {
+					int end = (scan > position && buffer[scan - 1] == '\r') ? scan - 1 : scan;
+
+					record.reset(line.reset(chars, position, end));
+					position = scan + 1;
+					return record;
+				}
+			}
+
+			if (eof) {
+				if (position == limit) {
+					return null;
+				}
+
+				record.reset(line.reset(chars, position, limit));
+				position = limit;
+				return record;
+			}
+
+			scan -= position;
+			fill();
+		}
+	}
+
+	public Stream<TextRecord> records() {
+		return StreamSupport.stream(new Spliterators.AbstractSpliterator<TextRecord>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+			@Override
+			public boolean tryAdvance(Consumer<? super TextRecord> action) {
+				try {
+					TextRecord r = next();
+
+					if (r == null) {
+						return false;
+					}
+
+					action.accept(r);
+					return true;
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+
+			// The default batches elements into an array, but every element is the same record.
+			@Override
+			public Spliterator<TextRecord> trySplit() {
+				return null;
+			}
+		}, false);
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private void fill() throws IOException {
+		int pending = limit - position;
+
+		if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, pending);
+		} else if (pending == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			chars = CharBuffer.wrap(buffer);
+		}
+
+		position = 0;
+		limit = pending;
+
+		int n = in.read(buffer, limit, buffer.length - limit);
+
+		if (n < 0) {
+			eof = true;
+		} else {
+			limit += n;
+		}
+	}
+}
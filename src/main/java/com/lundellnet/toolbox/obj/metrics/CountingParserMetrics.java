@@ -0,0 +1,86 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+
+/**
+ * Thread-safe {@link ParserMetrics} keeping running counters and an accept latency histogram,
+ * read back through {@link #snapshot()}.
+ *
+ * <p>The counters are not padded from one another. An uncontended {@link LongAdder} only updates
+ * its base field, and once threads collide it spreads increments over its own cache-line padded
+ * cells, so false sharing between neighbouring adders is limited to the uncontended case.
+ */
+public class CountingParserMetrics
+		implements ParserMetrics
+{
+	private final LongAdder accepted = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder created = new LongAdder();
+	private final LongAdder merged = new LongAdder();
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	private volatile CollectionContainer<?, ?> watched;
+
+	public CountingParserMetrics watch(CollectionContainer<?, ?> container) {
+		this.watched = container;
+		return this;
+	}
+
+	@Override
+	public void accepted(long nanos) {
+		accepted.increment();
+		latency.record(nanos);
+	}
+
+	@Override
+	public void identified(boolean hit) {
+		(hit ? hits : misses).increment();
+	}
+
+	@Override
+	public void created() {
+		created.increment();
+	}
+
+	@Override
+	public void merged() {
+		merged.increment();
+	}
+
+	@Override
+	public boolean timed() {
+		return true;
+	}
+
+	public LatencyHistogram latency() {
+		return latency;
+	}
+
+	public MetricsSnapshot snapshot() {
+		CollectionContainer<?, ?> container = watched;
+
+		return new MetricsSnapshot(accepted.sum(), hits.sum(), misses.sum(), created.sum(), merged.sum(),
+				(container == null) ? -1 : container.size(),
+				latency.percentile(50), latency.percentile(99), latency.percentile(99.9), latency.max());
+	}
+}
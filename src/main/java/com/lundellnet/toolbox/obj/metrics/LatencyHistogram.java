@@ -0,0 +1,109 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Log-linear histogram of non-negative values, recorded lock-free. Values are bucketed with
+ * {@value #SUB_BUCKET_BITS} bits of precision below their leading bit, which bounds the relative
+ * error of reported percentiles to about 3%.
+ */
+public final class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder total = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+	public void record(long value) {
+		long v = Math.max(0, value);
+
+		counts.incrementAndGet(index(v));
+		total.increment();
+		max.accumulate(v);
+	}
+
+	public long count() {
+		return total.sum();
+	}
+
+	public long max() {
+		return max.get();
+	}
+
+	/**
+	 * Lower bound of the bucket holding the given percentile (0-100), or 0 when nothing was recorded.
+	 */
+	public long percentile(double percentile) {
+		long[] snapshot = new long[BUCKETS];
+		long recorded = 0;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			recorded += snapshot[i];
+		}
+
+		long rank = (long) Math.ceil(recorded * Math.min(100, Math.max(0, percentile)) / 100);
+		long seen = 0;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+
+			if (seen > 0 && seen >= rank) {
+				return lowerBound(i);
+			}
+		}
+
+		return 0;
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+
+		total.reset();
+		max.reset();
+	}
+
+	static int index(long v) {
+		if (v < SUB_BUCKETS) {
+			return (int) v;
+		}
+
+		int magnitude = 63 - Long.numberOfLeadingZeros(v);
+		int sub = (int) (v >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+		return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	static long lowerBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+
+		int magnitude = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+
+		return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (magnitude - SUB_BUCKET_BITS);
+	}
+}
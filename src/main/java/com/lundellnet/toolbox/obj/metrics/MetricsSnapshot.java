@@ -0,0 +1,97 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.metrics;
+
+public final class MetricsSnapshot {
+	private final long accepted;
+	private final long identifierHits;
+	private final long identifierMisses;
+	private final long created;
+	private final long merged;
+	private final long containerSize;
+	private final long latencyP50;
+	private final long latencyP99;
+	private final long latencyP999;
+	private final long latencyMax;
+
+	MetricsSnapshot(long accepted, long identifierHits, long identifierMisses, long created, long merged,
+			long containerSize, long latencyP50, long latencyP99, long latencyP999, long latencyMax)
+	{
+		this.accepted = accepted;
+		this.identifierHits = identifierHits;
+		this.identifierMisses = identifierMisses;
+		this.created = created;
+		this.merged = merged;
+		this.containerSize = containerSize;
+		this.latencyP50 = latencyP50;
+		this.latencyP99 = latencyP99;
+		this.latencyP999 = latencyP999;
+		this.latencyMax = latencyMax;
+	}
+
+	public long accepted() {
+		return accepted;
+	}
+
+	public long identifierHits() {
+		return identifierHits;
+	}
+
+	public long identifierMisses() {
+		return identifierMisses;
+	}
+
+	public long created() {
+		return created;
+	}
+
+	public long merged() {
+		return merged;
+	}
+
+	/**
+	 * Size of the watched container at snapshot time, or -1 when none is watched.
+	 */
+	public long containerSize() {
+		return containerSize;
+	}
+
+	public long latencyP50() {
+		return latencyP50;
+	}
+
+	public long latencyP99() {
+		return latencyP99;
+	}
+
+	public long latencyP999() {
+		return latencyP999;
+	}
+
+	public long latencyMax() {
+		return latencyMax;
+	}
+
+	@Override
+	public String toString() {
+		return "MetricsSnapshot[accepted=" + accepted + ", identifierHits=" + identifierHits
+				+ ", identifierMisses=" + identifierMisses + ", created=" + created + ", merged=" + merged
+				+ ", containerSize=" + containerSize + ", latencyP50=" + latencyP50 + ", latencyP99=" + latencyP99
+				+ ", latencyP999=" + latencyP999 + ", latencyMax=" + latencyMax + "]";
+	}
+}
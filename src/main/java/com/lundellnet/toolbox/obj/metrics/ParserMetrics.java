@@ -0,0 +1,41 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.metrics;
+
+/**
+ * Instrumentation callbacks raised by an instrumented parser. {@link #NONE} is the default; parser
+ * builders skip instrumentation entirely when given it, so it costs nothing on the hot path.
+ */
+public interface ParserMetrics {
+	static final ParserMetrics NONE = new ParserMetrics() {};
+
+	default void accepted(long nanos) {}
+
+	default void identified(boolean hit) {}
+
+	default void created() {}
+
+	/**
+	 * Raised when {@code Parser.merge} folds an element into one sharing its identity.
+	 */
+	default void merged() {}
+
+	default boolean timed() {
+		return false;
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import com.lundellnet.toolbox.obj.collections.DataElementCollection;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+
+/**
+ * Groups the records of one batch by key for {@link Parser#acceptBatch(java.util.List, ToLongFunction)}:
+ * the element of each key is resolved through the parser's identifier, or created through its
+ * element init, on the first record carrying that key and kept in an open-addressing table for
+ * the rest of the batch. Records are still accepted in batch order. When fewer than a quarter of
+ * the first {@value #SAMPLE} records repeat a key, grouping would cost more than it saves and the
+ * rest of the batch is resolved record by record, as {@code accept} would. Tables are kept per thread
+ * and only their used slots are cleared between batches, so a batch allocates nothing once its
+ * thread's table has grown to the batch's key count.
+ */
+final class KeyedBatch <T, C extends DataElementCollection<R, E>, E extends ConfigurableDataAccess<?>, R>
+		implements Consumer<T>, AutoCloseable
+{
+	private static final int MIN_CAPACITY = 64;
+	private static final int RETAINED_CAPACITY = 1 << 16;
+	/**
+	 * Records after which grouping is abandoned for the rest of the batch when fewer than a
+	 * quarter of them repeated a key.
+	 */
+	private static final int SAMPLE = 256;
+
+	private static final ThreadLocal<KeyedBatch<?, ?, ?, ?>> SCRATCH = new ThreadLocal<>();
+
+	private long[] keys = new long[MIN_CAPACITY];
+	private Object[] elements = new Object[MIN_CAPACITY];
+	private int[] used = new int[MIN_CAPACITY / 2 + 1];
+	private int size;
+	private int seen;
+	private boolean bypass;
+	private boolean open;
+
+	private C col;
+	private ToLongFunction<? super T> key;
+	private BiFunction<C, T, E> identify;
+	private BiFunction<C, T, E> init;
+	private BiConsumer<E, T> accept;
+
+	/**
+	 * Borrows the calling thread's table, or a fresh one when an accepter feeds a nested batch
+	 * on the same thread, sized for a batch of {@code expected} records.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T, C extends DataElementCollection<R, E>, E extends ConfigurableDataAccess<?>, R> KeyedBatch<T, C, E, R> open(
+			Parser<T, C, E, R> parser, ToLongFunction<? super T> key, long expected)
+	{
+		KeyedBatch<T, C, E, R> batch = (KeyedBatch<T, C, E, R>) SCRATCH.get();
+
+		if (batch == null || batch.open) {
+			batch = new KeyedBatch<>();
+
+			if (SCRATCH.get() == null) {
+				SCRATCH.set(batch);
+			}
+		}
+
+		batch.open = true;
+		batch.col = parser.collection();
+		batch.key = key;
+		batch.identify = parser.identifier();
+		batch.init = parser.elementInit();
+		batch.accept = parser.accepter();
+		batch.ensure(expected);
+
+		return batch;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void accept(T t) {
+		if (bypass) {
+			E found = identify.apply(col, t);
+
+			accept.accept((found != null) ? found : init.apply(col, t), t);
+			return;
+		}
+		if (++seen == SAMPLE && size > SAMPLE - SAMPLE / 4) {
+			bypass = true;
+		}
+
+		long k = key.applyAsLong(t);
+		int mask = keys.length - 1;
+		int slot = mix(k) & mask;
+		Object e;
+
+		while ((e = elements[slot]) != null) {
+			if (keys[slot] == k) {
+				accept.accept((E) e, t);
+				return;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		E found = identify.apply(col, t);
+		E created = (found != null) ? found : init.apply(col, t);
+
+		keys[slot] = k;
+		elements[slot] = created;
+		used[size] = slot;
+		accept.accept(created, t);
+
+		if (++size * 2 > keys.length) {
+			resize(keys.length * 2);
+		}
+	}
+
+	/**
+	 * Forgets the batch's elements and returns the table to its thread.
+	 */
+	@Override
+	public void close() {
+		if (keys.length > RETAINED_CAPACITY) {
+			allocate(MIN_CAPACITY);
+		} else {
+			for (int i = 0; i < size; i++) {
+				elements[used[i]] = null;
+			}
+		}
+
+		size = 0;
+		seen = 0;
+		bypass = false;
+		col = null;
+		key = null;
+		identify = null;
+		init = null;
+		accept = null;
+		open = false;
+	}
+
+	private void ensure(long expected) {
+		int wanted = (int) Math.min(expected, RETAINED_CAPACITY / 2) * 2;
+
+		if (wanted > keys.length) {
+			allocate(Integer.highestOneBit(wanted - 1) << 1);
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		elements = new Object[capacity];
+		used = new int[capacity / 2 + 1];
+	}
+
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldElements = elements;
+		int[] oldUsed = used;
+		int mask = capacity - 1;
+
+		allocate(capacity);
+
+		for (int i = 0; i < size; i++) {
+			int old = oldUsed[i];
+			int slot = mix(oldKeys[old]) & mask;
+
+			while (elements[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+
+			keys[slot] = oldKeys[old];
+			elements[slot] = oldElements[old];
+			used[i] = slot;
+		}
+	}
+
+	private static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+
+		return (int) (h ^ (h >>> 32));
+	}
+}
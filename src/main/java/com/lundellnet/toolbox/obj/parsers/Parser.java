@@ -17,10 +17,14 @@
  */
 package com.lundellnet.toolbox.obj.parsers;
 
+import java.util.List;
+import java.util.Spliterator;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 import com.lundellnet.toolbox.obj.collections.DataElementCollection;
 import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
@@ -40,7 +44,148 @@ public interface Parser <T, C extends DataElementCollection<R, E>, E extends Con
   
   void accept(T t);
   
+  /**
+   * Key grouping the records of a batch, or {@code null}, the default, when this parser's
+   * {@code accept} is not exactly {@link #identifier()}, falling back to {@link #elementInit()},
+   * followed by {@link #accepter()}. Records with equal keys must identify the same element.
+   * Parsers returning a key have every batch fed through the keyed {@code acceptBatch} variants.
+   */
+  default ToLongFunction<? super T> batchKey() {
+	  return null;
+  }
+  
+  /**
+   * Accepts every record of the batch, grouped by {@link #batchKey()} when this parser declares
+   * one and otherwise through {@link #accept(Object)}, so batch and per-record feeds behave the
+   * same.
+   */
+  default void acceptBatch(Spliterator<T> batch) {
+	  ToLongFunction<? super T> key = batchKey();
+	  
+	  if (key != null) {
+		  acceptBatch(batch, key);
+	  } else {
+		  batch.forEachRemaining(this::accept);
+	  }
+  }
+  
+  default void acceptBatch(List<T> batch) {
+	  ToLongFunction<? super T> key = batchKey();
+	  
+	  if (key != null) {
+		  acceptBatch(batch, key);
+	  } else {
+		  for (int i = 0, n = batch.size(); i < n; i++) {
+			  accept(batch.get(i));
+		  }
+	  }
+  }
+  
+  default void acceptBatch(T[] batch) {
+	  ToLongFunction<? super T> key = batchKey();
+	  
+	  if (key != null) {
+		  acceptBatch(batch, key);
+	  } else {
+		  for (T t : batch) {
+			  accept(t);
+		  }
+	  }
+  }
+  
+  /**
+   * Batch variant for parsers whose {@code accept} is exactly {@link #identifier()}, falling back
+   * to {@link #elementInit()}, followed by {@link #accepter()}. Records are grouped by
+   * {@code key} before their elements are resolved, so each distinct key is identified, or
+   * initialised, once per batch however the records are ordered; records are still accepted in
+   * batch order. A batch whose first records barely repeat a key is resolved record by record
+   * instead. Records with equal keys must identify the same element.
+   */
+  default void acceptBatch(List<T> batch, ToLongFunction<? super T> key) {
+	  try (KeyedBatch<T, C, E, R> groups = KeyedBatch.open(this, key, batch.size())) {
+		  for (int i = 0, n = batch.size(); i < n; i++) {
+			  groups.accept(batch.get(i));
+		  }
+	  }
+  }
+  
+  default void acceptBatch(T[] batch, ToLongFunction<? super T> key) {
+	  try (KeyedBatch<T, C, E, R> groups = KeyedBatch.open(this, key, batch.length)) {
+		  for (T t : batch) {
+			  groups.accept(t);
+		  }
+	  }
+  }
+  
+  default void acceptBatch(Spliterator<T> batch, ToLongFunction<? super T> key) {
+	  try (KeyedBatch<T, C, E, R> groups = KeyedBatch.open(this, key, batch.estimateSize())) {
+		  batch.forEachRemaining(groups);
+	  }
+  }
+  
   C combine(T t1, T t2);
   
+  /**
+   * Folds the elements of another parser's collection into this one. Elements sharing an
+   * identity with one already collected are combined through {@link #checker()}.
+   */
+  default void merge(Parser<T, C, ?, R> other) {
+	  if (other != this) {
+		  C col = collection();
+		  BinaryOperator<E> checker = checker();
+		  
+		  other.collection().elements().forEach((e) -> col.includeElement(e, checker));
+	  }
+  }
+  
+  /**
+   * Applies the finisher to the collection. Values held back by lazily converting data points are
+   * only in the result's fields once the collection is {@link DataElementCollection#flush() flushed},
+   * which {@link #snapshot()} and the parsing collectors do first; callers of {@code transform()}
+   * reading the result's fields directly flush the collection themselves.
+   */
   R transform();
+  
+  /**
+   * Hands a result obtained from this parser back to its collection for reuse. The caller must not
+   * touch the result afterwards.
+   */
+  default void release(R r) {
+	  collection().releaseData(r);
+  }
+  
+  /**
+   * Transforms everything accepted so far and clears the collection, so the next snapshot only
+   * reflects records accepted after this one. Fails before transforming when the collection does
+   * not {@link DataElementCollection#supportsClear() support clearing}.
+   */
+  default R snapshot() {
+	  C col = collection();
+	  
+	  if (!col.supportsClear()) {
+		  throw new UnsupportedOperationException(col.getClass().getName() + " cannot be cleared, so it cannot be snapshot.");
+	  }
+	  
+	  col.flush();
+	  
+	  R r = transform();
+	  
+	  col.clear();
+	  return r;
+  }
+  
+  default WindowedParser<T, C, E, R> windowed(long everyRecords, long everyMillis, Consumer<? super R> sink) {
+	  return new WindowedParser<>(this, everyRecords, everyMillis, sink);
+  }
+  
+  /**
+   * Runs this parser as a {@link PipelinedParser}. Only identification and acceptance are split
+   * into stages: {@link #elementInit()} runs on the identifying worker rather than in a stage of
+   * its own, and {@link #accept(Object)} is bypassed in favour of {@link #identifier()},
+   * {@link #elementInit()} and {@link #accepter()}, so overrides of it do not apply. Records must
+   * not be {@link ReusedRecord}s.
+   */
+  default PipelinedParser<T, C, E, R> pipelined(int acceptWorkers, int queueCapacity) {
+	  return new PipelinedParser<>(this, acceptWorkers, queueCapacity);
+  }
 }
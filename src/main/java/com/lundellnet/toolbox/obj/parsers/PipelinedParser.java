@@ -0,0 +1,449 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import com.lundellnet.toolbox.obj.collections.DataElementCollection;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+
+/**
+ * Runs a parser as a two stage pipeline: one worker resolves each record to its element through
+ * {@link Parser#identifier()}, falling back to {@link Parser#elementInit()} on the same worker,
+ * and hands the pair to one of {@code acceptWorkers} workers running {@link Parser#accepter()}.
+ * Every element is always routed to the same accept worker, so records of one element are
+ * accepted in feed order and never concurrently, while expensive conversions overlap with the
+ * identification of the records behind them. The accepter must only touch the element it is given, and the identifier
+ * and elementInit must not read element state the accepter writes. The parser's own
+ * {@link Parser#accept(Object)} is never called, so behaviour added by overriding it is lost.
+ *
+ * <p>Records travel between stages in chunks of {@value #CHUNK}, so a queue handoff is paid per
+ * chunk rather than per record; a chunk only leaves the feeding thread once it is full or on
+ * {@link #drain()}. Stages are linked by queues holding about {@code queueCapacity} records;
+ * {@link #accept(Object)} blocks while the first one is full, so a fast feed is held back to the
+ * pace of the slowest stage.
+ * {@link #drain()}, {@link #transform()} and {@link #snapshot()} wait for every record fed so far.
+ * Once a stage throws, the remaining records are skipped and every later call fails with the
+ * original exception as its cause. Feeding is not safe for concurrent use; the pipeline must be
+ * {@link #close() closed} to stop its workers.
+ *
+ * <p>Records are read by the workers long after {@link #accept(Object)} returns, so they must not
+ * change once fed. Records implementing {@link ReusedRecord}, such as the flyweights of the inputs
+ * package, are rejected; feed a copy of the fields the parser needs instead.
+ */
+public class PipelinedParser <T, C extends DataElementCollection<R, E>, E extends ConfigurableDataAccess<?>, R>
+		implements Consumer<T>, AutoCloseable
+{
+	static final int CHUNK = 256;
+
+	private static final Object STOP = new Object();
+	private static final long DRAIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final Parser<T, C, E, R> parser;
+	private final BlockingQueue<Object> identifyQueue;
+	private final BlockingQueue<Object>[] acceptQueues;
+	private final Thread[] workers;
+	private final Counters identifyCounters = new Counters();
+	private final Counters acceptCounters = new Counters();
+	private final AtomicLong completed = new AtomicLong();
+	private final long started = System.nanoTime();
+
+	private volatile Throwable failure;
+	private Object[] pending = new Object[CHUNK];
+	private int pendingCount;
+	private long submitted;
+	private boolean closed;
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public PipelinedParser(Parser<T, C, E, R> parser, int acceptWorkers, int queueCapacity) {
+		if (acceptWorkers < 1 || queueCapacity < 1) {
+			throw new IllegalArgumentException("Pipeline needs at least one accept worker and a queue capacity of at least one.");
+		}
+
+		int chunks = Math.max(1, queueCapacity / CHUNK);
+
+		this.parser = parser;
+		this.identifyQueue = new ArrayBlockingQueue<>(chunks);
+		this.acceptQueues = new BlockingQueue[acceptWorkers];
+		this.workers = new Thread[acceptWorkers + 1];
+
+		for (int i = 0; i < acceptWorkers; i++) {
+			BlockingQueue<Object> queue = new ArrayBlockingQueue<>(chunks);
+
+			acceptQueues[i] = queue;
+			workers[i + 1] = worker(() -> accept(queue), "pipelined-parser-accept-" + i);
+		}
+
+		workers[0] = worker(this::identify, "pipelined-parser-identify");
+
+		for (Thread worker : workers) {
+			worker.start();
+		}
+	}
+
+	public Parser<T, C, E, R> parser() {
+		return parser;
+	}
+
+	/**
+	 * Queues {@code t}, handing the current chunk on once it is full. {@link ReusedRecord}s are
+	 * rejected with an {@link IllegalArgumentException}.
+	 */
+	@Override
+	public void accept(T t) {
+		checkUsable();
+
+		if (t instanceof ReusedRecord) {
+			throw new IllegalArgumentException(t.getClass().getSimpleName() + " is reused by its reader and cannot be queued; feed a copy.");
+		}
+
+		pending[pendingCount++] = t;
+
+		if (pendingCount == CHUNK) {
+			dispatch();
+		}
+	}
+
+	/**
+	 * Waits until every record fed so far has been accepted.
+	 */
+	public void drain() {
+		checkUsable();
+
+		if (pendingCount > 0) {
+			dispatch();
+		}
+
+		while (completed.get() < submitted) {
+			LockSupport.parkNanos(DRAIN_PARK_NANOS);
+
+			if (Thread.interrupted()) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while draining the pipeline.");
+			}
+
+			checkUsable();
+		}
+	}
+
+	/**
+	 * Drains the pipeline and {@link DataElementCollection#flush() flushes} the collection before
+	 * transforming it.
+	 */
+	public R transform() {
+		drain();
+		parser.collection().flush();
+		return parser.transform();
+	}
+
+	public R snapshot() {
+		drain();
+		return parser.snapshot();
+	}
+
+	/**
+	 * Utilization of the identify and accept stages since the pipeline started.
+	 */
+	public List<Stage> stages() {
+		long elapsed = System.nanoTime() - started;
+		int queued = 0;
+
+		for (BlockingQueue<Object> queue : acceptQueues) {
+			queued += queue.size();
+		}
+
+		return Collections.unmodifiableList(Arrays.asList(
+				identifyCounters.snapshot("identify", 1, elapsed, identifyQueue.size()),
+				acceptCounters.snapshot("accept", acceptQueues.length, elapsed, queued)));
+	}
+
+	/**
+	 * Hands on the partial chunk, lets the workers finish every record fed and stops them. Does
+	 * not report a stage failure; call {@link #drain()} first for that.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+
+		try {
+			if (pendingCount > 0) {
+				enqueue();
+			}
+
+			identifyQueue.put(STOP);
+
+			for (Thread worker : workers) {
+				worker.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void dispatch() {
+		try {
+			enqueue();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while feeding the pipeline.", e);
+		}
+	}
+
+	private void enqueue() throws InterruptedException {
+		Object[] chunk = (pendingCount == CHUNK) ? pending : Arrays.copyOf(pending, pendingCount);
+
+		identifyQueue.put(chunk);
+		submitted += chunk.length;
+		pending = new Object[CHUNK];
+		pendingCount = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void identify() {
+		C col = parser.collection();
+		BiFunction<C, T, E> identify = parser.identifier();
+		BiFunction<C, T, E> init = parser.elementInit();
+		int lanes = acceptQueues.length;
+
+		try {
+			for (;;) {
+				Object next = identifyQueue.take();
+
+				if (next == STOP) {
+					for (BlockingQueue<Object> queue : acceptQueues) {
+						queue.put(STOP);
+					}
+
+					return;
+				}
+
+				Object[] chunk = (Object[]) next;
+
+				if (failure != null) {
+					completed.addAndGet(chunk.length);
+					continue;
+				}
+
+				Handoff[] out = new Handoff[lanes];
+				long start = System.nanoTime();
+				int done = 0;
+
+				try {
+					for (; done < chunk.length; done++) {
+						T t = (T) chunk[done];
+						E e = identify.apply(col, t);
+
+						if (e == null) {
+							e = init.apply(col, t);
+						}
+
+						int h = System.identityHashCode(e);
+						int lane = ((h ^ (h >>> 16)) & 0x7fffffff) % lanes;
+
+						if (out[lane] == null) {
+							out[lane] = new Handoff(chunk.length - done);
+						}
+
+						out[lane].add(e, t);
+					}
+				} catch (RuntimeException | Error ex) {
+					fail(ex);
+					completed.addAndGet(chunk.length - done);
+				} finally {
+					identifyCounters.record(done, System.nanoTime() - start);
+				}
+
+				for (int lane = 0; lane < lanes; lane++) {
+					if (out[lane] != null) {
+						acceptQueues[lane].put(out[lane]);
+					}
+				}
+			}
+		} catch (InterruptedException ex) {
+			fail(ex);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void accept(BlockingQueue<Object> queue) {
+		BiConsumer<E, T> accept = parser.accepter();
+
+		try {
+			for (;;) {
+				Object next = queue.take();
+
+				if (next == STOP) {
+					return;
+				}
+
+				Handoff h = (Handoff) next;
+
+				if (failure == null) {
+					long start = System.nanoTime();
+					int done = 0;
+
+					try {
+						for (; done < h.size; done++) {
+							accept.accept((E) h.pairs[2 * done], (T) h.pairs[2 * done + 1]);
+						}
+					} catch (RuntimeException | Error ex) {
+						fail(ex);
+					} finally {
+						acceptCounters.record(done, System.nanoTime() - start);
+					}
+				}
+
+				completed.addAndGet(h.size);
+			}
+		} catch (InterruptedException ex) {
+			fail(ex);
+		}
+	}
+
+	private synchronized void fail(Throwable t) {
+		if (failure == null) {
+			failure = t;
+		}
+	}
+
+	private void checkUsable() {
+		if (closed) {
+			throw new IllegalStateException("Pipeline is closed.");
+		}
+
+		Throwable t = failure;
+
+		if (t != null) {
+			throw new IllegalStateException("Pipeline stage failed.", t);
+		}
+	}
+
+	private static Thread worker(Runnable body, String name) {
+		Thread t = new Thread(body, name);
+
+		t.setDaemon(true);
+		return t;
+	}
+
+	private static final class Handoff {
+		final Object[] pairs;
+		int size;
+
+		Handoff(int capacity) {
+			this.pairs = new Object[2 * capacity];
+		}
+
+		void add(Object element, Object record) {
+			pairs[2 * size] = element;
+			pairs[2 * size + 1] = record;
+			size++;
+		}
+	}
+
+	private static final class Counters {
+		private final LongAdder processed = new LongAdder();
+		private final LongAdder busyNanos = new LongAdder();
+
+		void record(int records, long nanos) {
+			processed.add(records);
+			busyNanos.add(nanos);
+		}
+
+		Stage snapshot(String name, int workers, long elapsedNanos, int queued) {
+			return new Stage(name, workers, processed.sum(), busyNanos.sum(), elapsedNanos, queued);
+		}
+	}
+
+	/**
+	 * Point-in-time figures of one pipeline stage. Busy time excludes time spent waiting on the
+	 * stage's input queue or blocked on a full downstream queue.
+	 */
+	public static final class Stage {
+		private final String name;
+		private final int workers;
+		private final long processed;
+		private final long busyNanos;
+		private final long elapsedNanos;
+		private final int queued;
+
+		Stage(String name, int workers, long processed, long busyNanos, long elapsedNanos, int queued) {
+			this.name = name;
+			this.workers = workers;
+			this.processed = processed;
+			this.busyNanos = busyNanos;
+			this.elapsedNanos = elapsedNanos;
+			this.queued = queued;
+		}
+
+		public String name() {
+			return name;
+		}
+
+		public int workers() {
+			return workers;
+		}
+
+		public long processed() {
+			return processed;
+		}
+
+		public long busyNanos() {
+			return busyNanos;
+		}
+
+		public long elapsedNanos() {
+			return elapsedNanos;
+		}
+
+		/**
+		 * Records waiting in the stage's input queues.
+		 */
+		public int queued() {
+			return queued;
+		}
+
+		/**
+		 * Share of the stage's worker time spent busy, from 0 to 1. A stage close to 1 while the
+		 * others idle is the bottleneck.
+		 */
+		public double utilization() {
+			return (elapsedNanos > 0) ? Math.min(1, (double) busyNanos / ((double) elapsedNanos * workers)) : 0;
+		}
+
+		@Override
+		public String toString() {
+			return "Stage[name=" + name + ", workers=" + workers + ", processed=" + processed + ", busyNanos=" + busyNanos
+					+ ", elapsedNanos=" + elapsedNanos + ", queued=" + queued + ", utilization=" + utilization() + "]";
+		}
+	}
+}
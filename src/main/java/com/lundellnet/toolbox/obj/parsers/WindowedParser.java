@@ -0,0 +1,86 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.lundellnet.toolbox.obj.collections.DataElementCollection;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+
+/**
+ * Feeds an unbounded record source into a parser and hands a {@link Parser#snapshot() snapshot}
+ * to the sink after every {@code everyRecords} records, once {@code everyMillis} have passed since
+ * the previous snapshot, or when {@link #flush()} is called. A bound of zero or less disables that
+ * trigger. The time bound is checked on {@link #accept(Object)} and {@link #poll()}; callers
+ * with quiet feeds should schedule {@code poll()}. The parser's collection must support
+ * {@link DataElementCollection#supportsClear() clearing}. Not safe for concurrent use.
+ */
+public class WindowedParser <T, C extends DataElementCollection<R, E>, E extends ConfigurableDataAccess<?>, R>
+		implements Consumer<T>
+{
+	private final Parser<T, C, E, R> parser;
+	private final long everyRecords;
+	private final long everyNanos;
+	private final Consumer<? super R> sink;
+
+	private long pending;
+	private long windowStart;
+
+	public WindowedParser(Parser<T, C, E, R> parser, long everyRecords, long everyMillis, Consumer<? super R> sink) {
+		if (!parser.collection().supportsClear()) {
+			throw new IllegalArgumentException(parser.collection().getClass().getName() + " cannot be cleared between windows.");
+		}
+
+		this.parser = parser;
+		this.everyRecords = everyRecords;
+		this.everyNanos = TimeUnit.MILLISECONDS.toNanos(everyMillis);
+		this.sink = sink;
+		this.windowStart = System.nanoTime();
+	}
+
+	public Parser<T, C, E, R> parser() {
+		return parser;
+	}
+
+	@Override
+	public void accept(T t) {
+		parser.accept(t);
+		pending++;
+
+		if ((everyRecords > 0 && pending >= everyRecords) || expired()) {
+			flush();
+		}
+	}
+
+	public void poll() {
+		if (pending > 0 && expired()) {
+			flush();
+		}
+	}
+
+	public void flush() {
+		pending = 0;
+		windowStart = System.nanoTime();
+		sink.accept(parser.snapshot());
+	}
+
+	private boolean expired() {
+		return everyNanos > 0 && System.nanoTime() - windowStart >= everyNanos;
+	}
+}
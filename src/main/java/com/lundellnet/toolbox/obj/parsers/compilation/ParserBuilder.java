@@ -25,6 +25,7 @@ import java.util.function.Function;
 import com.lundellnet.toolbox.obj.collections.DataElementCollection;
 import com.lundellnet.toolbox.obj.collectors.ParsingCollector;
 import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+import com.lundellnet.toolbox.obj.metrics.ParserMetrics;
 import com.lundellnet.toolbox.obj.parsers.Parser;
 
 public interface ParserBuilder <T, P extends Parser<T, C, E, R>, C extends DataElementCollection<R, E>, E extends ConfigurableDataAccess<?>, R> {
@@ -61,4 +62,52 @@ public interface ParserBuilder <T, P extends Parser<T, C, E, R>, C extends DataE
 	    P p = compile(e, i, a);
 	    return () -> () -> p;
 	}
+	
+	default ParserBuilder<T, P, C, E, R> instrumented(ParserMetrics m) {
+	    if (m == ParserMetrics.NONE) {
+		return this;
+	    }
+	    
+	    return (e, i, a, c, f) -> compile(
+		    (col, t) -> {
+			E created = e.apply(col, t);
+			
+			m.created();
+			return created;
+		    },
+		    (col, t) -> {
+			E found = i.apply(col, t);
+			
+			m.identified(found != null);
+			return found;
+		    },
+		    (m.timed())
+			    ? (el, t) -> {
+				long start = System.nanoTime();
+				
+				a.accept(el, t);
+				m.accepted(System.nanoTime() - start);
+			    }
+			    : (el, t) -> {
+				a.accept(el, t);
+				m.accepted(0);
+			    },
+		    (e1, e2) -> {
+			m.merged();
+			return c.apply(e1, e2);
+		    },
+		    f);
+	}
+	
+	default ParserProvider<T, P, C, E, R> asProvider(BiFunction<C, T, E> e, BiFunction<C, T, E> i, BiConsumer<E, T> a, BinaryOperator<E> c, Function<C, R> f) {
+	    return () -> compile(e, i, a, c, f);
+	}
+	
+	default ParserProvider<T, P, C, E, R> asProvider(BiFunction<C, T, E> e, BiFunction<C, T, E> i, BiConsumer<E, T> a, BinaryOperator<E> c) {
+	    return () -> compile(e, i, a, c);
+	}
+	
+	default ParserProvider<T, P, C, E, R> asProvider(BiFunction<C, T, E> e, BiFunction<C, T, E> i, BiConsumer<E, T> a) {
+	    return () -> compile(e, i, a);
+	}
 }
@@ -18,9 +18,15 @@
 package com.lundellnet.toolbox.obj.parsers.compilation;
 
 import com.lundellnet.toolbox.obj.collections.DataElementCollection;
+import com.lundellnet.toolbox.obj.collectors.ParsingCollector;
+import com.lundellnet.toolbox.obj.collectors.PartitionedParsingCollector;
 import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
 import com.lundellnet.toolbox.obj.parsers.Parser;
 
 public interface ParserProvider <T, P extends Parser<T, C, E, R>, C extends DataElementCollection<R, E>, E extends ConfigurableDataAccess<?>, R> {
     P create();
+    
+    default ParsingCollector<T, P, C, R> asCollector() {
+	return (PartitionedParsingCollector<T, P, C, R>) () -> this::create;
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class ResultPoolTest
+	extends TestCase
+{
+	private static ResultPool<List<String>> pool(int capacity) {
+		return new ResultPool<>(ArrayList::new, List::clear, capacity);
+	}
+
+	public void testReleasedResultIsResetAndReused() {
+		ResultPool<List<String>> pool = pool(2);
+		List<String> first = pool.acquire();
+
+		first.add("a");
+		pool.release(first);
+
+		assertEquals(1, pool.idle());
+
+		List<String> second = pool.acquire();
+
+		assertSame(first, second);
+		assertTrue(second.isEmpty());
+		assertEquals(0, pool.idle());
+	}
+
+	public void testReleaseBeyondCapacityIsDropped() {
+		ResultPool<List<String>> pool = pool(1);
+
+		pool.release(pool.acquire());
+		pool.release(new ArrayList<>());
+
+		assertEquals(1, pool.idle());
+	}
+
+	public void testDoubleReleaseIsRejected() {
+		ResultPool<List<String>> pool = pool(4);
+		List<String> r = pool.acquire();
+
+		pool.release(r);
+
+		try {
+			pool.release(r);
+			fail("Second release of an idle result must be rejected.");
+		} catch (IllegalStateException expected) {
+		}
+
+		assertEquals(1, pool.idle());
+		assertSame(r, pool.acquire());
+		assertNotSame(r, pool.acquire());
+	}
+
+	public void testEqualButDistinctResultsAreNotDoubleReleases() {
+		ResultPool<List<String>> pool = pool(4);
+
+		pool.release(new ArrayList<>());
+		pool.release(new ArrayList<>());
+
+		assertEquals(2, pool.idle());
+	}
+
+	public void testNullReleaseIsIgnored() {
+		ResultPool<List<String>> pool = pool(1);
+
+		pool.release(null);
+
+		assertEquals(0, pool.idle());
+	}
+}
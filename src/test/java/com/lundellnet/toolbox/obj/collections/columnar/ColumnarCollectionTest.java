@@ -0,0 +1,168 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.collections.columnar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.api.data_access.annotations.MatrixComponentField;
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.compilation.DataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableFieldAccess;
+
+public class ColumnarCollectionTest
+	extends TestCase
+{
+	public static final class Quote {
+		@MatrixComponentField int quantity;
+		@MatrixComponentField long time;
+		@MatrixComponentField double price;
+		@MatrixComponentField String symbol;
+		String note;
+	}
+
+	private final Quote source = new Quote();
+	private ColumnarCollection<Quote> collection;
+
+	@Override
+	protected void setUp() {
+		collection = new ColumnarCollection<>(Quote.class, Quote::new);
+	}
+
+	private ConfigurableFieldAccess<?, ?, ?> element(String fieldName) throws Exception {
+		DataPoint<Object, Object> point = DataPointBuilder.handleBacked()
+				.build(Quote.class, () -> source, Quote.class.getDeclaredField(fieldName));
+		DataAccessConf<Object, Object> conf = () -> point;
+
+		return (ConfigurableFieldAccess<Object, Object, DataAccessConf<Object, Object>>) () -> conf;
+	}
+
+	private void include(ConfigurableFieldAccess<?, ?, ?>... elements) {
+		for (ConfigurableFieldAccess<?, ?, ?> e : elements) {
+			collection.includeElement(e);
+		}
+	}
+
+	public void testGetDataOnEmptyCollectionIsFreshRow() {
+		Quote q = collection.getData();
+
+		assertNotNull(q);
+		assertNull(q.symbol);
+		assertEquals(0, collection.rows());
+		assertNotSame(q, collection.getData());
+	}
+
+	public void testElementsOfEmptyCollectionIsEmpty() {
+		assertEquals(0, collection.elements().count());
+	}
+
+	public void testRepeatedColumnStartsNewRow() throws Exception {
+		ConfigurableFieldAccess<?, ?, ?> quantity = element("quantity");
+		ConfigurableFieldAccess<?, ?, ?> price = element("price");
+		ConfigurableFieldAccess<?, ?, ?> symbol = element("symbol");
+
+		for (int i = 0; i < 3; i++) {
+			source.quantity = i;
+			source.price = i + 0.5;
+			source.symbol = "S" + i;
+			include(quantity, price, symbol);
+		}
+
+		assertEquals(3, collection.rows());
+		assertEquals("[0, 1, 2]", collection.ints("quantity").boxed().collect(Collectors.toList()).toString());
+		assertEquals(2.5, collection.getData().price, 0);
+		assertEquals("S2", collection.getData().symbol);
+		assertEquals(0L, collection.getData().time);
+	}
+
+	public void testPartialRowsStartWhereColumnRepeats() throws Exception {
+		ConfigurableFieldAccess<?, ?, ?> quantity = element("quantity");
+		ConfigurableFieldAccess<?, ?, ?> time = element("time");
+
+		source.quantity = 1;
+		include(quantity);
+		source.time = 10;
+		include(time);
+		source.time = 20;
+		include(time);
+		source.quantity = 2;
+		include(quantity);
+
+		assertEquals(2, collection.rows());
+		assertEquals(1, collection.materialize(0).quantity);
+		assertEquals(10, collection.materialize(0).time);
+		assertEquals(2, collection.materialize(1).quantity);
+		assertEquals(20, collection.materialize(1).time);
+	}
+
+	public void testAppendStartsRowForFollowingElements() throws Exception {
+		ConfigurableFieldAccess<?, ?, ?> symbol = element("symbol");
+
+		source.symbol = "A";
+		include(symbol);
+		collection.append();
+		source.symbol = "B";
+		include(symbol);
+
+		assertEquals(2, collection.rows());
+		assertEquals("[A, B]", collection.objects("symbol").collect(Collectors.toList()).toString());
+	}
+
+	public void testUnmappedFieldIsIgnored() throws Exception {
+		source.note = "ignored";
+		include(element("note"));
+
+		assertEquals(0, collection.rows());
+	}
+
+	public void testClearRestartsRows() throws Exception {
+		ConfigurableFieldAccess<?, ?, ?> quantity = element("quantity");
+
+		source.quantity = 5;
+		include(quantity);
+		collection.clear();
+		source.quantity = 6;
+		include(quantity);
+
+		assertEquals(1, collection.rows());
+		assertEquals(6, collection.getData().quantity);
+	}
+
+	public void testCursorWalksRows() throws Exception {
+		ConfigurableFieldAccess<?, ?, ?> time = element("time");
+		List<Long> times = new ArrayList<>();
+
+		for (long t = 1; t <= 4; t++) {
+			source.time = t;
+			include(time);
+		}
+
+		RowCursor<Quote> cursor = collection.cursor();
+
+		while (cursor.next()) {
+			times.add(cursor.longCell("time").getLong());
+		}
+
+		assertEquals("[1, 2, 3, 4]", times.toString());
+		assertEquals(10, collection.longs("time").sum());
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_access.AppendingDataPoint;
+
+public class AppendingCollectingDataPointTest
+	extends TestCase
+{
+	static class Model {
+		private List<Integer> values;
+		private Map<String, Long> counts;
+	}
+
+	private final Model a = new Model();
+	private final Model b = new Model();
+
+	private Model current = a;
+
+	private final Supplier<Model> parent = () -> current;
+
+	private <O> AppendingDataPoint<Integer, O> values(Collector<Integer, ?, O> collector) throws Exception {
+		return AppendingDataPointBuilder.<Integer, O>handleBacked().build(Model.class, parent, Model.class.getDeclaredField("values"), collector);
+	}
+
+	public void testIdentityFinishPublishesContainer() throws Exception {
+		AppendingDataPoint<Integer, List<Integer>> values = values(Collectors.toList());
+
+		values.setter().accept(Stream.of(1, 2));
+		values.appender().accept(Stream.of(3));
+
+		assertEquals(Arrays.asList(1, 2, 3), a.values);
+		assertSame(a.values, values.getter().get());
+	}
+
+	public void testAppendDoesNotReachFinishedResult() throws Exception {
+		AppendingDataPoint<Integer, List<Integer>> values = values(
+				Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+
+		values.setter().accept(Stream.of(1, 2));
+
+		List<Integer> first = values.getter().get();
+
+		values.appender().accept(Stream.of(3));
+
+		assertEquals(Arrays.asList(1, 2), first);
+		assertEquals(Arrays.asList(1, 2), a.values);
+		assertEquals(Arrays.asList(1, 2, 3), values.getter().get());
+		assertEquals(Arrays.asList(1, 2, 3), a.values);
+	}
+
+	public void testInPlaceFinisherKeepsAccumulating() throws Exception {
+		AppendingDataPoint<String, Map<String, Long>> counts = AppendingDataPointBuilder.<String, Map<String, Long>>handleBacked().build(
+				Model.class, parent, Model.class.getDeclaredField("counts"), Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+		counts.setter().accept(Stream.of("x", "y", "x"));
+
+		assertEquals(map("x", 2L, "y", 1L), counts.getter().get());
+
+		counts.appender().accept(Stream.of("x"));
+
+		assertEquals(map("x", 3L, "y", 1L), counts.getter().get());
+	}
+
+	public void testParentSwitchWritesPendingResult() throws Exception {
+		AppendingDataPoint<Integer, List<Integer>> values = values(
+				Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+
+		values.setter().accept(Stream.of(1, 2));
+		current = b;
+		values.setter().accept(Stream.of(5));
+
+		assertEquals(Arrays.asList(1, 2), a.values);
+		assertEquals(Arrays.asList(5), values.getter().get());
+
+		values.appender().accept(Stream.of(6));
+		current = a;
+		values.appender().accept(Stream.of(3));
+
+		assertEquals(Arrays.asList(5, 6), b.values);
+		assertEquals(Arrays.asList(3), values.getter().get());
+	}
+
+	/**
+	 * Moving on to the next parent finishes the abandoned container itself; only a get that may be
+	 * followed by more appends pays for a copy.
+	 */
+	public void testParentSwitchFinishesWithoutCopy() throws Exception {
+		AtomicInteger combines = new AtomicInteger();
+		AppendingDataPoint<Integer, List<Integer>> values = values(Collector.<Integer, List<Integer>, List<Integer>>of(
+				ArrayList::new,
+				List::add,
+				(l, r) -> {
+					combines.incrementAndGet();
+					l.addAll(r);
+					return l;
+				},
+				Collections::unmodifiableList));
+
+		for (int i = 0; i < 10; i++) {
+			current = (i % 2 == 0) ? a : b;
+			values.setter().accept(Stream.of(i));
+			values.appender().accept(Stream.of(i + 100));
+		}
+
+		assertEquals(0, combines.get());
+		assertEquals(Arrays.asList(8, 108), a.values);
+
+		values.getter().get();
+
+		assertEquals(1, combines.get());
+		assertEquals(Arrays.asList(9, 109), b.values);
+	}
+
+	public void testFlushWritesPendingResult() throws Exception {
+		AppendingDataPoint<Integer, List<Integer>> values = values(
+				Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+
+		values.setter().accept(Stream.of(1, 2));
+
+		assertNull(a.values);
+
+		values.flush();
+
+		assertEquals(Arrays.asList(1, 2), a.values);
+
+		values.appender().accept(Stream.of(3));
+		values.flush();
+
+		assertEquals(Arrays.asList(1, 2, 3), a.values);
+	}
+
+	public void testParallelAppend() throws Exception {
+		AppendingDataPoint<Integer, List<Integer>> values = values(
+				Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+
+		values.setter().accept(Stream.of(1));
+		values.appender().accept(Stream.of(2, 3, 4, 5).parallel());
+
+		assertEquals(Arrays.asList(1, 2, 3, 4, 5), values.getter().get());
+	}
+
+	private static Map<String, Long> map(String k1, long v1, String k2, long v2) {
+		Map<String, Long> m = new HashMap<>();
+
+		m.put(k1, v1);
+		m.put(k2, v2);
+
+		return m;
+	}
+}
@@ -0,0 +1,212 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.annotation.ElementType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+
+public class CompactSetsTest
+	extends TestCase
+{
+	static class Model {
+		private Set<Integer> codes;
+		private Set<ElementType> kinds;
+		private Set<String> tags;
+		private Collection<Long> ids;
+		private HashSet<String> names;
+		private SortedSet<Integer> ranks;
+		private EnumSet<ElementType> targets;
+		private List<String> notes;
+	}
+
+	private final Model model = new Model();
+
+	public void testFactoryFollowsMemberType() throws Exception {
+		assertTrue(CompactSets.<Integer>factory(Model.class.getDeclaredField("codes")).get() instanceof SortedIntSet);
+		assertTrue(CompactSets.<ElementType>factory(Model.class.getDeclaredField("kinds")).get() instanceof EnumSet);
+		assertTrue(CompactSets.<String>factory(Model.class.getDeclaredField("tags")).get() instanceof SmallArraySet);
+		assertTrue(CompactSets.factory(Long.class).get() instanceof SortedLongSet);
+		assertTrue(CompactSets.<Long>factory(Model.class.getDeclaredField("ids")).get() instanceof SortedLongSet);
+	}
+
+	public void testFactoryKeepsDeclaredSetTypes() throws Exception {
+		assertEquals(LinkedHashSet.class, CompactSets.<String>factory(Model.class.getDeclaredField("names")).get().getClass());
+		assertEquals(TreeSet.class, CompactSets.<Integer>factory(Model.class.getDeclaredField("ranks")).get().getClass());
+		assertTrue(CompactSets.<ElementType>factory(Model.class.getDeclaredField("targets")).get() instanceof EnumSet);
+
+		try {
+			CompactSets.factory(Model.class.getDeclaredField("notes"));
+			fail();
+		} catch (DataPointCompilationException expected) {
+		}
+	}
+
+	public void testDeclaredSetTypesAcceptMembers() throws Exception {
+		Supplier<Model> parent = () -> model;
+		DataPoint<String, Set<String>> names = StandardSetDataPointBuilder.<String>handleBacked()
+				.build(Model.class, parent, Model.class.getDeclaredField("names"));
+		DataPoint<String, Set<Integer>> ranks = ConvertingSetDataPointBuilder.<String, Integer>handleBacked()
+				.build(Model.class, parent, Model.class.getDeclaredField("ranks"), Integer::valueOf);
+		DataPoint<String, Set<ElementType>> targets = ConvertingSetDataPointBuilder.<String, ElementType>lazy()
+				.build(Model.class, parent, Model.class.getDeclaredField("targets"), ElementType::valueOf);
+
+		names.setter().accept("b");
+		names.setter().accept(null);
+		names.setter().accept("a");
+		ranks.setter().accept("3");
+		ranks.setter().accept("1");
+		targets.setter().accept("METHOD");
+		targets.setter().accept("FIELD");
+
+		assertEquals(Arrays.asList("b", null, "a"), new ArrayList<>(model.names));
+		assertEquals(Arrays.asList(1, 3), new ArrayList<>(model.ranks));
+		assertEquals(EnumSet.of(ElementType.FIELD, ElementType.METHOD), targets.getter().get());
+	}
+
+	public void testStandardSetBuilderUsesCompactSets() throws Exception {
+		DataPoint<Long, Set<Long>> ids = StandardSetDataPointBuilder.<Long>handleBacked()
+				.build(Model.class, () -> model, Model.class.getDeclaredField("ids"));
+
+		ids.setter().accept(9L);
+		ids.setter().accept(2L);
+
+		assertTrue(model.ids instanceof SortedLongSet);
+		assertEquals(Arrays.asList(2L, 9L), new ArrayList<>(ids.getter().get()));
+	}
+
+	public void testSortedSetsMatchTreeSet() {
+		Random random = new Random(7);
+		Set<Integer> ints = new SortedIntSet();
+		Set<Long> longs = new SortedLongSet();
+		TreeSet<Integer> expectedInts = new TreeSet<>();
+		TreeSet<Long> expectedLongs = new TreeSet<>();
+
+		for (int i = 0; i < 2_000; i++) {
+			int v = random.nextInt(200) - 100;
+			long l = v * 1_000_000_007L;
+
+			if (random.nextInt(3) == 0) {
+				assertEquals(expectedInts.remove(v), ints.remove(v));
+				assertEquals(expectedLongs.remove(l), longs.remove(l));
+			} else {
+				assertEquals(expectedInts.add(v), ints.add(v));
+				assertEquals(expectedLongs.add(l), longs.add(l));
+			}
+		}
+
+		assertEquals(new ArrayList<>(expectedInts), new ArrayList<>(ints));
+		assertEquals(new ArrayList<>(expectedLongs), new ArrayList<>(longs));
+		assertFalse(ints.contains(1L));
+		assertFalse(ints.contains(null));
+		assertFalse(longs.contains(null));
+	}
+
+	public void testIteratorRemove() {
+		Set<Integer> ints = new SortedIntSet();
+
+		ints.addAll(Arrays.asList(5, 1, 3, 2, 4));
+
+		for (Iterator<Integer> i = ints.iterator(); i.hasNext();) {
+			if (i.next() % 2 == 0) {
+				i.remove();
+			}
+		}
+
+		assertEquals(Arrays.asList(1, 3, 5), new ArrayList<>(ints));
+	}
+
+	public void testSmallArraySetInflates() {
+		Set<String> tags = new SmallArraySet<>();
+		Set<String> expected = new HashSet<>();
+
+		for (int i = 0; i < 20; i++) {
+			assertEquals(expected.add("t" + (i % 12)), tags.add("t" + (i % 12)));
+		}
+
+		assertEquals(expected, tags);
+		assertTrue(tags.add(null));
+		assertTrue(tags.contains(null));
+	}
+
+	public void testNullRejectedByDirectAdd() {
+		try {
+			new SortedIntSet().add(null);
+			fail();
+		} catch (NullPointerException expected) {
+		}
+
+		try {
+			new SortedLongSet().add(null);
+			fail();
+		} catch (NullPointerException expected) {
+		}
+
+		try {
+			EnumSet.noneOf(ElementType.class).add(null);
+			fail();
+		} catch (NullPointerException expected) {
+		}
+	}
+
+	public void testNullMemberFallsBackToInlineSet() throws Exception {
+		Supplier<Model> parent = () -> model;
+		DataPoint<String, Set<Integer>> codes = ConvertingSetDataPointBuilder.<String, Integer>handleBacked()
+				.build(Model.class, parent, Model.class.getDeclaredField("codes"), (s) -> s.isEmpty() ? null : Integer.valueOf(s));
+
+		codes.setter().accept("3");
+		codes.setter().accept("1");
+
+		assertTrue(model.codes instanceof SortedIntSet);
+
+		codes.setter().accept("");
+
+		assertTrue(model.codes instanceof SmallArraySet);
+		assertEquals(new HashSet<>(Arrays.asList(1, 3, null)), codes.getter().get());
+	}
+
+	public void testLazyNullMemberFallsBackToInlineSet() throws Exception {
+		Supplier<Model> parent = () -> model;
+		DataPoint<String, Set<ElementType>> kinds = ConvertingSetDataPointBuilder.<String, ElementType>lazy()
+				.build(Model.class, parent, Model.class.getDeclaredField("kinds"), (s) -> s.isEmpty() ? null : ElementType.valueOf(s));
+
+		kinds.setter().accept("FIELD");
+		kinds.setter().accept("");
+		kinds.setter().accept("METHOD");
+
+		List<ElementType> members = new ArrayList<>(kinds.getter().get());
+
+		assertEquals(3, members.size());
+		assertTrue(members.containsAll(Arrays.asList(ElementType.FIELD, null, ElementType.METHOD)));
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import junit.framework.TestCase;
+
+public class ConverterCacheTest
+	extends TestCase
+{
+	private final AtomicInteger conversions = new AtomicInteger();
+	private final Function<String, Integer> parse = (s) -> {
+		conversions.incrementAndGet();
+		return (s == null || s.isEmpty()) ? null : Integer.valueOf(s);
+	};
+
+	public void testRepeatedInputIsConvertedOnce() {
+		ConverterCache<String, Integer> cache = ConverterCache.lru(parse, 4);
+
+		assertEquals(7, cache.apply("7").intValue());
+		assertEquals(7, cache.apply("7").intValue());
+		assertEquals(7, cache.apply("7").intValue());
+
+		assertEquals(1, conversions.get());
+		assertEquals(2, cache.hits());
+		assertEquals(1, cache.misses());
+		assertEquals(2.0 / 3, cache.hitRate(), 1e-9);
+		assertEquals(1, cache.size());
+	}
+
+	public void testNullInputsAndResultsAreNotCached() {
+		ConverterCache<String, Integer> cache = ConverterCache.lru(parse, 4);
+
+		assertNull(cache.apply(null));
+		assertNull(cache.apply(null));
+		assertNull(cache.apply(""));
+		assertNull(cache.apply(""));
+
+		assertEquals(4, conversions.get());
+		assertEquals(0, cache.size());
+		assertEquals(0.0, cache.hitRate(), 0);
+	}
+
+	public void testLruEvictsLeastRecentlyUsed() {
+		ConverterCache<String, Integer> cache = ConverterCache.lru(parse, 2);
+
+		cache.apply("1");
+		cache.apply("2");
+		cache.apply("1");
+		cache.apply("3");
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.evictions());
+
+		conversions.set(0);
+		cache.apply("1");
+		cache.apply("3");
+
+		assertEquals(0, conversions.get());
+
+		cache.apply("2");
+
+		assertEquals(1, conversions.get());
+	}
+
+	/**
+	 * Four hot keys interleaved with a stream of one-off inputs: plain LRU lets the one-offs push
+	 * the hot keys out, the admission filter does not.
+	 */
+	public void testTinyLfuKeepsFrequentEntriesAmongOneOffs() {
+		ConverterCache<String, Integer> lru = ConverterCache.lru(parse, 4);
+		ConverterCache<String, Integer> tinyLfu = ConverterCache.tinyLfu(parse, 4);
+
+		for (int round = 0; round < 200; round++) {
+			for (int hot = 0; hot < 4; hot++) {
+				lru.apply(Integer.toString(hot));
+				tinyLfu.apply(Integer.toString(hot));
+			}
+
+			lru.apply(Integer.toString(1000 + round));
+			tinyLfu.apply(Integer.toString(1000 + round));
+		}
+
+		assertTrue(tinyLfu.hits() > 700);
+		assertTrue(tinyLfu.hits() > lru.hits());
+
+		conversions.set(0);
+
+		for (int hot = 0; hot < 4; hot++) {
+			tinyLfu.apply(Integer.toString(hot));
+		}
+
+		assertEquals(0, conversions.get());
+	}
+
+	/**
+	 * Hits reach the policy in batches as the buffers fill, and whatever is still buffered is
+	 * replayed before a miss is handled.
+	 */
+	public void testHitsReachPolicyInBatches() {
+		List<String> accessed = new ArrayList<>();
+		ConverterCache<String, Integer> cache = new ConverterCache<>(parse, 4, new LruPolicy<String>() {
+			@Override
+			public void accessed(String key) {
+				super.accessed(key);
+				accessed.add(key);
+			}
+		});
+
+		cache.apply("1");
+
+		for (int i = 0; i < 100; i++) {
+			cache.apply("1");
+		}
+
+		assertTrue(accessed.size() > 1);
+		assertTrue(accessed.size() < 101);
+
+		cache.apply("2");
+
+		assertEquals(102, accessed.size());
+		assertEquals("2", accessed.get(101));
+	}
+
+	public void testConcurrentUseStaysWithinCapacity() throws Exception {
+		ConverterCache<String, Integer> cache = ConverterCache.lru(parse, 8);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+
+			for (int t = 0; t < 4; t++) {
+				int seed = t;
+
+				results.add(pool.submit(() -> {
+					boolean correct = true;
+
+					for (int i = 0; i < 20_000; i++) {
+						int v = (i * 31 + seed) % 16;
+
+						correct &= cache.apply(Integer.toString(v)) == v;
+						correct &= cache.size() <= 8;
+					}
+
+					return correct;
+				}));
+			}
+
+			for (Future<Boolean> r : results) {
+				assertTrue(r.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(80_000, cache.hits() + cache.misses());
+	}
+
+	public void testCapacityMustBePositive() {
+		try {
+			ConverterCache.lru(parse, 0);
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+}
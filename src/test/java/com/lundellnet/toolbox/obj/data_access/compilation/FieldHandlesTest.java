@@ -0,0 +1,123 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Field;
+
+import junit.framework.TestCase;
+
+public class FieldHandlesTest
+	extends TestCase
+{
+	static class Model {
+		private String name;
+		private int count;
+		private String label;
+		private long total;
+		private double ratio;
+		private static int shared;
+	}
+
+	public void testReadsAndWritesPrivateFields() throws Exception {
+		Model m = new Model();
+		FieldHandles name = FieldHandles.of(Model.class.getDeclaredField("name"));
+		FieldHandles count = FieldHandles.of(Model.class.getDeclaredField("count"));
+
+		name.set(m, "a");
+		count.setInt(m, 3);
+
+		assertEquals("a", name.get(m));
+		assertEquals(3, count.getInt(m));
+		assertEquals(3, count.get(m));
+	}
+
+	public void testLeavesCallerFieldInaccessible() throws Exception {
+		Field field = Model.class.getDeclaredField("label");
+
+		FieldHandles.of(field);
+
+		assertFalse(field.isAccessible());
+	}
+
+	public void testSharesHandlesPerField() throws Exception {
+		assertSame(FieldHandles.of(Model.class.getDeclaredField("count")),
+				FieldHandles.of(Model.class.getDeclaredField("count")));
+	}
+
+	public void testRejectsPrimitiveAccessOnObjectField() throws Exception {
+		try {
+			FieldHandles.of(Model.class.getDeclaredField("name")).getInt(new Model());
+			fail();
+		} catch (DataPointCompilationException expected) {
+		}
+	}
+
+	public void testAccessorIsSpunPerField() throws Exception {
+		Field accessor = FieldHandles.class.getDeclaredField("accessor");
+
+		accessor.setAccessible(true);
+
+		Object count = accessor.get(FieldHandles.of(Model.class.getDeclaredField("count")));
+		Object total = accessor.get(FieldHandles.of(Model.class.getDeclaredField("total")));
+
+		assertTrue(count.getClass().getName(), count.getClass().getName().contains(".spun."));
+		assertNotSame(count.getClass(), total.getClass());
+		assertNotSame(FieldHandles.class.getClassLoader(), count.getClass().getClassLoader());
+	}
+
+	public void testPrimitiveAccessByType() throws Exception {
+		Model m = new Model();
+		FieldHandles total = FieldHandles.of(Model.class.getDeclaredField("total"));
+		FieldHandles ratio = FieldHandles.of(Model.class.getDeclaredField("ratio"));
+
+		total.setLong(m, Long.MIN_VALUE);
+		ratio.setDouble(m, 0.25);
+		ratio.setBoxed(m, ratio.getDouble(m) * 2);
+
+		assertEquals(Long.MIN_VALUE, total.getLong(m));
+		assertEquals(Long.MIN_VALUE, m.total);
+		assertEquals(0.5, m.ratio, 0);
+		assertEquals(0.5, ratio.get(m));
+
+		total.set(m, 7L);
+		assertEquals(7, m.total);
+
+		try {
+			total.getInt(m);
+			fail();
+		} catch (DataPointCompilationException expected) {
+		}
+	}
+
+	public void testStaticFieldIgnoresParent() throws Exception {
+		FieldHandles shared = FieldHandles.of(Model.class.getDeclaredField("shared"));
+
+		shared.setInt(null, 11);
+
+		assertEquals(11, Model.shared);
+		assertEquals(11, shared.getInt(new Model()));
+	}
+
+	public void testWrongParentFailsWithClassCast() throws Exception {
+		try {
+			FieldHandles.of(Model.class.getDeclaredField("count")).getInt("not a model");
+			fail();
+		} catch (ClassCastException expected) {
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+
+public class LazyConvertingDataPointTest
+	extends TestCase
+{
+	static class Model {
+		private Integer amount;
+		private int count;
+		private Set<Integer> codes;
+	}
+
+	private final Model a = new Model();
+	private final Model b = new Model();
+
+	private Model current;
+	private int conversions;
+
+	private final Supplier<Model> parent = () -> current;
+	private final Function<String, Integer> parse = (s) -> {
+		conversions++;
+		return Integer.valueOf(s);
+	};
+
+	private DataPoint<String, Integer> point(String name) throws NoSuchFieldException {
+		Field field = Model.class.getDeclaredField(name);
+
+		return ConvertingObjectDataPointBuilder.<String, Integer>lazy().build(Model.class, parent, field, parse);
+	}
+
+	private DataPoint<String, Set<Integer>> setPoint(String name) throws NoSuchFieldException {
+		return ConvertingSetDataPointBuilder.<String, Integer>lazy().build(Model.class, parent, Model.class.getDeclaredField(name), parse);
+	}
+
+	public void testUnreadValueIsNotConverted() throws Exception {
+		DataPoint<String, Integer> amount = point("amount");
+
+		current = a;
+		amount.setter().accept("1");
+		amount.setter().accept("2");
+
+		assertEquals(0, conversions);
+		assertEquals(2, amount.getter().get().intValue());
+		assertEquals(1, conversions);
+		assertEquals(2, a.amount.intValue());
+	}
+
+	public void testSetClearsReplacedValue() throws Exception {
+		DataPoint<String, Integer> amount = point("amount");
+		DataPoint<String, Integer> count = point("count");
+
+		current = a;
+		amount.setter().accept("1");
+		count.setter().accept("1");
+		amount.getter().get();
+		count.getter().get();
+		amount.setter().accept("5");
+		count.setter().accept("5");
+
+		assertNull(a.amount);
+		assertEquals(0, a.count);
+		assertEquals(5, amount.getter().get().intValue());
+		assertEquals(5, count.getter().get().intValue());
+		assertEquals(5, a.count);
+	}
+
+	public void testSetForAnotherParentKeepsPendingValue() throws Exception {
+		DataPoint<String, Integer> amount = point("amount");
+
+		current = a;
+		amount.setter().accept("1");
+		current = b;
+		amount.setter().accept("2");
+
+		assertEquals(1, a.amount.intValue());
+		assertEquals(2, amount.getter().get().intValue());
+
+		current = a;
+
+		assertEquals(1, amount.getter().get().intValue());
+		assertEquals(2, conversions);
+	}
+
+	public void testSetMembersSurviveParentSwitch() throws Exception {
+		DataPoint<String, Set<Integer>> codes = setPoint("codes");
+
+		current = a;
+		codes.setter().accept("1");
+		codes.setter().accept("2");
+		current = b;
+		codes.setter().accept("3");
+
+		assertEquals(new HashSet<>(Arrays.asList(1, 2)), a.codes);
+		assertEquals(new HashSet<>(Arrays.asList(3)), codes.getter().get());
+
+		current = a;
+		codes.setter().accept("4");
+
+		assertEquals(new HashSet<>(Arrays.asList(3)), b.codes);
+		assertEquals(new HashSet<>(Arrays.asList(1, 2, 4)), codes.getter().get());
+	}
+
+	public void testFlushStoresPendingValue() throws Exception {
+		DataPoint<String, Integer> amount = point("amount");
+		DataPoint<String, Integer> count = point("count");
+
+		current = a;
+		amount.setter().accept("3");
+		count.setter().accept("4");
+		current = b;
+		amount.flush();
+		count.flush();
+
+		assertEquals(3, a.amount.intValue());
+		assertEquals(4, a.count);
+		assertEquals(2, conversions);
+
+		amount.flush();
+		current = a;
+
+		assertEquals(3, amount.getter().get().intValue());
+		assertEquals(2, conversions);
+	}
+
+	public void testFlushAddsQueuedMembers() throws Exception {
+		DataPoint<String, Set<Integer>> codes = setPoint("codes");
+
+		current = a;
+		codes.setter().accept("1");
+		codes.setter().accept("2");
+
+		assertNull(a.codes);
+
+		codes.flush();
+
+		assertEquals(new HashSet<>(Arrays.asList(1, 2)), a.codes);
+
+		codes.flush();
+
+		assertEquals(2, conversions);
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_access.compilation;
+
+import java.lang.reflect.Field;
+import java.util.function.Function;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.IntDataPoint;
+import com.lundellnet.toolbox.obj.data_access.LongDataPoint;
+
+public class PrimitiveDataPointTest
+	extends TestCase
+{
+	static class Model {
+		private int count;
+		private long total;
+		private double ratio;
+		private String name;
+	}
+
+	private final Model model = new Model();
+
+	private Field field(String name) throws NoSuchFieldException {
+		return Model.class.getDeclaredField(name);
+	}
+
+	public void testHandleBackedPicksPrimitivePoint() throws Exception {
+		DataPoint<Integer, Integer> count = DataPointBuilder.<Integer, Integer>handleBacked().build(Model.class, () -> model, field("count"));
+		DataPoint<Long, Long> total = DataPointBuilder.<Long, Long>handleBacked().build(Model.class, () -> model, field("total"));
+
+		assertTrue(count instanceof IntDataPoint);
+		assertTrue(total instanceof LongDataPoint);
+
+		count.setter().accept(4);
+		((LongDataPoint) total).longSetter().accept(9L);
+
+		assertEquals(4, model.count);
+		assertEquals(9L, total.getter().get().longValue());
+	}
+
+	public void testBoxingBridgesAreBuiltOnce() throws Exception {
+		IntDataPoint count = IntDataPointBuilder.handleBacked().build(Model.class, () -> model, field("count"));
+
+		assertSame(count.setter(), count.setter());
+		assertSame(count.getter(), count.getter());
+	}
+
+	public void testPrimitiveBuilderRejectsOtherFieldTypes() throws Exception {
+		try {
+			IntDataPointBuilder.handleBacked().build(Model.class, () -> model, field("total"));
+			fail();
+		} catch (DataPointCompilationException expected) {
+		}
+
+		try {
+			DoubleDataPointBuilder.handleBacked().build(Model.class, () -> model, field("name"));
+			fail();
+		} catch (DataPointCompilationException expected) {
+		}
+	}
+
+	public void testConvertingIntoPrimitiveFields() throws Exception {
+		Function<String, Double> parse = Double::valueOf;
+		DataPoint<String, Double> ratio = ConvertingObjectDataPointBuilder.<String, Double>handleBacked()
+				.build(Model.class, () -> model, field("ratio"), parse);
+
+		ratio.setter().accept("0.25");
+
+		assertEquals(0.25, model.ratio, 0);
+		assertEquals(0.25, ratio.getter().get(), 0);
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_containers.KeyedContainerTest.Item;
+
+public class ConcurrentMapContainerTest
+	extends TestCase
+{
+	private static final int THREADS = 8;
+	private static final int KEYS = 256;
+	private static final int ROUNDS = 500;
+
+	/**
+	 * Sums weights and removes an element once its weight reaches zero.
+	 */
+	private static final BiFunction<Item, Item, Item> SUM = (l, r) ->
+			(l.weight + r.weight == 0) ? null : new Item(l.key, l.name, l.weight + r.weight);
+
+	private ConcurrentMapContainer<Long, Item> container;
+
+	@Override
+	protected void setUp() {
+		container = new ConcurrentMapContainer<>((e) -> e.key, SUM);
+	}
+
+	private interface Task {
+		void run(int thread);
+	}
+
+	/**
+	 * Runs {@code task} on {@link #THREADS} threads released together, rethrowing the first
+	 * failure.
+	 */
+	private static void concurrently(Task task) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> running = new ArrayList<>();
+
+		try {
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+
+				running.add(pool.submit(() -> {
+					start.await();
+					task.run(thread);
+
+					return null;
+				}));
+			}
+
+			start.countDown();
+
+			for (Future<?> f : running) {
+				f.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	public void testConcurrentMergesAreAtomic() throws Exception {
+		concurrently((thread) -> {
+			for (int r = 0; r < ROUNDS; r++) {
+				for (long k = 0; k < KEYS; k++) {
+					container.includeElement(new Item(k, 1));
+				}
+			}
+		});
+
+		assertEquals(KEYS, container.size());
+
+		for (long k = 0; k < KEYS; k++) {
+			assertEquals("key " + k, THREADS * ROUNDS, container.retreiveElement(k).weight);
+		}
+	}
+
+	public void testConcurrentMergesRemovingElements() throws Exception {
+		concurrently((thread) -> {
+			int weight = (thread % 2 == 0) ? 1 : -1;
+
+			for (int r = 0; r < ROUNDS; r++) {
+				for (long k = 0; k < KEYS; k++) {
+					container.includeElement(new Item(k, weight));
+				}
+			}
+		});
+
+		assertEquals(0, container.size());
+		assertEquals(0, container.getStream().count());
+		assertNull(container.retreiveElement(0L));
+	}
+
+	public void testConcurrentElementMergeOverridesContainerMerge() throws Exception {
+		ConcurrentMapContainer<Long, Item> first = new ConcurrentMapContainer<>((e) -> e.key, (l, r) -> l);
+
+		concurrently((thread) -> {
+			for (int r = 0; r < ROUNDS; r++) {
+				first.includeElement(new Item(thread % 4, 1), (l, n) -> new Item(l.key, l.weight + n.weight));
+			}
+		});
+
+		assertEquals(4, first.size());
+
+		for (long k = 0; k < 4; k++) {
+			assertEquals("key " + k, (THREADS / 4) * ROUNDS, first.retreiveElement(k).weight);
+		}
+	}
+
+	public void testRetreiveElement() {
+		container.includeElement(new Item(3, 2));
+		container.includeElement(new Item(3, 5));
+
+		assertEquals(7, container.retreiveElement(3L).weight);
+		assertNull(container.retreiveElement(4L));
+
+		container.includeElement(new Item(3, -7));
+
+		assertNull(container.retreiveElement(3L));
+		assertEquals(0, container.size());
+	}
+
+	public void testParallelStreamRunsOverSnapshot() {
+		for (long k = 0; k < KEYS; k++) {
+			container.includeElement(new Item(k, 1));
+		}
+
+		Stream<Item> parallel = container.getStream(true);
+		Stream<Item> live = container.getStream(false);
+
+		for (long k = KEYS; k < 2 * KEYS; k++) {
+			container.includeElement(new Item(k, 1));
+		}
+
+		assertTrue(parallel.isParallel());
+		assertFalse(live.isParallel());
+		assertEquals(KEYS, parallel.mapToLong((e) -> e.key).filter((k) -> k < KEYS).count());
+		assertEquals(2 * KEYS, live.count());
+	}
+
+	public void testParallelStreamIsSizedAndSplits() {
+		for (long k = 0; k < KEYS; k++) {
+			container.includeElement(new Item(k, 1));
+		}
+
+		Spliterator<Item> all = container.getStream(true).spliterator();
+
+		assertTrue(all.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL));
+		assertEquals(KEYS, all.getExactSizeIfKnown());
+
+		Spliterator<Item> half = all.trySplit();
+
+		assertEquals(KEYS / 2, half.getExactSizeIfKnown());
+		assertEquals(KEYS / 2, all.getExactSizeIfKnown());
+		assertEquals(KEYS, container.getStream(true).mapToLong((e) -> e.key).distinct().count());
+		assertEquals(KEYS, container.getStream(true).mapToInt((e) -> e.weight).sum());
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.lang.management.ManagementFactory;
+import java.util.Spliterator;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_containers.EnumArrayContainerTest.Side;
+import com.lundellnet.toolbox.obj.data_containers.EnumArrayContainerTest.SideElement;
+import com.lundellnet.toolbox.obj.data_containers.KeyedContainerTest.Item;
+
+public class ContainerSpliteratorTest
+	extends TestCase
+{
+	private static final int SIZED = Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+	private static final int ELEMENTS = 1_001;
+
+	private static <C extends CollectionContainer<?, Item>> C filled(C c) {
+		for (long k = 0; k < ELEMENTS; k++) {
+			c.includeElement(new Item(k, 1));
+		}
+
+		return c;
+	}
+
+	/**
+	 * A parallel spliterator is sized at every split and halves it exactly; a sequential one is
+	 * sized until split and yields every element.
+	 */
+	private static void check(CollectionContainer<?, ?> c, int size) {
+		Spliterator<?> parallel = c.getStream(true).spliterator();
+
+		assertTrue(parallel.hasCharacteristics(SIZED));
+		assertEquals(size, parallel.getExactSizeIfKnown());
+
+		Spliterator<?> prefix = parallel.trySplit();
+
+		assertNotNull(prefix);
+		assertTrue(prefix.hasCharacteristics(SIZED));
+		assertTrue(parallel.hasCharacteristics(SIZED));
+		assertEquals(size / 2, prefix.getExactSizeIfKnown());
+		assertEquals(size - size / 2, parallel.getExactSizeIfKnown());
+
+		if (size >= 4) {
+			Spliterator<?> quarter = prefix.trySplit();
+
+			assertEquals(size / 2 / 2, quarter.getExactSizeIfKnown());
+			assertEquals(size / 2 - size / 2 / 2, prefix.getExactSizeIfKnown());
+		}
+
+		Spliterator<?> sequential = c.getStream(false).spliterator();
+		long[] seen = new long[1];
+
+		assertTrue(sequential.hasCharacteristics(Spliterator.SIZED | Spliterator.NONNULL));
+		assertEquals(size, sequential.getExactSizeIfKnown());
+
+		sequential.forEachRemaining((e) -> seen[0]++);
+
+		assertEquals(size, seen[0]);
+		assertEquals(size, c.getStream(false).count());
+		assertEquals(size, c.getStream(true).count());
+	}
+
+	public void testLongKeyContainer() {
+		check(filled(new LongKeyContainer<Item>((e) -> e.key, (l, r) -> l)), ELEMENTS);
+	}
+
+	public void testIntKeyContainer() {
+		check(filled(new IntKeyContainer<Item>((e) -> (int) e.key, (l, r) -> l)), ELEMENTS);
+	}
+
+	public void testStringKeyContainer() {
+		check(filled(new StringKeyContainer<Item>((e) -> e.name, (l, r) -> l)), ELEMENTS);
+	}
+
+	public void testEnumArrayContainer() {
+		EnumArrayContainer<Side, SideElement> c = new EnumArrayContainer<>(Side.class, (l, r) -> l);
+
+		c.includeElement(new SideElement(Side.BID, 1));
+		c.includeElement(new SideElement(Side.TRADE, 1));
+		check(c, 2);
+
+		c.includeElement(new SideElement(Side.ASK, 1));
+		check(c, 3);
+	}
+
+	public void testConcurrentMapContainerParallelSnapshot() {
+		ConcurrentMapContainer<Long, Item> c = filled(new ConcurrentMapContainer<Long, Item>((e) -> e.key, (l, r) -> l));
+		Spliterator<Item> parallel = c.getStream(true).spliterator();
+
+		assertTrue(parallel.hasCharacteristics(SIZED));
+		assertEquals(ELEMENTS, parallel.getExactSizeIfKnown());
+		assertEquals(ELEMENTS / 2, parallel.trySplit().getExactSizeIfKnown());
+		assertEquals(ELEMENTS - ELEMENTS / 2, parallel.getExactSizeIfKnown());
+		assertTrue(c.getStream(false).spliterator().hasCharacteristics(Spliterator.NONNULL));
+	}
+
+	public void testOffHeapContainer() throws Exception {
+		try (OffHeapContainer<OffHeapContainerTest.Tick> c = new OffHeapContainer<>(OffHeapContainerTest.Tick.class,
+				OffHeapContainerTest.Tick::new, (t) -> t.id, (l, r) -> l))
+		{
+			for (long k = 0; k < ELEMENTS; k++) {
+				c.includeElement(OffHeapContainerTest.element(new OffHeapContainerTest.Tick(k, 1.0, 1)));
+			}
+
+			check(c, ELEMENTS);
+		}
+	}
+
+	public void testSequentialStreamDoesNotCopyTable() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return;
+		}
+
+		com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+		LongKeyContainer<Item> c = new LongKeyContainer<>((e) -> e.key, (l, r) -> l);
+
+		for (long k = 0; k < 100_000; k++) {
+			c.includeElement(new Item(k, 1));
+		}
+
+		long id = Thread.currentThread().getId();
+		long min = Long.MAX_VALUE;
+
+		for (int run = 0; run < 20; run++) {
+			long before = allocations.getThreadAllocatedBytes(id);
+
+			c.getStream(false).spliterator().forEachRemaining((e) -> {});
+			min = Math.min(min, allocations.getThreadAllocatedBytes(id) - before);
+		}
+
+		assertTrue("allocated " + min + " bytes", min < 4_096);
+	}
+}
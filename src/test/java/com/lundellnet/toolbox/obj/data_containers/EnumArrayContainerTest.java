@@ -0,0 +1,101 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.elements.EnumElement;
+import com.lundellnet.toolbox.obj.elements.configs.EnumElementConf;
+
+public class EnumArrayContainerTest
+	extends TestCase
+{
+	enum Side { BID, ASK, TRADE }
+
+	static final class SideElement
+			implements EnumElement<Object, Object, EnumElementConf<Object, Object, Side>, Side>
+	{
+		final int weight;
+		private final EnumElementConf<Object, Object, Side> conf;
+
+		SideElement(Side side, int weight) {
+			this.weight = weight;
+			this.conf = new EnumElementConf<Object, Object, Side>() {
+				@Override
+				public DataPoint<Object, Object> dataPoint() {
+					return null;
+				}
+
+				@Override
+				public Class<Side> enumClass() {
+					return Side.class;
+				}
+
+				@Override
+				public Field enumConstField() {
+					return null;
+				}
+
+				@Override
+				public Side getEnumConstant() {
+					return side;
+				}
+			};
+		}
+
+		@Override
+		public EnumElementConf<Object, Object, Side> conf() {
+			return conf;
+		}
+	}
+
+	public void testIncludesAndMergesPerConstant() {
+		EnumArrayContainer<Side, SideElement> c = new EnumArrayContainer<>(Side.class,
+				(l, r) -> new SideElement(l.getEnumConstant(), l.weight + r.weight));
+
+		c.includeElement(new SideElement(Side.ASK, 1));
+		c.includeElement(new SideElement(Side.BID, 2));
+		c.includeElement(new SideElement(Side.ASK, 3));
+
+		assertEquals(2, c.size());
+		assertEquals(4, c.retreiveElement(Side.ASK).weight);
+		assertNull(c.retreiveElement(Side.TRADE));
+		assertEquals(Arrays.asList(Side.BID, Side.ASK),
+				c.getStream().map(SideElement::getEnumConstant).collect(Collectors.toList()));
+	}
+
+	public void testNullMergeRemovesElement() {
+		EnumArrayContainer<Side, SideElement> c = new EnumArrayContainer<>(Side.class, (l, r) -> null);
+
+		c.includeElement(new SideElement(Side.TRADE, 1));
+		c.includeElement(new SideElement(Side.TRADE, 1));
+
+		assertEquals(0, c.size());
+		assertNull(c.retreiveElement(Side.TRADE));
+		assertEquals(0, c.getStream().count());
+
+		c.includeElement(new SideElement(Side.TRADE, 5));
+
+		assertEquals(1, c.size());
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+
+public class KeyedContainerTest
+	extends TestCase
+{
+	static final class Item
+			implements ConfigurableDataAccess<DataAccessConf<?, ?>>
+	{
+		final long key;
+		final String name;
+		final int weight;
+
+		Item(long key, int weight) {
+			this(key, Long.toString(key), weight);
+		}
+
+		Item(long key, String name, int weight) {
+			this.key = key;
+			this.name = name;
+			this.weight = weight;
+		}
+
+		@Override
+		public DataAccessConf<?, ?> conf() {
+			return null;
+		}
+	}
+
+	/**
+	 * Sums weights and removes an element once its weight reaches zero.
+	 */
+	private static final BiFunction<Item, Item, Item> SUM = (l, r) ->
+			(l.weight + r.weight == 0) ? null : new Item(l.key, l.name, l.weight + r.weight);
+
+	public void testLongKeyedAgainstReferenceMap() {
+		check(new LongKeyContainer<>((e) -> e.key, SUM), (c, k) -> ((LongKeyContainer<Item>) c).retreiveElement(k));
+	}
+
+	public void testIntKeyedAgainstReferenceMap() {
+		check(new IntKeyContainer<>((e) -> (int) e.key, SUM), (c, k) -> ((IntKeyContainer<Item>) c).retreiveElement((int) k));
+	}
+
+	public void testStringKeyedAgainstReferenceMap() {
+		check(new StringKeyContainer<>((e) -> e.name, SUM), (c, k) -> ((StringKeyContainer<Item>) c).retreiveElement(Long.toString(k)));
+	}
+
+	public void testStringKeysWithEqualHashes() {
+		StringKeyContainer<Item> c = new StringKeyContainer<>((e) -> e.name, SUM);
+
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+
+		c.includeElement(new Item(1, "Aa", 1));
+		c.includeElement(new Item(2, "BB", 2));
+		c.includeElement(new Item(3, "AaAa", 3));
+		c.includeElement(new Item(4, "BBBB", 4));
+
+		assertEquals(2, c.retreiveElement("BB").weight);
+		assertEquals(4, c.retreiveElement("BBBB").weight);
+
+		c.includeElement(new Item(1, "Aa", -1));
+
+		assertNull(c.retreiveElement("Aa"));
+		assertEquals(2, c.retreiveElement("BB").weight);
+		assertEquals(3, c.size());
+	}
+
+	public void testLongKeysCollidingInOneSlot() {
+		LongKeyContainer<Item> c = new LongKeyContainer<>((e) -> e.key, SUM, 4);
+		long[] colliding = new long[4];
+		int found = 0;
+
+		for (long k = 0; found < colliding.length; k++) {
+			if ((Containers.mix(k) & 7) == 3) {
+				colliding[found++] = k;
+			}
+		}
+
+		for (long k : colliding) {
+			c.includeElement(new Item(k, 1));
+		}
+
+		c.includeElement(new Item(colliding[0], -1));
+		c.includeElement(new Item(colliding[2], -1));
+
+		assertNull(c.retreiveElement(colliding[0]));
+		assertEquals(1, c.retreiveElement(colliding[1]).weight);
+		assertNull(c.retreiveElement(colliding[2]));
+		assertEquals(1, c.retreiveElement(colliding[3]).weight);
+		assertEquals(2, c.size());
+	}
+
+	public void testElementMergeOverridesContainerMerge() {
+		LongKeyContainer<Item> c = new LongKeyContainer<>((e) -> e.key, (l, r) -> l);
+
+		c.includeElement(new Item(7, 1));
+		c.includeElement(new Item(7, 2));
+		assertEquals(1, c.retreiveElement(7L).weight);
+
+		c.includeElement(new Item(7, 2), (l, r) -> new Item(l.key, l.weight + r.weight));
+		assertEquals(3, c.retreiveElement(7L).weight);
+	}
+
+	private interface Lookup {
+		Item find(CollectionContainer<?, Item> c, long key);
+	}
+
+	private static void check(CollectionContainer<?, Item> c, Lookup lookup) {
+		Map<Long, Integer> expected = new HashMap<>();
+		SplittableRandom random = new SplittableRandom(7);
+
+		for (int n = 0; n < 20_000; n++) {
+			long key = random.nextInt(600) - 300;
+			int weight = random.nextInt(5) - 2;
+
+			if (weight == 0) {
+				weight = 1;
+			}
+
+			c.includeElement(new Item(key, weight));
+			expected.merge(key, weight, (l, r) -> (l + r == 0) ? null : l + r);
+		}
+
+		assertEquals(expected.size(), c.size());
+		assertEquals(expected.size(), c.getStream(true).count());
+
+		for (long key = -300; key < 300; key++) {
+			Item found = lookup.find(c, key);
+			Integer weight = expected.get(key);
+
+			if (weight == null) {
+				assertNull("key " + key, found);
+			} else {
+				assertEquals("key " + key, weight.intValue(), found.weight);
+			}
+		}
+
+		assertEquals(expected, c.getStream().collect(Collectors.toMap((e) -> e.key, (e) -> e.weight)));
+
+		c.clear();
+
+		assertEquals(0, c.size());
+		assertNull(lookup.find(c, 0));
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.data_containers;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.StandardDataAccess;
+
+public class OffHeapContainerTest
+	extends TestCase
+{
+	public static final class Tick {
+		long id;
+		double price;
+		int volume;
+		short venue;
+		boolean open;
+
+		Tick() {}
+
+		Tick(long id, double price, int volume) {
+			this.id = id;
+			this.price = price;
+			this.volume = volume;
+			this.venue = (short) (id % 7);
+			this.open = id % 2 == 0;
+		}
+	}
+
+	public static final class Labelled {
+		long id;
+		String label;
+	}
+
+	static StandardDataAccess<Tick, DataAccessConf<Tick, Tick>> element(Tick value) {
+		DataPoint<Tick, Tick> point = new DataPoint<Tick, Tick>() {
+			@Override
+			public Field field() {
+				return null;
+			}
+
+			@Override
+			public Consumer<Tick> setter() {
+				return (t) -> {};
+			}
+
+			@Override
+			public Supplier<Tick> getter() {
+				return () -> value;
+			}
+		};
+		DataAccessConf<Tick, Tick> conf = () -> point;
+
+		return () -> conf;
+	}
+
+	private static OffHeapContainer<Tick> container() {
+		return new OffHeapContainer<>(Tick.class, Tick::new, (t) -> t.id,
+				(l, r) -> new Tick(l.id, r.price, l.volume + r.volume));
+	}
+
+	private static long directMemoryUsed() {
+		for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+			if (pool.getName().equals("direct")) {
+				return pool.getMemoryUsed();
+			}
+		}
+
+		throw new AssertionError("No direct buffer pool.");
+	}
+
+	public void testIncludeMergeAndRetrieve() throws Exception {
+		try (OffHeapContainer<Tick> c = container()) {
+			for (long id = 0; id < 1000; id++) {
+				c.includeElement(element(new Tick(id, id / 4.0, 1)));
+			}
+			c.includeElement(element(new Tick(10, 99.5, 5)));
+
+			assertEquals(1000, c.size());
+
+			Tick t = c.retreiveElement(10L).get();
+
+			assertEquals(99.5, t.price, 0);
+			assertEquals(6, t.volume);
+			assertEquals(3, t.venue);
+			assertTrue(t.open);
+			assertNull(c.retreiveElement(1000L));
+			assertEquals(1000, c.getStream(true).count());
+		}
+	}
+
+	public void testResolvedFieldsReadAndWriteInPlace() throws Exception {
+		try (OffHeapContainer<Tick> c = container()) {
+			OffHeapField<Tick> price = c.field("price");
+			OffHeapField<Tick> volume = c.field("volume");
+			OffHeapField<Tick> id = c.field("id");
+
+			for (long i = 0; i < 100; i++) {
+				c.includeElement(element(new Tick(i, i, (int) i)));
+			}
+
+			OffHeapRecord<Tick> r = c.retreiveElement(42L);
+
+			r.setDouble(price, 1.25);
+			r.setInt(volume, r.getInt(volume) + 1);
+
+			assertEquals(42, r.getLong(id));
+			assertEquals(1.25, r.getDouble("price"), 0);
+			assertEquals(43, r.getInt("volume"));
+			assertEquals(43, r.get().volume);
+			assertSame(price, c.field("price"));
+			assertEquals(double.class, price.type());
+		}
+	}
+
+	public void testFieldAccessIsChecked() throws Exception {
+		try (OffHeapContainer<Tick> c = container(); OffHeapContainer<Tick> other = container()) {
+			c.includeElement(element(new Tick(1, 1, 1)));
+
+			OffHeapRecord<Tick> r = c.retreiveElement(1L);
+
+			try {
+				r.getInt(c.field("price"));
+				fail();
+			} catch (IllegalArgumentException expected) {
+			}
+
+			try {
+				r.getDouble(other.field("price"));
+				fail();
+			} catch (IllegalArgumentException expected) {
+			}
+
+			try {
+				c.field("missing");
+				fail();
+			} catch (IllegalArgumentException expected) {
+			}
+		}
+	}
+
+	public void testReferenceFieldsAreRejected() {
+		try {
+			new OffHeapContainer<>(Labelled.class, Labelled::new, (l) -> l.id, (l, r) -> r);
+			fail();
+		} catch (IllegalArgumentException expected) {
+			assertTrue(expected.getMessage().contains("label"));
+		}
+	}
+
+	public void testCloseFreesDirectMemory() throws Exception {
+		OffHeapContainer<Tick> c = container();
+		long before = directMemoryUsed();
+
+		c.includeElement(element(new Tick(1, 1, 1)));
+
+		long segment = directMemoryUsed() - before;
+
+		assertTrue(segment > 1 << 25);
+		c.close();
+		assertTrue(directMemoryUsed() <= before);
+
+		try {
+			c.retreiveElement(1L);
+			fail();
+		} catch (IllegalStateException expected) {
+		}
+
+		c.close();
+	}
+
+	public void testMappedContainerClosesFile() throws Exception {
+		Path path = Files.createTempFile("ticks", ".bin");
+
+		try {
+			OffHeapContainer<Tick> c = OffHeapContainer.mapped(path, Tick.class, Tick::new, (t) -> t.id, (l, r) -> r);
+
+			for (long id = 0; id < 10; id++) {
+				c.includeElement(element(new Tick(id, id * 2.0, 1)));
+			}
+
+			assertEquals(14.0, c.retreiveElement(7L).getDouble(c.field("price")), 0);
+			c.close();
+
+			try {
+				c.getStream();
+				fail();
+			} catch (IllegalStateException expected) {
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+}
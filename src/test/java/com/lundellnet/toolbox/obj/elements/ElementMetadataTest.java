@@ -0,0 +1,148 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.elements;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.api.data_access.annotations.PointLocation;
+import com.lundellnet.toolbox.api.data_access.annotations.PointMapping;
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.compilation.DataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.elements.configs.ElementConf;
+
+public class ElementMetadataTest
+	extends TestCase
+{
+	static final class Record {
+		@PointLocation int located;
+		@PointMapping long mapped;
+		String plain;
+	}
+
+	/**
+	 * Only used by {@link #testFieldsParsedIndependently()}, so nothing else parses it first.
+	 */
+	static final class Independent {
+		@PointLocation long first;
+		@PointLocation long second;
+	}
+
+	static final class Derived
+			extends Base
+	{
+		String derived;
+	}
+
+	static class Base {
+		@PointMapping int inherited;
+	}
+
+	private static Field field(Class<?> type, String name) throws Exception {
+		return type.getDeclaredField(name);
+	}
+
+	private static boolean parsed(ElementMetadata metadata) throws Exception {
+		Field annotations = ElementMetadata.class.getDeclaredField("annotations");
+
+		annotations.setAccessible(true);
+
+		return annotations.get(metadata) != null;
+	}
+
+	public void testOfIsSharedPerField() throws Exception {
+		ElementMetadata located = ElementMetadata.of(field(Record.class, "located"));
+
+		assertSame(located, ElementMetadata.of(field(Record.class, "located")));
+		assertNotSame(located, ElementMetadata.of(field(Record.class, "mapped")));
+		assertEquals("located", located.fieldName());
+	}
+
+	public void testAnnotationsResolvedOnFirstRequest() throws Exception {
+		ElementMetadata mapped = ElementMetadata.of(field(Record.class, "mapped"));
+
+		assertFalse(parsed(mapped));
+		assertNotNull(mapped.mapping());
+		assertTrue(parsed(mapped));
+		assertNull(mapped.location());
+		assertNull(mapped.componentField());
+	}
+
+	public void testUnannotatedFieldResolvesToNull() throws Exception {
+		ElementMetadata plain = ElementMetadata.of(field(Record.class, "plain"));
+
+		assertNull(plain.location());
+		assertNull(plain.mapping());
+		assertNull(plain.mappings());
+		assertNull(plain.matrix());
+		assertNull(plain.component());
+		assertEquals(0, plain.associatedTypes().count());
+	}
+
+	public void testAssociatedTypesFollowDeclaredAnnotations() throws Exception {
+		assertEquals(1, ElementMetadata.of(field(Record.class, "located")).associatedTypes().count());
+	}
+
+	public void testResolvedNeverReflects() throws Exception {
+		Annotation location = field(Record.class, "located").getAnnotation(PointLocation.class);
+		ElementMetadata resolved = ElementMetadata.resolved("located", location);
+
+		assertTrue(parsed(resolved));
+		assertSame(location, resolved.location());
+		assertNull(resolved.mapping());
+		assertEquals("located", resolved.fieldName());
+		assertEquals(1, resolved.associatedTypes().count());
+	}
+
+	public void testInheritedFieldsRegisteredWithDeclaringClass() throws Exception {
+		ElementMetadata inherited = ElementMetadata.of(field(Base.class, "inherited"));
+
+		assertSame(inherited, ElementMetadata.of(Derived.class.getSuperclass().getDeclaredField("inherited")));
+		assertNotNull(inherited.mapping());
+		assertNull(ElementMetadata.of(field(Derived.class, "derived")).mapping());
+	}
+
+	public void testFieldsParsedIndependently() throws Exception {
+		ElementMetadata first = ElementMetadata.of(field(Independent.class, "first"));
+		ElementMetadata second = ElementMetadata.of(field(Independent.class, "second"));
+
+		assertNotNull(first.location());
+		assertTrue(parsed(first));
+		assertFalse(parsed(second));
+	}
+
+	public void testElementReadsMetadataHeldByConf() throws Exception {
+		Record record = new Record();
+		DataPoint<Object, Object> point = DataPointBuilder.handleBacked()
+				.build(Record.class, () -> record, field(Record.class, "located"));
+		ElementMetadata held = ElementMetadata.resolved("located");
+		ElementConf<Object, Object> conf = ElementConf.of(point, held);
+		DataAccessConf<Object, Object> plain = () -> point;
+		LocatableElement<Object, Object, DataAccessConf<Object, Object>> resolved = () -> conf;
+		LocatableElement<Object, Object, DataAccessConf<Object, Object>> looked = () -> plain;
+
+		assertSame(held, resolved.getMetadata());
+		assertNull(resolved.getMetadata().location());
+		assertSame(ElementMetadata.of(point.field()), looked.getMetadata());
+		assertNotNull(looked.getLocation());
+		assertSame(ElementMetadata.of(point.field()), ElementConf.of(point).metadata());
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.elements.compilation;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.api.data_access.annotations.PointLocation;
+import com.lundellnet.toolbox.obj.collections.configs.DataCollectionConf;
+import com.lundellnet.toolbox.obj.collections.configurables.DataCollection;
+import com.lundellnet.toolbox.obj.data_access.IntDataPoint;
+import com.lundellnet.toolbox.obj.data_access.compilation.FieldHandles;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.IntDataAccessConf;
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.elements.AnnotatedElement;
+import com.lundellnet.toolbox.obj.elements.ElementMetadata;
+import com.lundellnet.toolbox.obj.elements.configs.ElementConf;
+
+public class BindingPlanTest
+	extends TestCase
+{
+	public static final class Row {
+		@PointLocation int quantity;
+		String symbol;
+		static int ignored;
+	}
+
+	interface Bound
+			extends AnnotatedElement<Object, Object, DataAccessConf<Object, Object>>
+	{}
+
+	private static DataCollection<DataCollectionConf<Row, Bound, ElementBuilder<?, ?>>, Row, Bound> collection() {
+		ElementBuilder<ElementConf<?, ?>, Bound> builder = (c) -> {
+			@SuppressWarnings("unchecked")
+			DataAccessConf<Object, Object> conf = (DataAccessConf<Object, Object>) (DataAccessConf<?, ?>) c;
+
+			return () -> conf;
+		};
+		DataCollectionConf<Row, Bound, ElementBuilder<?, ?>> conf = new DataCollectionConf<Row, Bound, ElementBuilder<?, ?>>() {
+			@Override
+			public ElementBuilder<?, ?> elementBuilder() {
+				return builder;
+			}
+
+			@Override
+			public CollectionContainer<?, Bound> collectionStream() {
+				return null;
+			}
+
+			@Override
+			public Class<Row> resultClass() {
+				return Row.class;
+			}
+
+			@Override
+			public Supplier<Row> resultSupplier() {
+				return Row::new;
+			}
+		};
+
+		return () -> conf;
+	}
+
+	public void testCollectionsOfOneClassShareOnePlan() {
+		BindingPlan<Row> plan = collection().conf().bindingPlan();
+
+		assertSame(plan, collection().conf().bindingPlan());
+		assertSame(plan, BindingPlan.of(Row.class));
+		assertEquals(2, plan.size());
+		assertEquals("quantity", plan.binding(0).field().getName());
+		assertSame(plan.binding(0).handles(), BindingPlan.of(Row.class).binding(0).handles());
+	}
+
+	public void testBoundElementsHoldBindingMetadata() {
+		Row row = new Row();
+		List<Bound> first = collection().bindElements(() -> row);
+		List<Bound> second = collection().bindElements(Row::new);
+		BindingPlan.Binding quantity = BindingPlan.of(Row.class).binding(0);
+
+		assertEquals(2, first.size());
+		assertSame(quantity.metadata(), first.get(0).getMetadata());
+		assertSame(first.get(0).getMetadata(), second.get(0).getMetadata());
+		assertSame(first.get(1).getMetadata(), second.get(1).getMetadata());
+		assertNotNull(first.get(0).getMetadata().location());
+		assertNull(first.get(1).getMetadata().location());
+		assertSame(ElementMetadata.of(quantity.field()), quantity.metadata());
+	}
+
+	public void testBoundElementsReadAndWriteTheParent() {
+		Row row = new Row();
+		List<Bound> elements = collection().bindElements(() -> row);
+
+		elements.get(0).conf().dataPoint().setter().accept(7);
+		elements.get(1).conf().dataPoint().setter().accept("ABC");
+
+		assertEquals(7, row.quantity);
+		assertEquals("ABC", row.symbol);
+		assertEquals("ABC", elements.get(1).conf().dataPoint().getter().get());
+	}
+
+	public void testPrimitiveBindingsGetPrimitiveConfigurations() {
+		Row row = new Row();
+		BindingPlan.Binding quantity = BindingPlan.of(Row.class).binding(0);
+		DataAccessConf<Integer, Integer> conf = quantity.conf(() -> row);
+
+		assertTrue(conf instanceof IntDataAccessConf);
+
+		IntDataPoint point = ((IntDataAccessConf) conf).dataPoint();
+
+		point.intSetter().accept(42);
+		assertEquals(42, row.quantity);
+		assertEquals(42, point.intGetter().getAsInt());
+		assertSame(quantity.field(), point.field());
+	}
+
+	public void testDataPointUsesBindingHandles() {
+		Row row = new Row();
+		BindingPlan.Binding symbol = BindingPlan.of(Row.class).binding(1);
+
+		assertSame(FieldHandles.of(symbol.field()), symbol.handles());
+
+		symbol.<String, String>dataPoint(() -> row).setter().accept("XYZ");
+		assertEquals("XYZ", row.symbol);
+	}
+
+	public void testSkippedBindings() {
+		List<Bound> elements = collection().bindElements(Row::new,
+				(b, parent) -> (b.field().getType() == int.class) ? null : b.<Object, Object>conf(parent),
+				(c) -> () -> c);
+
+		assertEquals(1, elements.size());
+		assertEquals("symbol", elements.get(0).getField().getName());
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import junit.framework.TestCase;
+
+public class CharSequenceConvertersTest
+	extends TestCase
+{
+	private static void assertMalformedLong(String text) {
+		try {
+			CharSequenceConverters.parseLong(text);
+			fail(text);
+		} catch (NumberFormatException expected) {
+		}
+	}
+
+	public void testParseLongAcceptsFullRange() {
+		assertEquals(Long.MAX_VALUE, CharSequenceConverters.parseLong(Long.toString(Long.MAX_VALUE)));
+		assertEquals(Long.MIN_VALUE, CharSequenceConverters.parseLong(Long.toString(Long.MIN_VALUE)));
+		assertEquals(-5, CharSequenceConverters.parseLong(" -5 "));
+		assertEquals(5, CharSequenceConverters.parseLong("+5"));
+	}
+
+	public void testParseLongRejectsOverflowAndMalformed() {
+		assertMalformedLong("9223372036854775808");
+		assertMalformedLong("-9223372036854775809");
+		assertMalformedLong("");
+		assertMalformedLong("-");
+		assertMalformedLong("1 2");
+		assertMalformedLong("0x10");
+	}
+
+	public void testParseIntRange() {
+		assertEquals(Integer.MIN_VALUE, CharSequenceConverters.parseInt("-2147483648"));
+
+		try {
+			CharSequenceConverters.parseInt("2147483648");
+			fail();
+		} catch (NumberFormatException expected) {
+		}
+	}
+
+	public void testParseDouble() {
+		assertEquals(-0.5, CharSequenceConverters.parseDouble(" -.5 "), 0);
+		assertEquals(2.0, CharSequenceConverters.parseDouble("2."), 0);
+		assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(CharSequenceConverters.parseDouble("-0")));
+		assertEquals(1.5e10, CharSequenceConverters.parseDouble("1.5e10"), 0);
+		assertEquals(Double.parseDouble("0.12345678901234567891"), CharSequenceConverters.parseDouble("0.12345678901234567891"), 0);
+
+		try {
+			CharSequenceConverters.parseDouble(".");
+			fail();
+		} catch (NumberFormatException expected) {
+		}
+	}
+
+	public void testParsesViews() {
+		CharSequenceView view = new CharSequenceView("x|2024-02-29|12.25|", 2, 12);
+
+		assertEquals(LocalDate.of(2024, 2, 29), CharSequenceConverters.parseIsoDate(view));
+		assertEquals(12.25, CharSequenceConverters.parseDouble(view.reset(view.toString() + "|12.25", 11, 16)), 0);
+	}
+
+	public void testEnumLookupByView() {
+		Function<CharSequence, TimeUnit> units = CharSequenceConverters.toEnum(TimeUnit.class);
+		CharSequenceView view = new CharSequenceView("a, SECONDS ,b", 2, 11);
+
+		assertSame(TimeUnit.SECONDS, units.apply(view));
+		assertSame(TimeUnit.DAYS, units.apply(" DAYS"));
+
+		try {
+			units.apply(view.reset("SECOND", 0, 6));
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+}
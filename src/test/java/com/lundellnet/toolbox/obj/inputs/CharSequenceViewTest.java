@@ -0,0 +1,67 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+public class CharSequenceViewTest
+	extends TestCase
+{
+	public void testContentHashMatchesString() {
+		CharSequenceView view = new CharSequenceView("a,bcd,e", 2, 5);
+
+		assertEquals("bcd".hashCode(), view.contentHash());
+		assertEquals("".hashCode(), new CharSequenceView("abc", 1, 1).contentHash());
+		assertTrue(view.contentEquals("bcd"));
+		assertFalse(view.contentEquals("bce"));
+	}
+
+	public void testEqualsAndHashCodeAreIdentity() {
+		CharSequenceView a = new CharSequenceView("xyz", 0, 3);
+		CharSequenceView b = new CharSequenceView("xyz", 0, 3);
+
+		assertFalse(a.equals(b));
+		assertEquals(System.identityHashCode(a), a.hashCode());
+	}
+
+	public void testRepositionedViewStaysFindableInHashSet() {
+		CharSequenceView view = new CharSequenceView("left right", 0, 4);
+		Set<CharSequence> seen = new HashSet<>();
+
+		seen.add(view);
+		view.reset("left right", 5, 10);
+
+		assertTrue(seen.contains(view));
+	}
+
+	public void testTrimAndSubSequence() {
+		CharSequenceView view = new CharSequenceView("[  ab c  ]", 1, 9).trim();
+
+		assertEquals("ab c", view.toString());
+		assertEquals("b c", view.subSequence(1, 4).toString());
+
+		try {
+			view.subSequence(2, 5);
+			fail();
+		} catch (IndexOutOfBoundsException expected) {
+		}
+	}
+}
@@ -0,0 +1,328 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.io.BufferedWriter;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.api.data_access.annotations.PointLocation;
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.DoubleDataPoint;
+import com.lundellnet.toolbox.obj.data_access.IntDataPoint;
+import com.lundellnet.toolbox.obj.data_access.LongDataPoint;
+import com.lundellnet.toolbox.obj.data_access.compilation.DataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.compilation.DoubleDataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.compilation.IntDataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.compilation.LongDataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.DoubleDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.IntDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configs.LongDataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.DoubleDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.IntDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.LongDataAccess;
+import com.lundellnet.toolbox.obj.data_access.configurables.StandardDataAccess;
+import com.lundellnet.toolbox.obj.elements.LocatableElement;
+
+/**
+ * Writes a file of fixed-width trades, maps it through {@link FixedWidthReader} and decodes every
+ * record into elements bound to a fresh {@link Trade}, sequentially and in parallel.
+ */
+public class FixedWidthLayoutTest
+	extends TestCase
+{
+	static final class Trade {
+		@PointLocation long id;
+		@PointLocation double price;
+		@PointLocation String symbol;
+		@PointLocation int quantity;
+		long volume;
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Span {
+		int offset();
+
+		int length() default 4;
+
+		String name() default "";
+	}
+
+	static final class Spanned {
+		@Span(offset = 8) long id;
+	}
+
+	private static final Map<String, int[]> COLUMNS = new HashMap<>();
+
+	static {
+		COLUMNS.put("id", new int[] { 0, 8 });
+		COLUMNS.put("price", new int[] { 8, 10 });
+		COLUMNS.put("symbol", new int[] { 18, 6 });
+		COLUMNS.put("quantity", new int[] { 24, 6 });
+	}
+
+	private static final int RECORDS = 3_000;
+	private static final String[] SYMBOLS = { "AAPL", "MSFT", "X", "GOOGL" };
+
+	static final class Row {
+		Trade current;
+		final List<LocatableElement<?, ?, ?>> elements = elements(() -> current);
+	}
+
+	static final class LongColumn
+			implements LongDataAccess<LongDataAccessConf>, LocatableElement<Long, Long, LongDataAccessConf>
+	{
+		private final LongDataAccessConf conf;
+
+		LongColumn(Supplier<Trade> parent, Field field) {
+			LongDataPoint point = LongDataPointBuilder.handleBacked().build(Trade.class, parent, field);
+
+			this.conf = () -> point;
+		}
+
+		@Override
+		public LongDataAccessConf conf() {
+			return conf;
+		}
+	}
+
+	static final class IntColumn
+			implements IntDataAccess<IntDataAccessConf>, LocatableElement<Integer, Integer, IntDataAccessConf>
+	{
+		private final IntDataAccessConf conf;
+
+		IntColumn(Supplier<Trade> parent, Field field) {
+			IntDataPoint point = IntDataPointBuilder.handleBacked().build(Trade.class, parent, field);
+
+			this.conf = () -> point;
+		}
+
+		@Override
+		public IntDataAccessConf conf() {
+			return conf;
+		}
+	}
+
+	static final class DoubleColumn
+			implements DoubleDataAccess<DoubleDataAccessConf>, LocatableElement<Double, Double, DoubleDataAccessConf>
+	{
+		private final DoubleDataAccessConf conf;
+
+		DoubleColumn(Supplier<Trade> parent, Field field) {
+			DoubleDataPoint point = DoubleDataPointBuilder.handleBacked().build(Trade.class, parent, field);
+
+			this.conf = () -> point;
+		}
+
+		@Override
+		public DoubleDataAccessConf conf() {
+			return conf;
+		}
+	}
+
+	static final class StringColumn
+			implements StandardDataAccess<String, DataAccessConf<String, String>>, LocatableElement<String, String, DataAccessConf<String, String>>
+	{
+		private final DataAccessConf<String, String> conf;
+
+		StringColumn(Supplier<Trade> parent, Field field) {
+			DataPoint<String, String> point = DataPointBuilder.<String, String>handleBacked().build(Trade.class, parent, field);
+
+			this.conf = () -> point;
+		}
+
+		@Override
+		public DataAccessConf<String, String> conf() {
+			return conf;
+		}
+	}
+
+	private Path file;
+	private FixedWidthLayout.LocationResolver resolver;
+	private FixedWidthLayout layout;
+
+	@Override
+	protected void setUp() throws Exception {
+		file = Files.createTempFile("trades", ".dat");
+
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
+			for (int i = 0; i < RECORDS; i++) {
+				out.write(String.format(Locale.ROOT, "%08d%10.3f%-6s%6d\n", i, price(i), SYMBOLS[i % SYMBOLS.length], i % 1000));
+			}
+		}
+
+		Map<PointLocation, int[]> spans = new IdentityHashMap<>();
+		List<LocatableElement<?, ?, ?>> templates = elements(() -> null);
+
+		for (LocatableElement<?, ?, ?> e : templates) {
+			spans.put(e.getLocation(), COLUMNS.get(e.getFieldName()));
+		}
+
+		resolver = new FixedWidthLayout.LocationResolver() {
+			@Override
+			public int offset(PointLocation location) {
+				return spans.get(location)[0];
+			}
+
+			@Override
+			public int length(PointLocation location) {
+				return spans.get(location)[1];
+			}
+		};
+		layout = FixedWidthLayout.of(templates, resolver);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		Files.deleteIfExists(file);
+	}
+
+	public void testRecordLengthCoversColumns() {
+		assertEquals(30, layout.recordLength());
+	}
+
+	public void testDecodesMappedFileSequentially() throws Exception {
+		Row row = new Row();
+
+		try (FixedWidthReader reader = FixedWidthReader.open(file, layout.recordLength(), 1)) {
+			assertEquals(RECORDS, reader.records());
+
+			List<Trade> trades = reader.records(false).map((r) -> {
+				row.current = new Trade();
+				layout.decode(row.elements, r);
+				return row.current;
+			}).collect(Collectors.toList());
+
+			check(trades);
+		}
+	}
+
+	public void testAccepterServesParallelWorkers() throws Exception {
+		ThreadLocal<Row> rows = ThreadLocal.withInitial(Row::new);
+		BiConsumer<LocatableElement<?, ?, ?>, FixedWidthRecord> accepter = layout.accepter();
+
+		try (FixedWidthReader reader = FixedWidthReader.open(file, layout.recordLength(), 1)) {
+			List<Trade> trades = reader.records(true).map((r) -> {
+				Row row = rows.get();
+
+				row.current = new Trade();
+
+				for (LocatableElement<?, ?, ?> e : row.elements) {
+					accepter.accept(e, r);
+				}
+
+				return row.current;
+			}).collect(Collectors.toList());
+
+			check(trades);
+		}
+	}
+
+	public void testFieldWithoutColumnIsRejected() throws Exception {
+		Row row = new Row();
+		LocatableElement<?, ?, ?> other = new LongColumn(() -> row.current, Trade.class.getDeclaredField("volume"));
+
+		try (FixedWidthReader reader = FixedWidthReader.open(file, layout.recordLength(), 1)) {
+			reader.records(false).limit(1).forEach((r) -> {
+				try {
+					layout.decode(Arrays.asList(other), r);
+					fail();
+				} catch (IllegalArgumentException expected) {
+				}
+			});
+		}
+	}
+
+	public void testFieldLaidOutTwiceIsRejected() throws Exception {
+		List<LocatableElement<?, ?, ?>> templates = elements(() -> null);
+
+		templates.addAll(elements(() -> null));
+
+		try {
+			FixedWidthLayout.of(templates, resolver);
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	public void testAnnotatedMembersAreRead() throws Exception {
+		Annotation span = Spanned.class.getDeclaredField("id").getAnnotation(Span.class);
+
+		assertEquals(8, FixedWidthLayout.member(span, "offset"));
+		assertEquals(4, FixedWidthLayout.member(span, "length"));
+
+		try {
+			FixedWidthLayout.member(span, "width");
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+
+		try {
+			FixedWidthLayout.member(span, "name");
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+
+	private static void check(List<Trade> trades) {
+		assertEquals(RECORDS, trades.size());
+
+		for (int i = 0; i < RECORDS; i++) {
+			Trade t = trades.get(i);
+
+			assertEquals(i, t.id);
+			assertEquals(price(i), t.price, 1e-9);
+			assertEquals(SYMBOLS[i % SYMBOLS.length], t.symbol);
+			assertEquals(i % 1000, t.quantity);
+		}
+	}
+
+	private static double price(int i) {
+		return ((i % 7 == 0) ? -1 : 1) * (i * 1.125 + 0.001 * (i % 1000));
+	}
+
+	static List<LocatableElement<?, ?, ?>> elements(Supplier<Trade> parent) {
+		try {
+			return new ArrayList<>(Arrays.<LocatableElement<?, ?, ?>>asList(
+					new LongColumn(parent, Trade.class.getDeclaredField("id")),
+					new DoubleColumn(parent, Trade.class.getDeclaredField("price")),
+					new StringColumn(parent, Trade.class.getDeclaredField("symbol")),
+					new IntColumn(parent, Trade.class.getDeclaredField("quantity"))));
+		} catch (NoSuchFieldException e) {
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class FixedWidthRecordTest
+	extends TestCase
+{
+	private static FixedWidthRecord record(String text) {
+		ByteBuffer buffer = ByteBuffer.wrap(("##" + text + "##").getBytes(StandardCharsets.ISO_8859_1));
+
+		return new FixedWidthRecord().position(buffer, 2, text.length(), 0);
+	}
+
+	private static long parseLong(String text) {
+		return record(text).parseLong(0, text.length());
+	}
+
+	private static double parseDouble(String text) {
+		return record(text).parseDouble(0, text.length());
+	}
+
+	private static void assertMalformedLong(String text) {
+		try {
+			parseLong(text);
+			fail(text);
+		} catch (NumberFormatException expected) {
+		}
+	}
+
+	private static void assertMalformedDouble(String text) {
+		try {
+			parseDouble(text);
+			fail(text);
+		} catch (NumberFormatException expected) {
+		}
+	}
+
+	public void testParseLongSignsAndBlanks() {
+		assertEquals(0, parseLong("0"));
+		assertEquals(42, parseLong("  42  "));
+		assertEquals(42, parseLong("+42"));
+		assertEquals(-42, parseLong("  -42"));
+		assertEquals(7, parseLong("0007"));
+	}
+
+	public void testParseLongAcceptsFullRange() {
+		assertEquals(Long.MAX_VALUE, parseLong(Long.toString(Long.MAX_VALUE)));
+		assertEquals(Long.MIN_VALUE, parseLong(Long.toString(Long.MIN_VALUE)));
+		assertEquals(-Long.MAX_VALUE, parseLong(Long.toString(-Long.MAX_VALUE)));
+	}
+
+	public void testParseLongRejectsOverflow() {
+		assertMalformedLong("9223372036854775808");
+		assertMalformedLong("-9223372036854775809");
+		assertMalformedLong("99999999999999999999");
+	}
+
+	public void testParseLongRejectsMalformed() {
+		assertMalformedLong("");
+		assertMalformedLong("    ");
+		assertMalformedLong("-");
+		assertMalformedLong("+ ");
+		assertMalformedLong("1 2");
+		assertMalformedLong("--1");
+		assertMalformedLong("1.0");
+	}
+
+	public void testParseIntRange() {
+		assertEquals(Integer.MAX_VALUE, record("2147483647").parseInt(0, 10));
+		assertEquals(Integer.MIN_VALUE, record("-2147483648").parseInt(0, 11));
+
+		try {
+			record("2147483648").parseInt(0, 10);
+			fail();
+		} catch (NumberFormatException expected) {
+		}
+	}
+
+	public void testParseReadsOnlyItsColumn() {
+		FixedWidthRecord r = record("00012-3.5  x");
+
+		assertEquals(12, r.parseLong(0, 5));
+		assertEquals(-3.5, r.parseDouble(5, 4), 0);
+		assertEquals("x", r.string(9, 3));
+		assertTrue(r.isBlank(9, 2));
+	}
+
+	public void testParseDoubleForms() {
+		assertEquals(1.5, parseDouble(" 1.5 "), 0);
+		assertEquals(0.5, parseDouble(".5"), 0);
+		assertEquals(0.5, parseDouble("+.5"), 0);
+		assertEquals(1.0, parseDouble("1."), 0);
+		assertEquals(-12.25, parseDouble("-12.250"), 0);
+		assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(parseDouble("-0")));
+		assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(parseDouble("-0.000")));
+	}
+
+	public void testParseDoubleRejectsMalformed() {
+		assertMalformedDouble("");
+		assertMalformedDouble("   ");
+		assertMalformedDouble(".");
+		assertMalformedDouble("-");
+		assertMalformedDouble("-.");
+		assertMalformedDouble("1.2.3");
+		assertMalformedDouble("1e5");
+		assertMalformedDouble("1 5");
+		assertMalformedDouble("NaN");
+	}
+
+	public void testParseDoubleFallsBackBeyondExactDigits() {
+		String[] wide = {
+				"12345678901234567890",
+				"0.1234567890123456789",
+				"3.141592653589793238",
+				"-98765432109876.54321",
+				"0.0000000000000000001"
+		};
+
+		for (String s : wide) {
+			assertEquals(s, Double.parseDouble(s), parseDouble(s), 0);
+		}
+	}
+
+	public void testParseDoubleIsCorrectlyRounded() {
+		Random random = new Random(17);
+
+		for (int n = 0; n < 10_000; n++) {
+			long mantissa = random.nextLong() % 1_000_000_000_000_000L;
+			int scale = random.nextInt(16);
+			StringBuilder s = new StringBuilder(Long.toString(Math.abs(mantissa)));
+
+			while (s.length() <= scale) {
+				s.insert(0, '0');
+			}
+			s.insert(s.length() - scale, '.');
+			if (mantissa < 0) {
+				s.insert(0, '-');
+			}
+
+			String text = s.toString();
+
+			assertEquals(text, Double.parseDouble(text), parseDouble(text), 0);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.inputs;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import junit.framework.TestCase;
+
+public class TextRecordReaderTest
+	extends TestCase
+{
+	private static String lines(int count) {
+		StringBuilder s = new StringBuilder();
+
+		for (int i = 0; i < count; i++) {
+			s.append(i).append(',').append("name").append(i).append((i % 2 == 0) ? "\r\n" : "\n");
+		}
+
+		return s.append(count).append(",last").toString();
+	}
+
+	public void testReadsLinesAndFields() throws Exception {
+		try (TextRecordReader reader = new TextRecordReader(new StringReader("a,b\r\n\nc"), ',')) {
+			TextRecord r = reader.next();
+
+			assertEquals(2, r.fields());
+			assertEquals("b", r.string(1));
+			assertEquals(0, reader.next().line().length());
+			assertEquals("c", reader.next().string(0));
+			assertEquals(2, r.index());
+			assertNull(reader.next());
+		}
+	}
+
+	public void testGrowsBufferForLongLines() throws Exception {
+		StringBuilder wide = new StringBuilder();
+
+		for (int i = 0; i < 20_000; i++) {
+			wide.append('x');
+		}
+
+		try (TextRecordReader reader = new TextRecordReader(new StringReader(wide + "\nshort"), ',')) {
+			assertEquals(wide.toString(), reader.next().string(0));
+			assertEquals("short", reader.next().string(0));
+		}
+	}
+
+	public void testRecordsDoNotSplit() throws Exception {
+		try (TextRecordReader reader = new TextRecordReader(new StringReader(lines(10)), ',')) {
+			assertNull(reader.records().spliterator().trySplit());
+		}
+	}
+
+	public void testParallelStreamSeesEveryRecordOnce() throws Exception {
+		int count = 5_000;
+
+		try (TextRecordReader reader = new TextRecordReader(new StringReader(lines(count)), ',')) {
+			List<String> names = reader.records().parallel()
+					.map((r) -> r.index() + ":" + r.string(1))
+					.collect(Collectors.toList());
+
+			assertEquals(count + 1, names.size());
+
+			for (int i = 0; i < count; i++) {
+				assertEquals(i + ":name" + i, names.get(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.metrics;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.parsers.Tally;
+import com.lundellnet.toolbox.obj.parsers.TallyCollection;
+import com.lundellnet.toolbox.obj.parsers.TallyParser;
+import com.lundellnet.toolbox.obj.parsers.compilation.ParserBuilder;
+
+public class CountingParserMetricsTest
+	extends TestCase
+{
+	private static final ParserBuilder<Tally.Entry, TallyParser, TallyCollection, Tally, Long> BUILDER = (e, i, a, c, f) -> new TallyParser() {
+		@Override
+		public BiFunction<TallyCollection, Tally.Entry, Tally> elementInit() {
+			return e;
+		}
+
+		@Override
+		public BiFunction<TallyCollection, Tally.Entry, Tally> identifier() {
+			return i;
+		}
+
+		@Override
+		public BiConsumer<Tally, Tally.Entry> accepter() {
+			return a;
+		}
+
+		@Override
+		public BinaryOperator<Tally> checker() {
+			return c;
+		}
+
+		@Override
+		public Function<TallyCollection, Long> finisher() {
+			return f;
+		}
+	};
+
+	private static TallyParser parser(ParserMetrics m) {
+		TallyParser template = new TallyParser();
+
+		return BUILDER.instrumented(m).compile(template.elementInit(), template.identifier(), template.accepter(),
+				template.checker(), template.finisher());
+	}
+
+	public void testCountsAcceptIdentifyAndMerge() {
+		CountingParserMetrics metrics = new CountingParserMetrics();
+		TallyParser left = parser(metrics);
+		TallyParser right = parser(metrics);
+
+		left.accept(new Tally.Entry(1, 1));
+		left.accept(new Tally.Entry(1, 2));
+		right.accept(new Tally.Entry(1, 3));
+		right.accept(new Tally.Entry(2, 4));
+		left.merge(right);
+
+		MetricsSnapshot s = metrics.watch(left.collection().conf().collectionStream()).snapshot();
+
+		assertEquals(4, s.accepted());
+		assertEquals(1, s.identifierHits());
+		assertEquals(3, s.identifierMisses());
+		assertEquals(3, s.created());
+		assertEquals(1, s.merged());
+		assertEquals(2, s.containerSize());
+		assertEquals(10L, left.transform().longValue());
+	}
+
+	public void testNoneSkipsInstrumentation() {
+		assertSame(BUILDER, BUILDER.instrumented(ParserMetrics.NONE));
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.collectors.ParsingCollector;
+
+public class AcceptBatchTest
+	extends TestCase
+{
+	private static List<Tally.Entry> entries(long... keys) {
+		List<Tally.Entry> batch = new ArrayList<>();
+
+		for (long k : keys) {
+			batch.add(new Tally.Entry(k, k * 10));
+		}
+
+		return batch;
+	}
+
+	/**
+	 * Counts identifier lookups.
+	 */
+	private static class CountingParser
+			extends TallyParser
+	{
+		final AtomicInteger lookups = new AtomicInteger();
+
+		@Override
+		public BiFunction<TallyCollection, Tally.Entry, Tally> identifier() {
+			BiFunction<TallyCollection, Tally.Entry, Tally> identify = super.identifier();
+
+			return (c, t) -> {
+				lookups.incrementAndGet();
+				return identify.apply(c, t);
+			};
+		}
+	}
+
+	/**
+	 * Declares a batch key and fails when a record goes through {@code accept}.
+	 */
+	private static final class KeyedParser
+			extends CountingParser
+	{
+		@Override
+		public ToLongFunction<? super Tally.Entry> batchKey() {
+			return (t) -> t.key;
+		}
+
+		@Override
+		public void accept(Tally.Entry t) {
+			fail("accepted outside the keyed batch");
+		}
+	}
+
+	public void testBatchGoesThroughAccept() {
+		List<Tally.Entry> seen = new ArrayList<>();
+		TallyParser parser = new TallyParser() {
+			@Override
+			public void accept(Tally.Entry t) {
+				seen.add(t);
+				super.accept(t);
+			}
+		};
+		List<Tally.Entry> batch = entries(1, 2, 1);
+
+		parser.acceptBatch(batch);
+		parser.acceptBatch(batch.spliterator());
+		parser.acceptBatch(batch.toArray(new Tally.Entry[0]));
+
+		assertEquals(9, seen.size());
+		assertEquals(6, parser.tally(1).count());
+		assertEquals(60, parser.tally(1).total());
+		assertEquals(60, parser.tally(2).total());
+	}
+
+	public void testKeyedBatchIdentifiesEachKeyOnce() {
+		CountingParser parser = new CountingParser();
+
+		parser.acceptBatch(entries(1, 1, 1, 2, 2, 1, 3, 2), (t) -> t.key);
+
+		assertEquals(3, parser.lookups.get());
+		assertEquals(4, parser.tally(1).count());
+		assertEquals(40, parser.tally(1).total());
+		assertEquals(3, parser.tally(2).count());
+		assertEquals(30, parser.tally(3).total());
+	}
+
+	public void testBatchKeyGroupsEveryBatchVariant() {
+		KeyedParser parser = new KeyedParser();
+		List<Tally.Entry> batch = entries(1, 2, 1, 3, 2);
+
+		parser.acceptBatch(batch);
+		parser.acceptBatch(batch.spliterator());
+		parser.acceptBatch(batch.toArray(new Tally.Entry[0]));
+
+		assertEquals(9, parser.lookups.get());
+		assertEquals(6, parser.tally(1).count());
+		assertEquals(120, parser.tally(2).total());
+		assertEquals(3, parser.tally(3).count());
+	}
+
+	public void testKeyedBatchOutgrowingItsTable() {
+		SplittableRandom random = new SplittableRandom(11);
+		long[] keys = new long[20_000];
+
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = (i < 512) ? i % 8 : random.nextInt(3_000) - 1_500;
+		}
+
+		List<Tally.Entry> batch = entries(keys);
+		CountingParser batched = new CountingParser();
+		TallyParser single = new TallyParser();
+
+		batched.acceptBatch(batch.spliterator(), (t) -> t.key);
+		batched.acceptBatch(entries(7, 7), (t) -> t.key);
+		batch.forEach(single::accept);
+		single.accept(new Tally.Entry(7, 70));
+		single.accept(new Tally.Entry(7, 70));
+
+		assertEquals(Arrays.stream(keys).distinct().count() + 1, batched.lookups.get());
+
+		for (long k = -1_500; k < 1_500; k++) {
+			Tally expected = single.tally(k);
+
+			if (expected == null) {
+				assertNull(batched.tally(k));
+			} else {
+				assertEquals("key " + k, expected.count(), batched.tally(k).count());
+				assertEquals("key " + k, expected.total(), batched.tally(k).total());
+			}
+		}
+	}
+
+	public void testKeyedBatchOfDistinctKeysResolvesEachRecord() {
+		long[] keys = new long[1_000];
+
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = i % 900;
+		}
+
+		CountingParser parser = new CountingParser();
+
+		parser.acceptBatch(entries(keys), (t) -> t.key);
+
+		assertTrue(parser.lookups.get() > 900);
+		assertEquals(2, parser.tally(99).count());
+		assertEquals(1, parser.tally(100).count());
+		assertEquals(8_990, parser.tally(899).total());
+	}
+
+	public void testNestedKeyedBatchOnSameThread() {
+		TallyParser inner = new TallyParser();
+		TallyParser outer = new TallyParser() {
+			@Override
+			public BiConsumer<Tally, Tally.Entry> accepter() {
+				BiConsumer<Tally, Tally.Entry> add = super.accepter();
+
+				return (e, t) -> {
+					add.accept(e, t);
+					inner.acceptBatch(entries(t.key, 100), (n) -> n.key);
+				};
+			}
+		};
+
+		outer.acceptBatch(entries(1, 2, 1), (t) -> t.key);
+
+		assertEquals(2, outer.tally(1).count());
+		assertEquals(20, outer.tally(2).total());
+		assertEquals(2, inner.tally(1).count());
+		assertEquals(3, inner.tally(100).count());
+	}
+
+	public void testBatchingCollectorGroupsByKey() {
+		CountingParser parser = new CountingParser();
+		ParsingCollector<Tally.Entry, CountingParser, TallyCollection, Long> records = () -> () -> parser;
+
+		long total = Stream.of(entries(1, 2, 1), entries(2, 2, 3))
+				.collect(records.batching((t) -> t.key));
+
+		assertEquals(110, total);
+		assertEquals(4, parser.lookups.get());
+		assertEquals(3, parser.tally(2).count());
+	}
+
+	public void testKeyedBatchMatchesPerRecordFeed() {
+		List<Tally.Entry> batch = entries(5, 4, 4, 5, 9, 9, 9, 4);
+		TallyParser batched = new TallyParser();
+		TallyParser single = new TallyParser();
+
+		batched.acceptBatch(batch, (t) -> t.key);
+		batch.forEach(single::accept);
+
+		for (long k : Arrays.asList(4L, 5L, 9L)) {
+			assertEquals(single.tally(k).count(), batched.tally(k).count());
+			assertEquals(single.tally(k).total(), batched.tally(k).total());
+		}
+	}
+}
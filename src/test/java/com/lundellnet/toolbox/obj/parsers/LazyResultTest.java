@@ -0,0 +1,227 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.collections.configs.DataCollectionConf;
+import com.lundellnet.toolbox.obj.collections.configurables.DataCollection;
+import com.lundellnet.toolbox.obj.collectors.ParsingCollector;
+import com.lundellnet.toolbox.obj.data_access.DataPoint;
+import com.lundellnet.toolbox.obj.data_access.compilation.ConvertingObjectDataPointBuilder;
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.data_containers.LongKeyContainer;
+import com.lundellnet.toolbox.obj.elements.compilation.ElementBuilder;
+
+/**
+ * Reads the result objects of a parser whose elements convert lazily straight from their fields,
+ * never through the data points.
+ */
+public class LazyResultTest
+	extends TestCase
+{
+	public static final class Quote {
+		Integer price;
+	}
+
+	static final class Row {
+		final long key;
+		final String price;
+
+		Row(long key, String price) {
+			this.key = key;
+			this.price = price;
+		}
+	}
+
+	static final class QuoteElement
+			implements ConfigurableDataAccess<DataAccessConf<String, Integer>>
+	{
+		final long key;
+		final Quote quote = new Quote();
+		private final DataAccessConf<String, Integer> conf;
+
+		QuoteElement(long key) {
+			DataPoint<String, Integer> point;
+
+			try {
+				point = ConvertingObjectDataPointBuilder.<String, Integer>lazy()
+						.build(Quote.class, () -> quote, Quote.class.getDeclaredField("price"), Integer::valueOf);
+			} catch (NoSuchFieldException e) {
+				throw new AssertionError(e);
+			}
+
+			this.key = key;
+			this.conf = () -> point;
+		}
+
+		@Override
+		public DataAccessConf<String, Integer> conf() {
+			return conf;
+		}
+	}
+
+	interface Quotes
+			extends DataCollection<DataCollectionConf<Map<Long, Quote>, QuoteElement, ElementBuilder<?, ?>>, Map<Long, Quote>, QuoteElement>
+	{}
+
+	static final class QuoteParser
+			implements Parser<Row, Quotes, QuoteElement, Map<Long, Quote>>
+	{
+		private final CollectionContainer<Long, QuoteElement> container = new LongKeyContainer<>((e) -> e.key, (l, r) -> l);
+		private final Quotes collection;
+
+		QuoteParser() {
+			DataCollectionConf<Map<Long, Quote>, QuoteElement, ElementBuilder<?, ?>> conf =
+					new DataCollectionConf<Map<Long, Quote>, QuoteElement, ElementBuilder<?, ?>>() {
+						@Override
+						public ElementBuilder<?, ?> elementBuilder() {
+							return null;
+						}
+
+						@Override
+						public CollectionContainer<?, QuoteElement> collectionStream() {
+							return container;
+						}
+
+						@Override
+						@SuppressWarnings("unchecked")
+						public Class<Map<Long, Quote>> resultClass() {
+							return (Class<Map<Long, Quote>>) (Class<?>) Map.class;
+						}
+
+						@Override
+						public Supplier<Map<Long, Quote>> resultSupplier() {
+							return () -> null;
+						}
+					};
+
+			this.collection = () -> conf;
+		}
+
+		@Override
+		public BiFunction<Quotes, Row, QuoteElement> elementInit() {
+			return (c, t) -> {
+				QuoteElement e = new QuoteElement(t.key);
+
+				c.includeElement(e);
+				return e;
+			};
+		}
+
+		@Override
+		public BiFunction<Quotes, Row, QuoteElement> identifier() {
+			return (c, t) -> container.retreiveElement(t.key);
+		}
+
+		@Override
+		public BiConsumer<QuoteElement, Row> accepter() {
+			return (e, t) -> e.conf().dataPoint().setter().accept(t.price);
+		}
+
+		@Override
+		public BinaryOperator<QuoteElement> checker() {
+			return (l, r) -> l;
+		}
+
+		@Override
+		public Function<Quotes, Map<Long, Quote>> finisher() {
+			return (c) -> c.elements().collect(Collectors.toMap((e) -> e.key, (e) -> e.quote));
+		}
+
+		@Override
+		public Quotes collection() {
+			return collection;
+		}
+
+		@Override
+		public void accept(Row t) {
+			QuoteElement e = identifier().apply(collection, t);
+
+			accepter().accept((e != null) ? e : elementInit().apply(collection, t), t);
+		}
+
+		@Override
+		public Quotes combine(Row t1, Row t2) {
+			accept(t1);
+			accept(t2);
+			return collection;
+		}
+
+		@Override
+		public Map<Long, Quote> transform() {
+			return finisher().apply(collection);
+		}
+	}
+
+	private static final List<Row> ROWS = Arrays.asList(
+			new Row(1, "10"), new Row(2, "20"), new Row(1, "11"), new Row(3, "30"), new Row(2, "21"));
+
+	private static void assertPrices(Map<Long, Quote> quotes) {
+		assertEquals(3, quotes.size());
+		assertEquals(11, quotes.get(1L).price.intValue());
+		assertEquals(21, quotes.get(2L).price.intValue());
+		assertEquals(30, quotes.get(3L).price.intValue());
+	}
+
+	public void testCollectorFinisherFlushesPendingValues() {
+		QuoteParser parser = new QuoteParser();
+		ParsingCollector<Row, QuoteParser, Quotes, Map<Long, Quote>> records = () -> () -> parser;
+
+		assertPrices(ROWS.stream().collect(records));
+	}
+
+	public void testBatchingCollectorFinisherFlushesPendingValues() {
+		QuoteParser parser = new QuoteParser();
+		ParsingCollector<Row, QuoteParser, Quotes, Map<Long, Quote>> records = () -> () -> parser;
+
+		assertPrices(Arrays.asList(ROWS.subList(0, 2), ROWS.subList(2, 5)).stream().collect(records.batching((r) -> r.key)));
+	}
+
+	public void testSnapshotFlushesPendingValues() {
+		QuoteParser parser = new QuoteParser();
+
+		ROWS.forEach(parser::accept);
+
+		assertPrices(parser.snapshot());
+	}
+
+	public void testTransformLeavesFlushToCaller() {
+		QuoteParser parser = new QuoteParser();
+
+		ROWS.forEach(parser::accept);
+
+		assertNull(parser.transform().get(3L).price);
+
+		parser.collection().flush();
+
+		assertPrices(parser.transform());
+	}
+}
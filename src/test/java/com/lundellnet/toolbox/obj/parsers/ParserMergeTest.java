@@ -0,0 +1,76 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import java.util.stream.LongStream;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.collectors.PartitionedParsingCollector;
+import com.lundellnet.toolbox.obj.data_containers.ConcurrentMapContainer;
+
+public class ParserMergeTest
+	extends TestCase
+{
+	public void testMergeCombinesSharedElementsThroughChecker() {
+		TallyParser left = new TallyParser();
+		TallyParser right = new TallyParser();
+
+		left.accept(new Tally.Entry(1, 10));
+		left.accept(new Tally.Entry(2, 20));
+		right.accept(new Tally.Entry(1, 5));
+		right.accept(new Tally.Entry(3, 7));
+
+		left.merge(right);
+
+		assertEquals(2, left.tally(1).count());
+		assertEquals(15, left.tally(1).total());
+		assertEquals(7, left.tally(3).total());
+		assertEquals(42L, left.transform().longValue());
+	}
+
+	public void testMergeWithItselfIsNoOp() {
+		TallyParser parser = new TallyParser();
+
+		parser.accept(new Tally.Entry(1, 10));
+		parser.merge(parser);
+
+		assertEquals(10L, parser.transform().longValue());
+	}
+
+	public void testMergeThroughConcurrentMapContainer() {
+		TallyParser left = new TallyParser(new ConcurrentMapContainer<>(Tally::key, (l, r) -> l));
+		TallyParser right = new TallyParser(new ConcurrentMapContainer<>(Tally::key, (l, r) -> l));
+
+		left.accept(new Tally.Entry(4, 1));
+		right.accept(new Tally.Entry(4, 2));
+		left.merge(right);
+
+		assertEquals(3, left.tally(4).total());
+	}
+
+	public void testPartitionedCollectorKeepsEveryRecord() {
+		PartitionedParsingCollector<Tally.Entry, TallyParser, TallyCollection, Long> collector = () -> TallyParser::new;
+		long expected = LongStream.range(0, 100_000).map((i) -> i % 1000).sum();
+		long total = LongStream.range(0, 100_000).parallel()
+				.mapToObj((i) -> new Tally.Entry(i % 97, i % 1000))
+				.collect(collector);
+
+		assertEquals(expected, total);
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.inputs.TextRecord;
+
+public class PipelinedParserTest
+	extends TestCase
+{
+	private static void feed(PipelinedParser<Tally.Entry, TallyCollection, Tally, Long> pipeline, int from, int to, int keys) {
+		for (int i = from; i < to; i++) {
+			pipeline.accept(new Tally.Entry(i % keys, i));
+		}
+	}
+
+	private static long sum(int from, int to) {
+		return ((long) from + to - 1) * (to - from) / 2;
+	}
+
+	public void testCloseAcceptsPartialChunk() {
+		TallyParser parser = new TallyParser();
+		int fed = PipelinedParser.CHUNK + 44;
+
+		try (PipelinedParser<Tally.Entry, TallyCollection, Tally, Long> pipeline = new PipelinedParser<>(parser, 2, 1024)) {
+			feed(pipeline, 0, fed, 1);
+		}
+
+		assertEquals(fed, parser.tally(0).count());
+		assertEquals(sum(0, fed), parser.tally(0).total());
+	}
+
+	public void testCloseWithOnlyPartialChunk() {
+		TallyParser parser = new TallyParser();
+
+		try (PipelinedParser<Tally.Entry, TallyCollection, Tally, Long> pipeline = new PipelinedParser<>(parser, 1, 1)) {
+			feed(pipeline, 0, 3, 3);
+		}
+
+		assertEquals(2, parser.tally(2).total());
+	}
+
+	public void testDrainWaitsForEveryRecord() {
+		TallyParser parser = new TallyParser();
+
+		try (PipelinedParser<Tally.Entry, TallyCollection, Tally, Long> pipeline = new PipelinedParser<>(parser, 3, 512)) {
+			feed(pipeline, 0, 10_001, 17);
+			pipeline.drain();
+
+			long count = 0;
+
+			for (int k = 0; k < 17; k++) {
+				count += parser.tally(k).count();
+			}
+
+			assertEquals(10_001, count);
+
+			feed(pipeline, 10_001, 20_000, 17);
+			assertEquals(Long.valueOf(sum(0, 20_000)), pipeline.transform());
+
+			long processed = pipeline.stages().get(1).processed();
+
+			assertEquals(20_000, processed);
+		}
+	}
+
+	public void testRecordsOfOneElementKeepFeedOrder() {
+		Map<Tally, List<Long>> seen = new ConcurrentHashMap<>();
+		TallyParser parser = new TallyParser() {
+			@Override
+			public BiConsumer<Tally, Tally.Entry> accepter() {
+				BiConsumer<Tally, Tally.Entry> accept = super.accepter();
+
+				return (e, t) -> {
+					seen.computeIfAbsent(e, (k) -> new ArrayList<>()).add(t.value);
+					accept.accept(e, t);
+				};
+			}
+		};
+
+		try (PipelinedParser<Tally.Entry, TallyCollection, Tally, Long> pipeline = new PipelinedParser<>(parser, 4, 256)) {
+			feed(pipeline, 0, 5_000, 31);
+			pipeline.drain();
+		}
+
+		assertEquals(31, seen.size());
+
+		for (List<Long> values : seen.values()) {
+			for (int i = 1; i < values.size(); i++) {
+				assertEquals(values.get(i - 1) + 31, (long) values.get(i));
+			}
+		}
+	}
+
+	/**
+	 * The failure reaches the feeding thread on whichever call comes first once a worker has
+	 * recorded it, a later {@code accept} or the {@code drain}.
+	 */
+	public void testStageFailureSurfacesOnFeedOrDrain() {
+		RuntimeException boom = new RuntimeException("boom");
+		TallyParser parser = new TallyParser() {
+			@Override
+			public BiConsumer<Tally, Tally.Entry> accepter() {
+				return (e, t) -> {
+					if (t.value == 300) {
+						throw boom;
+					}
+				};
+			}
+		};
+
+		try (PipelinedParser<Tally.Entry, TallyCollection, Tally, Long> pipeline = new PipelinedParser<>(parser, 2, 256)) {
+			try {
+				feed(pipeline, 0, 1_000, 5);
+				pipeline.drain();
+				fail();
+			} catch (IllegalStateException expected) {
+				assertSame(boom, expected.getCause());
+			}
+
+			try {
+				pipeline.accept(new Tally.Entry(1, 1));
+				fail();
+			} catch (IllegalStateException expected) {
+			}
+		}
+	}
+
+	public void testClosedPipelineRejectsRecords() {
+		PipelinedParser<Tally.Entry, TallyCollection, Tally, Long> pipeline = new PipelinedParser<>(new TallyParser(), 1, 16);
+
+		pipeline.close();
+		pipeline.close();
+
+		try {
+			pipeline.accept(new Tally.Entry(1, 1));
+			fail();
+		} catch (IllegalStateException expected) {
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void testFlyweightRecordsAreRejected() {
+		try (PipelinedParser<Tally.Entry, TallyCollection, Tally, Long> pipeline = new PipelinedParser<>(new TallyParser(), 1, 16)) {
+			Consumer raw = pipeline;
+
+			try {
+				raw.accept(new TextRecord(',').reset("a,b"));
+				fail();
+			} catch (IllegalArgumentException expected) {
+			}
+
+			pipeline.drain();
+		}
+	}
+}
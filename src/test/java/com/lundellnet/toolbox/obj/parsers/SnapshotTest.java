@@ -0,0 +1,109 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import junit.framework.TestCase;
+
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+
+public class SnapshotTest
+	extends TestCase
+{
+	/**
+	 * Container relying on the default, unsupported {@code clear()}.
+	 */
+	static final class FixedContainer
+			implements CollectionContainer<Long, Tally>
+	{
+		private final Map<Long, Tally> elements = new HashMap<>();
+
+		@Override
+		public void includeElement(Tally e) {
+			elements.putIfAbsent(e.key(), e);
+		}
+
+		@Override
+		public Tally retreiveElement(Long ident) {
+			return elements.get(ident);
+		}
+
+		@Override
+		public Stream<Tally> getStream() {
+			return elements.values().stream();
+		}
+	}
+
+	public void testSnapshotClearsBuiltInCollections() {
+		TallyParser parser = new TallyParser();
+
+		parser.accept(new Tally.Entry(1, 5));
+		parser.accept(new Tally.Entry(2, 6));
+
+		assertTrue(parser.collection().supportsClear());
+		assertEquals(11L, parser.snapshot().longValue());
+		assertEquals(0, parser.collection().elements().count());
+
+		parser.accept(new Tally.Entry(1, 1));
+
+		assertEquals(1L, parser.snapshot().longValue());
+	}
+
+	public void testWindowedParserEmitsEveryWindow() {
+		List<Long> windows = new ArrayList<>();
+		WindowedParser<Tally.Entry, TallyCollection, Tally, Long> windowed = new TallyParser().windowed(2, 0, windows::add);
+
+		for (long i = 1; i <= 5; i++) {
+			windowed.accept(new Tally.Entry(i % 2, i));
+		}
+
+		windowed.flush();
+
+		assertEquals(3, windows.size());
+		assertEquals(3L, windows.get(0).longValue());
+		assertEquals(7L, windows.get(1).longValue());
+		assertEquals(5L, windows.get(2).longValue());
+	}
+
+	public void testUnclearableCollectionsAreRejectedUpFront() {
+		TallyParser parser = new TallyParser(new FixedContainer());
+
+		parser.accept(new Tally.Entry(1, 5));
+
+		assertFalse(parser.collection().supportsClear());
+
+		try {
+			parser.windowed(10, 0, (r) -> {});
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+
+		try {
+			parser.snapshot();
+			fail();
+		} catch (UnsupportedOperationException expected) {
+		}
+
+		assertEquals(5L, parser.transform().longValue());
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import com.lundellnet.toolbox.obj.data_access.configs.DataAccessConf;
+import com.lundellnet.toolbox.obj.data_access.configurables.ConfigurableDataAccess;
+
+/**
+ * Test element counting and summing the values of one key.
+ */
+public class Tally
+		implements ConfigurableDataAccess<DataAccessConf<?, ?>>
+{
+	/**
+	 * Immutable test record.
+	 */
+	public static final class Entry {
+		final long key;
+		final long value;
+
+		public Entry(long key, long value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	private final long key;
+	private long count;
+	private long total;
+
+	public Tally(long key) {
+		this.key = key;
+	}
+
+	public long key() {
+		return key;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	public long total() {
+		return total;
+	}
+
+	public void add(long value) {
+		count++;
+		total += value;
+	}
+
+	public Tally merge(Tally other) {
+		count += other.count;
+		total += other.total;
+		return this;
+	}
+
+	@Override
+	public DataAccessConf<?, ?> conf() {
+		return null;
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import java.util.function.Supplier;
+
+import com.lundellnet.toolbox.obj.collections.configs.DataCollectionConf;
+import com.lundellnet.toolbox.obj.collections.configurables.DataCollection;
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.elements.compilation.ElementBuilder;
+
+public class TallyCollection
+		implements DataCollection<TallyCollection.Conf, Long, Tally>
+{
+	public static final class Conf
+			implements DataCollectionConf<Long, Tally, ElementBuilder<?, ?>>
+	{
+		private final CollectionContainer<Long, Tally> container;
+
+		Conf(CollectionContainer<Long, Tally> container) {
+			this.container = container;
+		}
+
+		@Override
+		public ElementBuilder<?, ?> elementBuilder() {
+			return null;
+		}
+
+		@Override
+		public CollectionContainer<Long, Tally> collectionStream() {
+			return container;
+		}
+
+		@Override
+		public Class<Long> resultClass() {
+			return Long.class;
+		}
+
+		@Override
+		public Supplier<Long> resultSupplier() {
+			return () -> 0L;
+		}
+	}
+
+	private final Conf conf;
+
+	public TallyCollection(CollectionContainer<Long, Tally> container) {
+		this.conf = new Conf(container);
+	}
+
+	@Override
+	public Conf conf() {
+		return conf;
+	}
+
+	public Tally retreive(long key) {
+		return conf.collectionStream().retreiveElement(key);
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ Copyright 2017 Appropriate Technologies LLC.
+
+ This file is part of toolbox-obj-api, a component of the Lundellnet Java Toolbox.
+
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+package com.lundellnet.toolbox.obj.parsers;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import com.lundellnet.toolbox.obj.data_containers.CollectionContainer;
+import com.lundellnet.toolbox.obj.data_containers.LongKeyContainer;
+
+/**
+ * Test parser tallying entries per key. The container keeps the first of two elements sharing a
+ * key, so only {@link #checker()} preserves both.
+ */
+public class TallyParser
+		implements Parser<Tally.Entry, TallyCollection, Tally, Long>
+{
+	private final TallyCollection collection;
+
+	private final BiFunction<TallyCollection, Tally.Entry, Tally> elementInit = (c, t) -> {
+		Tally e = new Tally(t.key);
+
+		c.includeElement(e);
+		return e;
+	};
+	private final BiFunction<TallyCollection, Tally.Entry, Tally> identifier = (c, t) -> c.retreive(t.key);
+	private final BiConsumer<Tally, Tally.Entry> accepter = (e, t) -> e.add(t.value);
+	private final BinaryOperator<Tally> checker = Tally::merge;
+	private final Function<TallyCollection, Long> finisher = (c) -> c.elements().mapToLong(Tally::total).sum();
+
+	public TallyParser() {
+		this(new LongKeyContainer<>(Tally::key, (l, r) -> l));
+	}
+
+	public TallyParser(CollectionContainer<Long, Tally> container) {
+		this.collection = new TallyCollection(container);
+	}
+
+	@Override
+	public BiFunction<TallyCollection, Tally.Entry, Tally> elementInit() {
+		return elementInit;
+	}
+
+	@Override
+	public BiFunction<TallyCollection, Tally.Entry, Tally> identifier() {
+		return identifier;
+	}
+
+	@Override
+	public BiConsumer<Tally, Tally.Entry> accepter() {
+		return accepter;
+	}
+
+	@Override
+	public BinaryOperator<Tally> checker() {
+		return checker;
+	}
+
+	@Override
+	public Function<TallyCollection, Long> finisher() {
+		return finisher;
+	}
+
+	@Override
+	public TallyCollection collection() {
+		return collection;
+	}
+
+	@Override
+	public void accept(Tally.Entry t) {
+		Tally e = identifier().apply(collection, t);
+
+		accepter().accept((e != null) ? e : elementInit().apply(collection, t), t);
+	}
+
+	@Override
+	public TallyCollection combine(Tally.Entry t1, Tally.Entry t2) {
+		accept(t1);
+		accept(t2);
+		return collection;
+	}
+
+	@Override
+	public Long transform() {
+		return finisher().apply(collection);
+	}
+
+	public Tally tally(long key) {
+		return collection.retreive(key);
+	}
+}